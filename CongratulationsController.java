@@ -1,4 +1,5 @@
 import game.ProfileManager;
+import game.log.Logger;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -14,10 +15,13 @@ import java.io.IOException;
  * Handle actions related to progressing to the next level or returning to the level selection screen.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.4
+ * @version 1.5
  */
 public class CongratulationsController {
 
+    // Logger for failed scene changes.
+    private static final Logger LOG = Logger.getLogger(CongratulationsController.class);
+
     @FXML
     private Button nextLevel;
 
@@ -63,9 +67,9 @@ public class CongratulationsController {
 
             controller.initialiseLevel(nextLevelPath);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load the next level", e);
         }
-        System.out.println("Moving to the next level!");
+        LOG.info("Moving to the next level!");
     }
 
     /**
@@ -111,7 +115,7 @@ public class CongratulationsController {
             Pane root = FXMLLoader.load(getClass().getResource("Fxml/levels.fxml"));
             MainMenuTest.mainScene.setRoot(root);
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the levels screen", e);
         }
     }
 
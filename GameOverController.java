@@ -1,3 +1,4 @@
+import game.log.Logger;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -16,10 +17,13 @@ import java.io.IOException;
  * Handle actions related to returning to the main menu or restarting the current level.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.7
+ * @version 1.8
  */
 public class GameOverController {
 
+    // Logger for failed scene changes.
+    private static final Logger LOG = Logger.getLogger(GameOverController.class);
+
     @FXML
     private Button menu;
 
@@ -47,7 +51,7 @@ public class GameOverController {
             Pane root = FXMLLoader.load(getClass().getResource("Fxml/levels.fxml"));
             MainMenuTest.mainScene.setRoot(root);
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the levels screen", e);
         }
 
     }
@@ -80,7 +84,7 @@ public class GameOverController {
 
             controller.initialiseLevel(currentLevelPath);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not restart the level", e);
         }
     }
 
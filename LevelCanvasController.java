@@ -1,14 +1,12 @@
 
 
 import actor.Actor;
-import actor.Frog;
-import actor.PinkBall;
 import actor.Player;
 import game.*;
-import item.Item;
+import game.log.Logger;
+import game.metrics.LatencyHistogram;
+import game.metrics.Metrics;
 import javafx.animation.AnimationTimer;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXMLLoader;
@@ -21,40 +19,35 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 import level.Level;
+import level.LevelSnapshot;
 
 import javafx.fxml.FXML;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import tile.Dirt;
-import tile.Path;
-import tile.Tile;
-
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
-import static level.ItemFactory.itemKey;
-import static level.KeyFactory.getDirectionFromKey;
-
 /**
  * Controller class for the game level canvas.
  * Handle actions related to gameplay and level display.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 2.1
+ * @version 2.9
  */
 public class LevelCanvasController {
     @FXML
     private Canvas canvas1;
     private GridClass grid;
-    public Player playerCharacter;
-    private Frog frog;
-    private PinkBall pinkBall;
+    private Simulation simulation;
+    // Runs the simulation on its own thread and hands over snapshots of it to draw.
+    private SimulationRunner runner;
+    // The latest snapshot drawn, or null before the first one arrives.
+    private FrameSnapshot lastFrame;
     public Level levelData;
     private String levelPath;
     private boolean isGamePaused = false;
@@ -67,9 +60,6 @@ public class LevelCanvasController {
 
     private int SPRITE_SIZE = 60;
 
-    private int timeRemaining;
-
-    private Timeline countdownTimeLine;
     private boolean isPaused;
 
     @FXML
@@ -87,20 +77,36 @@ public class LevelCanvasController {
 
 
 
-    private final int PLAYER_TICK = 3;
-    private final int MONSTER_TICK = 5;
-
-    private int playerTickCounter = 0;
-    private int monsterTickCounter = 0;
     private AnimationTimer gameLoop;
 
 
-    private PlayerInventory inventory = new PlayerInventory();
-
-
     private final String PLAYER_DIED = "You Died";
     private final String RAN_OUT_OF_TIME = "Ran Out Of Time";
     private final String LEVEL_COMPLETED = "You Finished The Level!";
+    // File the finished level is saved to in the background, unless disabled with -Dgame.autosave=false.
+    private final String AUTOSAVE_PATH = "level/saveFile.lvl";
+    private final boolean AUTOSAVE = Boolean.parseBoolean(System.getProperty("game.autosave", "true"));
+    // Folder finished games are saved to as replays, unless disabled with -Dgame.replay=false.
+    private final String REPLAY_FOLDER = "replays";
+    private final boolean REPLAY = Boolean.parseBoolean(System.getProperty("game.replay", "true"));
+    // Length of a game tick; the game runs at 25 ticks per second whatever the frame rate.
+    private final long TICK_NANOS = 1_000_000_000L / 25;
+    // Largest number of ticks caught up in one frame; later time is dropped so slow machines do not fall behind.
+    private final int MAX_CATCH_UP_TICKS = 5;
+    // Number of key presses buffered before further presses are dropped, set with -Dgame.inputDepth.
+    private final int INPUT_DEPTH = Integer.getInteger("game.inputDepth", 8);
+    // Whether a held key keeps moving the player, set with -Dgame.inputRepeat=none or hold.
+    private final InputBuffer.RepeatPolicy INPUT_REPEAT = parseRepeatPolicy(System.getProperty("game.inputRepeat", "hold"));
+    // Ticks between the moves of a held key, set with -Dgame.inputRepeatTicks.
+    private final int INPUT_REPEAT_TICKS = Integer.getInteger("game.inputRepeatTicks", Simulation.PLAYER_TICK);
+    // Key presses waiting for the simulation thread.
+    private InputBuffer input;
+    // Recorder of the input of the current game, or null if games are not recorded.
+    private ReplayRecorder recorder;
+    // Time taken to repaint the changed squares each frame, recorded when metrics are enabled.
+    private static final LatencyHistogram DRAW_TIME = Metrics.histogram("render.drawLayers");
+    // Logger for saves, replays and failed scene changes.
+    private static final Logger LOG = Logger.getLogger(LevelCanvasController.class);
 
 
     /**
@@ -153,27 +159,49 @@ public class LevelCanvasController {
 
     }};
 
+    // Sprite atlas shared by every level, built once from KEY_TO_IMAGE.
+    private static SpriteAtlas spriteAtlas;
+
+    /**
+     * Reads the key repeat policy set with game.inputRepeat. An unknown policy falls back to
+     * {@link InputBuffer.RepeatPolicy#HOLD} with a warning, so a mistyped option never stops the level from opening.
+     *
+     * @param value The value of the property.
+     * @return The repeat policy.
+     */
+    private static InputBuffer.RepeatPolicy parseRepeatPolicy(String value) {
+        try {
+            return InputBuffer.RepeatPolicy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Unknown game.inputRepeat {}, using HOLD", value);
+            return InputBuffer.RepeatPolicy.HOLD;
+        }
+    }
 
     /**
      * Initializes the game level with the specified level path.
+     * Levels loaded before, e.g. when restarting, are restored from memory instead of the disk.
      *
      * @param levelPath The path to the level data.
      */
     public void initialiseLevel(String levelPath) {
         this.levelPath = levelPath;
-        levelData = new Level(levelPath);
+        levelData = Level.load(levelPath);
+        simulation = new Simulation(levelData);
+        lastFrame = null;
         isGamePaused = false;
 
-        pickUpUnseen();
         ProfileManager.getCurrentPlayerProfile().updateLevel();
-        System.out.println(ProfileManager.getCurrentPlayerProfile());
+        LOG.info("Playing as {}", ProfileManager.getCurrentPlayerProfile());
 
 
         canvas1.setWidth(getLevel().getWidth() * SPRITE_SIZE);
         canvas1.setHeight(getLevel().getHeight() * SPRITE_SIZE);
         GraphicsContext gc = canvas1.getGraphicsContext2D();
 
-
+        if (spriteAtlas == null) {
+            spriteAtlas = new SpriteAtlas(KEY_TO_IMAGE, SPRITE_SIZE);
+        }
 
         // Create an instance of GridClass with the Layer instance
         grid = new GridClass(gc, levelData);
@@ -181,116 +209,107 @@ public class LevelCanvasController {
         grid.drawGrid();
         canvas1.setFocusTraversable(true);
         canvas1.setOnKeyPressed(this::handleKeyPressed);
-        drawLayers();
-
-        timeRemaining = this.levelData.getTimeLimit();
-        startCountdownTimer();
+        canvas1.setOnKeyReleased(this::handleKeyReleased);
+
+        input = new InputBuffer(INPUT_DEPTH, INPUT_REPEAT, INPUT_REPEAT_TICKS);
+        runner = new SimulationRunner(simulation, input, TICK_NANOS, MAX_CATCH_UP_TICKS);
+        recorder = REPLAY ? new ReplayRecorder(simulation, runner.getStepsPerSecond()) : null;
+        runner.setRecorder(recorder);
+        runner.setPaused(isPaused);
+        runner.start();
         startGameLoop();
     }
 
     /**
-     * Retrieves the item at the specified coordinates in the level.
-     *
-     * @param x The x-coordinate.
-     * @param y The y-coordinate.
-     * @return The item at the specified coordinates.
+     * Repaints the whole level whenever the canvas is resized.
      */
-    public Item getItem(int x, int y){
-        return this.levelData.getItems().getItem(x, y);
+    @FXML
+    private void initialize() {
+        canvas1.widthProperty().addListener(observable -> invalidateGrid());
+        canvas1.heightProperty().addListener(observable -> invalidateGrid());
     }
 
     /**
-     * Performs the pick-up action for the player character.
+     * Requests a full repaint of the grid on the next frame.
      */
-    public void pickUp() {
-        int x = playerCharacter.getXPos();
-        int y = playerCharacter.getYPos();
-
-        if (getItem(x, y).getKey() != "II") {
-            if (!getItem(x, y).getPickedUp()) {
-                inventory.pickUp(itemKey(getItem(x, y).getKey()));
-                getItem(x, y).pickUp();
-
-            }
+    private void invalidateGrid() {
+        if (grid != null) {
+            grid.invalidate();
         }
     }
 
-
-    public void onFrog(){
-        int px = playerCharacter.getXPos();
-        int py = playerCharacter.getyPos();
-        int fx = frog.getXPos();
-        int fy = frog.getYPos();
-        if (px == fx && py == fy){
-            playerCharacter.setIsAlive(false);
-        }
-    }
     /**
-     * Handles the game tick, which represents a unit of time in the game.
-     * This method is responsible for various game-related actions and updates.
+     * Shows a new snapshot of the simulation: copies its squares into the grid, updates the inventory and
+     * timer, and reacts when the level has ended.
+     * The rules are run on the simulation thread; this method only reads what the snapshot holds.
+     *
+     * @param frame The snapshot to show.
      */
-    private void gameTick() {
-        if (!isPaused){
-            if (playerTickCounter >= PLAYER_TICK) {
-                handleKeyPressed(null);
-                pickUp(); // Perform the pickUp() action
-
-                // Schedule focus change to the main canvas after pickUp()
-                Platform.runLater(() -> canvas1.requestFocus());
-
-                updateInventory(inventory);
-                onDirt();
-                onFrog();
-                //checkPlayerOnIce();
-
-                if (playerCharacter.getOnExit()) {
-                    nextLevel();
-                    gameLoop.stop();
-                    showCongratulations(this.levelData);
-                    this.levelData.writeLevel("level/saveFile.txt");
-                }
-
-                if (!playerCharacter.getIsAlive()) {
-                    gameLoop.stop();
-                    showGameOverScene(PLAYER_DIED);
-                }
-
-                if (timeRemaining == 0) {
-                    gameLoop.stop();
-                    showGameOverScene(RAN_OUT_OF_TIME);
-                }
-                grid.clearGrid();
-                drawLayers();
-                playerTickCounter = 0;
-            }
-            playerTickCounter++;
-
-        }
-        if (monsterTickCounter >= MONSTER_TICK) {
-            frog.moveTowardsPlayer(playerCharacter.getXPos(), playerCharacter.getYPos());
-            pinkBall.setNextMove();
-            monsterTickCounter = 0;
-
+    private void showFrame(FrameSnapshot frame) {
+        lastFrame = frame;
+        grid.apply(frame);
+        updateInventory(frame);
+        updateTimerLabel(frame.getTimeRemaining());
+        // Schedule focus change to the main canvas after the player's turn
+        Platform.runLater(() -> canvas1.requestFocus());
+
+        switch (frame.getStatus()) {
+            case COMPLETED:
+                nextLevel();
+                stopGame();
+                showCongratulations(this.levelData);
+                break;
+            case DIED:
+                stopGame();
+                showGameOverScene(PLAYER_DIED);
+                break;
+            case OUT_OF_TIME:
+                stopGame();
+                showGameOverScene(RAN_OUT_OF_TIME);
+                break;
+            default:
+                break;
         }
-        monsterTickCounter++;
     }
 
-
-
-
     /**
-     * Iterates through all items in the level grid and adds them to the player's inventory if they have been picked up.
+     * Stops the game loop and the simulation thread. A completed level is saved in the background first,
+     * and a finished game is saved as a replay, both on the simulation thread, so the level cannot change
+     * while they are copied.
      */
-    private void pickUpUnseen() {
-        for (int y = levelData.getHeight() - 1; y >= 0; y--) {
-            for (int x = levelData.getWidth() - 1; x >= 0; x--) {
-                if (this.levelData.getItems().getItem(x,y).getPickedUp()){
-                    inventory.pickUp(this.levelData.getItems().getItem(x,y));
-                }
+    private void stopGame() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        if (runner != null) {
+            if (AUTOSAVE && lastFrame != null && lastFrame.getStatus() == StepResult.Status.COMPLETED) {
+                Level finished = this.levelData;
+                runner.execute(() -> LevelSnapshot.capture(finished).saveAsync(AUTOSAVE_PATH)
+                        .whenComplete((saved, e) -> {
+                            if (e != null) {
+                                LOG.error("Could not autosave {}", AUTOSAVE_PATH, e);
+                            }
+                        }));
+            }
+            if (recorder != null && lastFrame != null && lastFrame.getStatus() != StepResult.Status.RUNNING) {
+                ReplayRecorder finishedGame = recorder;
+                Simulation played = simulation;
+                String path = REPLAY_FOLDER + File.separator + "level" + levelData.getLevelNumber()
+                        + "-" + System.currentTimeMillis() + ".rpl";
+                runner.execute(() -> {
+                    try {
+                        finishedGame.finish(played).write(path);
+                    } catch (IOException e) {
+                        LOG.error("Could not write replay to {}", path, e);
+                    }
+                });
             }
+            runner.stop();
         }
     }
 
+
+
     /**
      * Advances the player to the next level if the current level's number is higher than their highest completed level.
      * This method checks if the current level's number is greater than the highest level completed by the player.
@@ -304,22 +323,6 @@ public class LevelCanvasController {
     }
 
 
-    /**
-     * Handles the player's interaction with dirt tiles. When the player steps on a dirt tile, it is converted into a path tile.
-     * This method determines the player's current position and checks if the tile at that position is of type "Dirt."
-     * If it is, the tile is replaced with a "Path" tile, signifying that the player has walked over it.
-     */
-    private void onDirt(){
-        int x = playerCharacter.getXPos();
-        int y = playerCharacter.getYPos();
-
-        Tile tile = levelData.getTiles().getTile(x, y);
-        if (tile instanceof Dirt){
-            tile = new Path();
-            levelData.getTiles().setTile(x, y, tile);
-        }
-    }
-
     /**
      * Pauses the game when the "Pause" button is clicked.
      *
@@ -328,6 +331,9 @@ public class LevelCanvasController {
     @FXML
     void pause(ActionEvent event) {
         isPaused = !isPaused;
+        if (runner != null) {
+            runner.setPaused(isPaused);
+        }
 
     }
 
@@ -344,42 +350,45 @@ public class LevelCanvasController {
         //this.inventory.setChipCount(inventory.getChipCount() - inventory.getChipCount());
 
         // Check if the level file exists before attempting to initialize the level
-        gameLoop.stop();
-        countdownTimeLine.stop();
+        stopGame();
         initialiseLevel(levelFilePath);
 
     }
 
     /**
      * Saves the current game state when the "Save" button is clicked.
+     * The level is written on the simulation thread between two ticks.
      *
      * @param event The ActionEvent associated with the button click.
      */
     @FXML
     void save(ActionEvent event){
-        ProfileManager.getCurrentPlayerProfile().saveGame(levelData);
-        System.out.println("Saved Game");
+        PlayerProfile profile = ProfileManager.getCurrentPlayerProfile();
+        Level level = levelData;
+        runner.execute(() -> {
+            profile.saveGame(level);
+            LOG.info("Saved Game");
+        });
     }
 
     /**
      * Starts the game loop timer for continuous game updates.
+     * The ticks run on the simulation thread; every frame only takes the latest snapshot, if a new one was
+     * published, repaints the changed squares and draws moving actors between squares.
      */
     private void startGameLoop() {
         if (gameLoop == null) {
-            final long targetNanoSecondInterval = 1_000_000_000L / 25; // 1 second divided by 25 frames
             gameLoop = new AnimationTimer() {
-                long lastTime = 0;
                 @Override
                 public void handle(long now) {
-                    if (!isPaused) {
-                        // Calculate elapsed time since the last frame
-                        long elapsedNanoSeconds = now - lastTime;
-
-                        // Check if enough time has passed to update the game
-                        if (elapsedNanoSeconds >= targetNanoSecondInterval) {
-                            gameTick();
-                            lastTime = now;
-                        }
+                    FrameSnapshot frame = runner.takeLatest();
+                    if (frame != null) {
+                        showFrame(frame);
+                    }
+                    drawLayers();
+                    if (lastFrame != null && !isPaused) {
+                        double interpolation = Math.min(1.0, (double) (now - lastFrame.getTakenAt()) / TICK_NANOS);
+                        grid.drawMotion(spriteAtlas, lastFrame.getMoves(), Math.max(0.0, interpolation));
                     }
                 }
             };
@@ -387,6 +396,15 @@ public class LevelCanvasController {
         gameLoop.start(); // Start the timer
     }
 
+    /**
+     * Gets the average time taken to simulate one game tick, measured over recent ticks.
+     *
+     * @return The average tick time in milliseconds.
+     */
+    public double getSimulationMillisPerTick() {
+        return runner == null ? 0 : runner.getAverageStepMillis();
+    }
+
 
     /**
      * Handles the "Menu" button click event. Stops the game loop if it's running and returns to the main menu.
@@ -395,16 +413,14 @@ public class LevelCanvasController {
      */
     @FXML
     void menu(ActionEvent event) {
-        if (gameLoop != null) {
-            gameLoop.stop(); // Stop the game loop
-        }
+        stopGame(); // Stop the game loop and the simulation
 
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("Fxml/levels.fxml"));
             Pane root = fxmlLoader.load();
             MainMenuTest.mainScene.setRoot(root);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load the levels screen", e);
         }
     }
 
@@ -437,7 +453,7 @@ public class LevelCanvasController {
             Stage currentStage = (Stage) currentScene.getWindow();
             currentStage.setTitle("Game Over");
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the game over screen", e);
         }
     }
 
@@ -454,7 +470,7 @@ public class LevelCanvasController {
 
             // Access the controller associated with the loaded FXML
             CongratulationsController controller = loader.getController();
-            int score = ScoreCalc.calc(inventory.getChipCount(), timeRemaining);
+            int score = ScoreCalc.calc(lastFrame.getChipCount(), lastFrame.getTimeRemaining());
             controller.setScoreLabel(score);
 
 
@@ -484,7 +500,7 @@ public class LevelCanvasController {
             Stage currentStage = (Stage) currentScene.getWindow();
             currentStage.setTitle("Congratulations");
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the congratulations screen", e);
         }
     }
 
@@ -504,36 +520,39 @@ public class LevelCanvasController {
     }
 
     /**
-     * Draws the layers of the game including tiles, actors, and items.
+     * Draws the layers of the game including tiles, items, and actors.
+     * Only the squares changed by the snapshots shown since the last frame are repainted.
      */
     public void drawLayers(){
-        drawLayer(levelData.getTiles().writeLayer());
-        drawLayer(levelData.getActors().writeLayer());
-        drawLayer(levelData.getItems().writeLayer());
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        grid.repaint(spriteAtlas);
+        if (Metrics.ENABLED) {
+            DRAW_TIME.recordSince(start);
+        }
     }
 
 
 
     /**
-     * Updates the inventory box based on the player's inventory.
+     * Updates the inventory box based on the player's inventory in a snapshot.
      *
-     * @param inventory The player's inventory.
+     * @param frame The snapshot holding the player's inventory.
      */
-    public void updateInventory(PlayerInventory inventory) {
-        ArrayList<Item> inv = inventory.getInventory();
-        int chipCount = inventory.getChipCount();
+    public void updateInventory(FrameSnapshot frame) {
+        List<String> inv = frame.getInventoryKeys();
+        int chipCount = frame.getChipCount();
         int maxItems = Math.min(inv.size(), 4); // Limit to 4 items for itemImage2 to itemImage4
 
         // Set images for itemImage1 to itemImage4 based on the inventory
         for (int i = 0; i < maxItems; i++) {
             ImageView currentItemImageView = getItemImageView(i + 1); // i + 1 because itemImage1 is already set
-            currentItemImageView.setImage(new Image(KEY_TO_IMAGE.get(inv.get(i).getKey())));
+            currentItemImageView.setImage(spriteAtlas.getImage(inv.get(i)));
         }
 
         // Update chip count label and chip image
         if (chipCount > 0) {
             chipCountLabel.setText("Count: " + String.valueOf(chipCount));
-            chipImage.setImage(new Image(KEY_TO_IMAGE.get("CN"))); // Assuming "CN" is the key for chip image
+            chipImage.setImage(spriteAtlas.getImage("CN")); // Assuming "CN" is the key for chip image
         } else {
             chipCountLabel.setText("");
             chipImage.setImage(null);
@@ -566,6 +585,8 @@ public class LevelCanvasController {
 
     /**
      * Handles the key pressed event for player movement.
+     * The direction is buffered with the time of the press and applied on a following game tick;
+     * repeats sent by the operating system while the key is held are ignored.
      *
      * @param event The KeyEvent representing the key press.
      */
@@ -573,85 +594,47 @@ public class LevelCanvasController {
         if (event == null) {
             return;
         }
-        KeyCode lastKeyPressed = event.getCode();
-
-        // Update player movement based on the last pressed key
-        switch (lastKeyPressed) {
-            case W:
-                playerCharacter.moveDirection(Actor.Direction.UP, inventory);
-                break;
-            case S:
-                playerCharacter.moveDirection(Actor.Direction.DOWN, inventory);
-                break;
-            case A:
-                playerCharacter.moveDirection(Actor.Direction.LEFT, inventory);
-                break;
-            case D:
-                playerCharacter.moveDirection(Actor.Direction.RIGHT, inventory);
-                break;
-            // Handle other keys if needed
-            default:
-                break;
+        // Queue player movement based on the pressed key
+        Actor.Direction direction = directionOf(event.getCode());
+        if (direction != null) {
+            input.press(direction, System.nanoTime());
         }
     }
 
     /**
-     * Initializes the player character at the specified coordinates (x, y).
+     * Handles the key released event, so that a held direction stops repeating.
      *
-     * @param y The y-coordinate of the player character.
-     * @param x The x-coordinate of the player character.
-     * @return The initialized player character.
+     * @param event The KeyEvent representing the key release.
      */
-    public Player initialisePlayer(int y, int x) {
-        playerCharacter = new Player(x, y);
-        playerCharacter.setLayers(levelData.getActors(), levelData.getTiles(), levelData.getItems());
-        return playerCharacter;
+    private void handleKeyReleased(KeyEvent event) {
+        if (event == null) {
+            return;
+        }
+        Actor.Direction direction = directionOf(event.getCode());
+        if (direction != null) {
+            input.release(direction);
+        }
     }
 
-
-    public Frog initialiseFrog(int y, int x){
-        frog = new Frog(x, y);
-        frog.setLayers(levelData.getActors(), levelData.getTiles(), levelData.getItems());
-        return frog;
-    }
-    public PinkBall initalisePinkBall (int y, int x, Actor.Direction direction) {
-        pinkBall = new PinkBall(x, y, direction);
-        pinkBall.setLayers(levelData.getActors(), levelData.getTiles(), levelData.getItems());
-        return pinkBall;
-    }
     /**
-     * Draws the specified layer data onto the game canvas.
+     * Gets the direction a key moves the player in.
      *
-     * @param layerData The 2D array representing the layer to be drawn.
+     * @param code The code of the key.
+     * @return The direction, or null if the key does not move the player.
      */
-
-    private void drawLayer(String[][] layerData) {
-        for (int i = layerData.length - 1; i >= 0; i--) {
-            for (int j = layerData[i].length - 1; j >= 0; j--) { // Fix: Change loop condition
-                String key = layerData[i][j];
-                if (key.equals("PY")) {
-                    initialisePlayer(i, j);
-                }
-                if (key.equals("FG")) {
-                    initialiseFrog(i, j);
-                }
-                if (key.equals("PL")) {
-                    initalisePinkBall(i, j, getDirectionFromKey(key));
-                }
-                if (key != null) {
-                    String imagePath = KEY_TO_IMAGE.get(key);
-                    //System.out.println(imagePath);
-                    if (imagePath != null) {
-                        try {
-                            Image image = new Image(imagePath);
-                            grid.drawImageOntoSquare(image, j, i);
-                        } catch (Exception e) {
-                            // Handle the exception (e.g., print the stack trace or log the error)
-                            e.printStackTrace();
-                        }
-                    }
-                }
-            }
+    private Actor.Direction directionOf(KeyCode code) {
+        switch (code) {
+            case W:
+                return Actor.Direction.UP;
+            case S:
+                return Actor.Direction.DOWN;
+            case A:
+                return Actor.Direction.LEFT;
+            case D:
+                return Actor.Direction.RIGHT;
+            // Handle other keys if needed
+            default:
+                return null;
         }
     }
 
@@ -670,37 +653,19 @@ public class LevelCanvasController {
      * @return The player character.
      */
     public Player getPlayer() {
-        return this.playerCharacter;
-    }
-
-    /**
-     * Starts the countdown timer for the level.
-     * The timer updates the timer label and stops when the time reaches zero.
-     */
-    private void startCountdownTimer() {
-        countdownTimeLine = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            updateTimerLabel();
-            if (timeRemaining < 0) {
-                countdownTimeLine.stop();
-            }
-        }));
-        countdownTimeLine.setCycleCount(Timeline.INDEFINITE);
-        countdownTimeLine.play();
+        return simulation.getPlayer();
     }
 
     /**
      * Updates the timer label with the remaining time in the format "MM:SS".
-     * Decrements the time remaining each second.
+     * The time is counted down by the simulation thread, one second for every second of game ticks.
+     *
+     * @param timeRemaining The seconds left to finish the level.
      */
-    private void updateTimerLabel() {
-        if(!isPaused) {
-            int minutes = timeRemaining / 60;
-            int seconds = timeRemaining % 60;
-            String time = String.format("%02d:%02d", minutes, seconds);
-            timerLabel.setText(time);
-            this.levelData.setTimeLimit(timeRemaining);
-            timeRemaining--;
-        }
+    private void updateTimerLabel(int timeRemaining) {
+        int minutes = Math.max(0, timeRemaining) / 60;
+        int seconds = Math.max(0, timeRemaining) % 60;
+        timerLabel.setText(String.format("%02d:%02d", minutes, seconds));
     }
 
     /**
@@ -1,4 +1,5 @@
 import game.ProfileManager;
+import game.log.Logger;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -9,10 +10,13 @@ import javafx.scene.layout.Pane;
  * Controller class for the level selection screen.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.5
+ * @version 1.6
  */
 public class LevelController {
 
+    // Logger for failed scene changes.
+    private static final Logger LOG = Logger.getLogger(LevelController.class);
+
     @FXML
     private Button level1Button;
 
@@ -43,7 +47,7 @@ public class LevelController {
             MainMenuTest.mainScene.setRoot(root);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load the main menu", e);
         }
     }
 
@@ -76,7 +80,7 @@ public class LevelController {
             MainMenuTest.mainScene.setRoot(root);
             controller.initialiseLevel(level);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load level 1", e);
         }
     }
 
@@ -99,7 +103,7 @@ public class LevelController {
             MainMenuTest.mainScene.setRoot(root);
             controller.initialiseLevel(level);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load level 2", e);
         }
 
     }
@@ -123,7 +127,7 @@ public class LevelController {
             MainMenuTest.mainScene.setRoot(root);
             controller.initialiseLevel(level);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load level 3", e);
         }
 
     }
@@ -147,7 +151,7 @@ public class LevelController {
             MainMenuTest.mainScene.setRoot(root);
             controller.initialiseLevel(level);
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load level 4", e);
         }
 
     }
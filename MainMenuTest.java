@@ -1,5 +1,6 @@
 
 
+import game.log.Logger;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -14,10 +15,13 @@ import java.io.IOException;
  * This class sets up the main scene and stage for the game's user interface.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.5
+ * @version 1.6
  */
 public class MainMenuTest extends Application {
 
+    // Logger for failed startup.
+    private static final Logger LOG = Logger.getLogger(MainMenuTest.class);
+
     //The main scene for the game's user interface.
     public static Scene mainScene;
     //The primary stage for the game's user interface.
@@ -39,7 +43,7 @@ public class MainMenuTest extends Application {
             primaryStage.setScene(mainScene);
             primaryStage.show();
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the main menu", e);
         }
     }
 
@@ -1,3 +1,4 @@
+import game.log.Logger;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -13,10 +14,13 @@ import java.io.IOException;
  * This class handles user interactions in the main menu, such as starting the game or exiting the application.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.5
+ * @version 1.6
  */
 public class TestController {
 
+    // Logger for failed scene changes.
+    private static final Logger LOG = Logger.getLogger(TestController.class);
+
     @FXML
     private Button exit;
 
@@ -37,7 +41,7 @@ public class TestController {
             Pane root = FXMLLoader.load(getClass().getResource("Fxml/user.fxml"));
             MainMenuTest.mainScene.setRoot(root);
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the user screen", e);
         }
     }
 
@@ -65,7 +69,7 @@ public class TestController {
             Pane root = FXMLLoader.load(getClass().getResource("Fxml/highScore.fxml"));
             MainMenuTest.mainScene.setRoot(root);
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the high score screen", e);
         }
     }
 
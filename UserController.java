@@ -1,5 +1,6 @@
 import game.PlayerProfile;
 import game.ProfileManager;
+import game.log.Logger;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -22,10 +23,13 @@ import java.util.List;
  * This class handles user interactions such as creating or loading user profiles.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.2
+ * @version 1.3
  */
 public class UserController {
 
+    // Logger for user profile actions.
+    private static final Logger LOG = Logger.getLogger(UserController.class);
+
     @FXML
     private VBox createUserBox;
 
@@ -45,7 +49,7 @@ public class UserController {
             MainMenuTest.mainScene.setRoot(root);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load the main menu", e);
         }
     }
 
@@ -72,7 +76,7 @@ public class UserController {
      */
     @FXML
     private void loadUserButtonAction() {
-        System.out.println("Load User button clicked.");
+        LOG.info("Load User button clicked.");
 
         // Get the list of user directories in the "saves" directory
         List<String> userDirectories = getUserDirectories();
@@ -83,9 +87,9 @@ public class UserController {
         // Load the selected user profile
         if (selectedUser != null) {
             loadUserProfile(selectedUser);
-            System.out.println("Loaded user profile for: " + selectedUser);
+            LOG.info("Loaded user profile for: {}", selectedUser);
         } else {
-            System.out.println("User loading canceled.");
+            LOG.info("User loading canceled.");
         }
 
         // After loading user, go to the levels scene
@@ -121,7 +125,7 @@ public class UserController {
             Pane root = FXMLLoader.load(getClass().getResource("Fxml/levels.fxml"));
             MainMenuTest.mainScene.setRoot(root);
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Could not load the levels screen", e);
         }
     }
 
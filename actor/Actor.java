@@ -1,46 +1,65 @@
 package actor;
 
+import game.log.Logger;
 import item.Item;
+import level.Keyed;
 import level.Layer;
+import tile.ChipSocket;
+import tile.Door;
+import tile.Exit;
 import tile.GameButton;
 import tile.Ice;
+import tile.PassabilityMask;
 import tile.Tile;
 import tile.Trap;
 /**
  * Represents all actor entities in the game, including their positions using a coordinate pair (x, y).
  * The class provides functionalities for moving actors, checking collisions, and interacting with game elements like traps and buttons.
+ * Once an actor is added to an {@link ActorRegistry}, its position is stored in the registry's arrays and
+ * the actor only views it, so the position fields of this class are only used by unregistered actors.
  *
  * @author Carl Antill, Tomas Williams
- * @version 1.8
+ * @version 2.2
  */
-public class Actor {
+public class Actor implements Keyed {
 
-	// X-coordinate of the actor.
+	// Logger for the actor's moves.
+	private static final Logger LOG = Logger.getLogger(Actor.class);
+
+	// X-coordinate of the actor, while it is not registered.
 	protected int xPos;
 
 	protected boolean onIce = false;
 
-	// Y-coordinate of the actor.
+	// Y-coordinate of the actor, while it is not registered.
 
 	protected int yPos;
 
 	// Unique identifier for the actor.
 	protected String key;
 
-	// Layer containing tile objects in the game.
-	protected static Layer tileLayer;
-	// Layer containing actor objects in the game.
-	protected static Layer actorLayer;
-	// Layer containing item objects in the game.
-	protected static Layer itemLayer;
-	// Array of keys representing tiles that the actor can pass through.
-	protected final String[] passableTiles =
+	// Layer containing tile objects of the level the actor is in.
+	protected Layer<Tile> tileLayer;
+	// Layer containing actor objects of the level the actor is in.
+	protected Layer<Actor> actorLayer;
+	// Layer containing item objects of the level the actor is in.
+	protected Layer<Item> itemLayer;
+	// Keys of the tiles that actors can pass through.
+	private static final String[] PASSABLE_KEYS =
 			{"Bx", "Tx", "Cx", "IC", "SE", "SW", "NE", "NW", "DI", "EX", "RU", "GU", "YU", "BU", "WT", "PA"};
+	// Tile types that actors can pass through, checked with a single bit test.
+	private static final PassabilityMask PASSABLE = PassabilityMask.of(PASSABLE_KEYS);
+	// Array of keys representing tiles that the actor can pass through.
+	protected final String[] passableTiles = PASSABLE_KEYS.clone();
 
 	// Current direction of the actor.
 	protected Direction direction;
 	// Direction the actor slides on ice.
 	private Direction slideDirection;
+	// Registry tracking the squares of the level's actors, or null if the actor is not registered.
+	private ActorRegistry registry;
+	// Id of the actor in its registry, or -1 if it is not registered.
+	private int registryId = -1;
 
 	/**
 	 * Default constructor for the Actor class.
@@ -56,8 +75,12 @@ public class Actor {
 	 * @param y The y-coordinate of the actor's position.
 	 */
 	public void setPos(int x, int y){
-		this.xPos = x;
-		this.yPos = y;
+		if (registry != null) {
+			registry.moveTo(registryId, x, y);
+		} else {
+			this.xPos = x;
+			this.yPos = y;
+		}
 	}
 
 
@@ -76,7 +99,7 @@ public class Actor {
 	 * @return The x-coordinate of the actor.
 	 */
 	public int getxPos() {
-		return xPos;
+		return getXPos();
 	}
 	/**
 	 * Sets the x-coordinate of the actor's position.
@@ -84,7 +107,7 @@ public class Actor {
 	 * @param xPos The new x-coordinate for the actor.
 	 */
 	public void setxPos(int xPos) {
-		this.xPos = xPos;
+		setPos(xPos, getYPos());
 	}
 	/**
 	 * Retrieves the y-coordinate of the actor's position.
@@ -92,7 +115,7 @@ public class Actor {
 	 * @return The y-coordinate of the actor.
 	 */
 	public int getyPos() {
-		return yPos;
+		return getYPos();
 	}
 	/**
 	 * Sets the y-coordinate of the actor's position.
@@ -100,7 +123,7 @@ public class Actor {
 	 * @param yPos The new y-coordinate for the actor.
 	 */
 	public void setyPos(int yPos) {
-		this.yPos = yPos;
+		setPos(getXPos(), yPos);
 	}
 	/**
 	 * Sets the key identifier for the actor.
@@ -113,9 +136,9 @@ public class Actor {
 	/**
 	 * Retrieves the tile layer associated with the actor.
 	 *
-	 * @return The static layer containing tile objects.
+	 * @return The layer containing tile objects.
 	 */
-	public static Layer getTileLayer() {
+	public Layer<Tile> getTileLayer() {
 		return tileLayer;
 	}
 	/**
@@ -123,15 +146,15 @@ public class Actor {
 	 *
 	 * @param tileLayer The layer containing tile objects.
 	 */
-	public static void setTileLayer(Layer tileLayer) {
-		Actor.tileLayer = tileLayer;
+	public void setTileLayer(Layer<Tile> tileLayer) {
+		this.tileLayer = tileLayer;
 	}
 	/**
 	 * Retrieves the actor layer.
 	 *
-	 * @return The static layer containing actor objects.
+	 * @return The layer containing actor objects.
 	 */
-	public static Layer getActorLayer() {
+	public Layer<Actor> getActorLayer() {
 		return actorLayer;
 	}
 	/**
@@ -139,16 +162,16 @@ public class Actor {
 	 *
 	 * @param actorLayer The layer containing actor objects.
 	 */
-	public static void setActorLayer(Layer actorLayer) {
-		Actor.actorLayer = actorLayer;
+	public void setActorLayer(Layer<Actor> actorLayer) {
+		this.actorLayer = actorLayer;
 	}
 	/**
 	 * Retrieves the item layer associated with the actor.
 	 *
-	 * @return The static layer containing item objects.
+	 * @return The layer containing item objects.
 	 */
 
-	public static Layer getItemLayer() {
+	public Layer<Item> getItemLayer() {
 		return itemLayer;
 	}
 	/**
@@ -156,8 +179,8 @@ public class Actor {
 	 *
 	 * @param itemLayer The layer containing item objects.
 	 */
-	public static void setItemLayer(Layer itemLayer) {
-		Actor.itemLayer = itemLayer;
+	public void setItemLayer(Layer<Item> itemLayer) {
+		this.itemLayer = itemLayer;
 	}
 	/**
 	 * Retrieves the array of keys representing tiles that the actor can pass through.
@@ -259,7 +282,7 @@ public class Actor {
 
 	/**
 	 * Sets the layer instances for actors, tiles, and items.
-	 * This method assigns the respective layers to the static fields of the Actor class.
+	 * Each actor holds its own layers, so actors of different levels never share state.
 	 *
 	 * @param actors The layer containing actor objects.
 	 * @param tiles  The layer containing tile objects.
@@ -276,7 +299,7 @@ public class Actor {
 	 * @return The x coordinate.
 	 */
 	public int getXPos() {
-		return this.xPos;
+		return registry != null ? registry.getX(registryId) : this.xPos;
 	}
 
 	/**
@@ -285,7 +308,7 @@ public class Actor {
 	 * @return the y coordinate.
 	 */
 	public int getYPos() {
-		return this.yPos;
+		return registry != null ? registry.getY(registryId) : this.yPos;
 	}
 
 	/**
@@ -294,7 +317,7 @@ public class Actor {
 	 * @return the (x, y) coordinate.
 	 */
 	public int[] getPos() {
-		int[] pos = {this.xPos, this.yPos};
+		int[] pos = {getXPos(), getYPos()};
 		return pos;
 	}
 
@@ -304,7 +327,7 @@ public class Actor {
 	 * @param pos The new x coordinate.
 	 */
 	public void setXPos(int pos) {
-		this.xPos = pos;
+		setPos(pos, getYPos());
 	}
 
 	/**
@@ -313,38 +336,80 @@ public class Actor {
 	 * @param pos The new y coordinate.
 	 */
 	public void setYPos(int pos) {
-		this.yPos = pos;
+		setPos(getXPos(), pos);
+	}
+
+	/**
+	 * Gets the registry the actor is registered in.
+	 *
+	 * @return The registry, or null if the actor is not registered.
+	 */
+	public ActorRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * Gets the id of the actor in its registry.
+	 *
+	 * @return The id, or -1 if the actor is not registered.
+	 */
+	public int getRegistryId() {
+		return registryId;
+	}
+
+	/**
+	 * Records the registry the actor was added to. Only called by the registry.
+	 *
+	 * @param registry The registry.
+	 * @param id       The id of the actor in the registry.
+	 */
+	void setRegistry(ActorRegistry registry, int id) {
+		this.registry = registry;
+		this.registryId = id;
 	}
 
 	/**
 	 * Move the actor in a direction.
+	 * A registered actor also moves in its registry, and an actor left behind on the old square
+	 * is put back into the actor layer so it is still drawn. The tiles left and entered are then
+	 * told through {@link TileEvents}.
 	 *
 	 * @param direction The direction to move the actor.
 	 */
 	public void move(Direction direction) {
-		int newY = this.yPos;
-		int newX = this.xPos;
+		int oldX = getXPos();
+		int oldY = getYPos();
+		int newY = oldY;
+		int newX = oldX;
 		switch (direction) {
 			case UP:
-				newY = this.yPos - 1;
+				newY = oldY - 1;
 				break;
 			case DOWN:
-				newY = this.yPos + 1;
+				newY = oldY + 1;
 				break;
 			case RIGHT:
-				newX = this.xPos + 1;
+				newX = oldX + 1;
 				break;
 			case LEFT:
-				newX = this.xPos - 1;
+				newX = oldX - 1;
 			default:
 				break;
 		}
 		actorLayer.setActor(newX, newY, this);
-		actorLayer.setActor(xPos, yPos, null);
-		actorLayer.writeLayer();
+		actorLayer.setActor(oldX, oldY, null);
 
-		this.yPos = newY;
-		this.xPos = newX;
+		setPos(newX, newY);
+		if (registry != null) {
+			Actor remaining = registry.getActor(oldX, oldY);
+			if (remaining != null) {
+				actorLayer.setActor(oldX, oldY, remaining);
+			}
+		}
+		if (newX != oldX || newY != oldY) {
+			TileEvents.exit(this, tileLayer.getTile(oldX, oldY));
+			TileEvents.enter(this, tileLayer.getTile(newX, newY));
+		}
 	}
 
 
@@ -353,14 +418,7 @@ public class Actor {
 	 * @param tile The tile to check if it passes through.
 	 */
 	public boolean passTile(Tile tile) {
-		boolean passes = false;
-		for (String passableTile : this.passableTiles) {
-			if (tile.getKey().equals(passableTile)) {
-				passes = true;
-				break;
-			}
-		}
-		return passes;
+		return PASSABLE.allows(tile);
 	}
 
 	/**
@@ -371,21 +429,23 @@ public class Actor {
 	 */
 	public Tile checkTile(Direction direction) {
 		Tile tile = null;
+		int x = getXPos();
+		int y = getYPos();
 		switch (direction) {
 			case UP:
-				tile = tileLayer.getTile(this.xPos, this.yPos -1);
+				tile = tileLayer.getTile(x, y -1);
 				break;
 			case DOWN:
-				tile = tileLayer.getTile(this.xPos, this.yPos + 1);
+				tile = tileLayer.getTile(x, y + 1);
 				break;
 			case RIGHT:
-				tile = tileLayer.getTile(this.xPos + 1, this.yPos);
+				tile = tileLayer.getTile(x + 1, y);
 				break;
 			case LEFT:
-				tile = tileLayer.getTile(this.xPos - 1, this.yPos);
+				tile = tileLayer.getTile(x - 1, y);
 				break;
 			case CURRENTPOS:
-				tile = tileLayer.getTile(this.xPos, this.yPos);
+				tile = tileLayer.getTile(x, y);
 			default:
 				break;
 		}
@@ -421,7 +481,8 @@ public class Actor {
 
 	/**
 	 * Checks for collision in a specified direction.
-	 * Determines if moving in the given direction would result in a collision with another actor.
+	 * Determines if moving in the given direction would result in a collision with another actor;
+	 * a registered actor checks every actor on the square, not only the one drawn there.
 	 *
 	 * @param direction The direction in which to check for a collision.
 	 * @return True if a collision would occur, false otherwise.
@@ -430,21 +491,21 @@ public class Actor {
 		boolean collides = false;
 
 		// Calculate new positions
-		int newX = this.xPos;
-		int newY = this.yPos;
+		int newX = getXPos();
+		int newY = getYPos();
 
 		switch (direction) {
 			case UP:
-				newY = this.yPos - 1;
+				newY--;
 				break;
 			case LEFT:
-				newX = this.xPos - 1;
+				newX--;
 				break;
 			case DOWN:
-				newY = this.yPos + 1;
+				newY++;
 				break;
 			case RIGHT:
-				newX = this.xPos + 1;
+				newX++;
 				break;
 			default:
 				break;
@@ -452,8 +513,12 @@ public class Actor {
 
 		// Check if the new positions are within bounds
 		if (newX >= 0 && newX < actorLayer.getWidth() && newY >= 0 && newY < actorLayer.getHeight()) {
-			// Check collision with actor at the new position
-			collides = this.collidesWith(actorLayer.getActor(newX, newY));
+			// Check collision with every actor at the new position, or the one in the layer if unregistered
+			if (registry != null) {
+				collides = registry.collidesAt(this, newX, newY);
+			} else {
+				collides = this.collidesWith(actorLayer.getActor(newX, newY));
+			}
 		}
 
 		return collides;
@@ -469,6 +534,46 @@ public class Actor {
 		button.toggleTraps();
 	}
 
+	/**
+	 * Handles the actor entering a water tile. Does nothing unless a subclass reacts to water.
+	 *
+	 * @param tile The water tile the actor entered.
+	 */
+	public void onWater(Tile tile) {
+	}
+
+	/**
+	 * Handles the actor entering a trap tile. Does nothing unless a subclass reacts to traps.
+	 *
+	 * @param trap The trap the actor entered.
+	 */
+	public void onTrap(Trap trap) {
+	}
+
+	/**
+	 * Handles the actor entering an exit tile. Does nothing unless a subclass can finish the level.
+	 *
+	 * @param exit The exit the actor entered.
+	 */
+	public void onExitTile(Exit exit) {
+	}
+
+	/**
+	 * Handles the actor entering a door tile. Does nothing unless a subclass can open doors.
+	 *
+	 * @param door The door the actor entered.
+	 */
+	public void onDoor(Door door) {
+	}
+
+	/**
+	 * Handles the actor entering a chip socket tile. Does nothing unless a subclass can open sockets.
+	 *
+	 * @param socket The chip socket the actor entered.
+	 */
+	public void onChipSocket(ChipSocket socket) {
+	}
+
 	/**
 	 * Moves the entity while it is on an ice tile, simulating sliding movement.
 	 * The entity continues to slide in the current direction until it encounters a non-passable tile.
@@ -478,8 +583,8 @@ public class Actor {
 	 */
 	public void onIce(Tile curTile) {
 		Ice newTile = (Ice) curTile;
-		int newX = curTile.getxPos();
-		int newY = curTile.getyPos();
+		int newX = getXPos();
+		int newY = getYPos();
 
 		while (newTile instanceof Ice) {
 			if (!curTile.isPassable()) {
@@ -528,7 +633,7 @@ public class Actor {
 		if (currentTile instanceof Ice) {
 			Ice iceTile = (Ice) currentTile;
 			Direction slideDirection = iceTile.getSlideDirection(direction);
-			System.out.println("On Ice! Slide Direction: " + slideDirection);
+			LOG.debug("On Ice! Slide Direction: {}", slideDirection);
 			setSlideDirection(slideDirection);
 		}
 	}
@@ -540,7 +645,7 @@ public class Actor {
 	 * @param slideDirection The direction in which the actor should slide on ice.
 	 */
 	private void setSlideDirection(Direction slideDirection) {
-		System.out.println("Setting slide direction: " + slideDirection);
+		LOG.debug("Setting slide direction: {}", slideDirection);
 		// Ensure slideDirection is not null when setting it
 		if (slideDirection != null) {
 			this.slideDirection = slideDirection;
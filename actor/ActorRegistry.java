@@ -0,0 +1,398 @@
+package actor;
+
+import java.util.Arrays;
+
+/**
+ * The `ActorRegistry` class holds the state of every actor taking part in a level in parallel primitive arrays,
+ * one array per component: position, heading, kind and intended move. Each registered actor gets an id, its
+ * index in these arrays, so the systems in {@link ActorSystems} update all actors with plain loops over
+ * contiguous memory instead of following object references or scanning the grid.
+ *
+ * <p>Once registered, an {@link Actor} object is only a view of its id: its position, and the heading of a
+ * monster, are read from and written to the arrays. Every square also keeps a linked list of the ids standing
+ * on it, threaded through int arrays, so any number of actors can share a square and finding or moving one
+ * takes constant time. Unlike the actor layer, which holds one actor per square for drawing, the registry
+ * never loses an actor when another one moves onto its square. It is not thread-safe, so it must only be
+ * used by the thread running the level.</p>
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.1
+ */
+public final class ActorRegistry {
+
+	// Kind of the player.
+	public static final byte PLAYER = 0;
+	// Kind of a frog.
+	public static final byte FROG = 1;
+	// Kind of a pink ball.
+	public static final byte PINK_BALL = 2;
+	// Kind of a block.
+	public static final byte BLOCK = 3;
+	// Kind of a bug.
+	public static final byte BUG = 4;
+	// Kind of any other actor.
+	public static final byte OTHER = 5;
+	// Kind of an actor taken out of the level, e.g. a block sunk in water; systems skip it.
+	public static final byte REMOVED = 6;
+
+	// Marks the end of a list, a square without actors, or no heading or intended move.
+	private static final int NONE = -1;
+	// Number of actors the arrays hold at first.
+	private static final int INITIAL_CAPACITY = 16;
+	// Directions by ordinal, for decoding headings and intended moves.
+	private static final Actor.Direction[] DIRECTIONS = Actor.Direction.values();
+
+	// Width of the grid in squares.
+	private final int width;
+	// Height of the grid in squares.
+	private final int height;
+	// First actor id on each square, or NONE.
+	private final int[] firstOnSquare;
+	// Actor object viewing each id.
+	private Actor[] actors = new Actor[INITIAL_CAPACITY];
+	// X-coordinate of each actor.
+	private int[] xs = new int[INITIAL_CAPACITY];
+	// Y-coordinate of each actor.
+	private int[] ys = new int[INITIAL_CAPACITY];
+	// Kind of each actor.
+	private byte[] kinds = new byte[INITIAL_CAPACITY];
+	// Ordinal of the direction each monster faces, or NONE.
+	private byte[] headings = new byte[INITIAL_CAPACITY];
+	// Ordinal of the direction each actor will move in on the next movement pass, or NONE.
+	private byte[] intents = new byte[INITIAL_CAPACITY];
+	// Next actor id on the same square, or NONE.
+	private int[] nextOnSquare = new int[INITIAL_CAPACITY];
+	// Previous actor id on the same square, or NONE.
+	private int[] previousOnSquare = new int[INITIAL_CAPACITY];
+	// Number of registered actors.
+	private int size;
+
+	/**
+	 * Constructs an empty registry for a grid of the given size.
+	 *
+	 * @param width  The width of the grid in squares.
+	 * @param height The height of the grid in squares.
+	 */
+	public ActorRegistry(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.firstOnSquare = new int[width * height];
+		Arrays.fill(firstOnSquare, NONE);
+	}
+
+	/**
+	 * Adds an actor at its current position and gives it the next id.
+	 * From now on the actor's position, and the heading of a monster, are stored in the registry.
+	 *
+	 * @param actor The actor to add.
+	 * @return The id of the actor.
+	 * @throws IllegalArgumentException If the actor is already registered or stands outside the grid.
+	 */
+	public int register(Actor actor) {
+		if (actor.getRegistry() != null) {
+			throw new IllegalArgumentException("Actor is already registered: " + actor.getKey());
+		}
+		int x = actor.getXPos();
+		int y = actor.getYPos();
+		if (!inBounds(x, y)) {
+			throw new IllegalArgumentException("Actor is outside the grid: " + actor.getKey());
+		}
+		if (size == actors.length) {
+			grow();
+		}
+		Actor.Direction heading = actor instanceof Monster ? actor.getDirection() : null;
+		int id = size++;
+		actors[id] = actor;
+		xs[id] = x;
+		ys[id] = y;
+		kinds[id] = kindOf(actor);
+		headings[id] = (byte) (heading == null ? NONE : heading.ordinal());
+		intents[id] = NONE;
+		link(id, y * width + x);
+		actor.setRegistry(this, id);
+		return id;
+	}
+
+	/**
+	 * Takes an actor out of the level. It keeps its id, but leaves its square and is skipped by the systems.
+	 *
+	 * @param id The id of the actor.
+	 */
+	public void remove(int id) {
+		if (kinds[id] != REMOVED) {
+			unlink(id);
+			kinds[id] = REMOVED;
+			intents[id] = NONE;
+		}
+	}
+
+	/**
+	 * Gets the number of registered actors.
+	 *
+	 * @return The number of actors; their ids run from 0 to one less than this.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the object viewing an actor.
+	 *
+	 * @param id The id of the actor.
+	 * @return The actor.
+	 */
+	public Actor get(int id) {
+		return actors[id];
+	}
+
+	/**
+	 * Gets the kind of an actor.
+	 *
+	 * @param id The id of the actor.
+	 * @return One of the kind constants of this class.
+	 */
+	public byte getKind(int id) {
+		return kinds[id];
+	}
+
+	/**
+	 * Gets the x-coordinate of an actor.
+	 *
+	 * @param id The id of the actor.
+	 * @return The x-coordinate.
+	 */
+	public int getX(int id) {
+		return xs[id];
+	}
+
+	/**
+	 * Gets the y-coordinate of an actor.
+	 *
+	 * @param id The id of the actor.
+	 * @return The y-coordinate.
+	 */
+	public int getY(int id) {
+		return ys[id];
+	}
+
+	/**
+	 * Gets the index of the square an actor stands on.
+	 *
+	 * @param id The id of the actor.
+	 * @return The index of the square, {@code y * width + x}.
+	 */
+	public int getSquare(int id) {
+		return ys[id] * width + xs[id];
+	}
+
+	/**
+	 * Moves an actor to a square, updating the lists of both squares. A removed actor only changes position.
+	 *
+	 * @param id The id of the actor.
+	 * @param x  The new x-coordinate.
+	 * @param y  The new y-coordinate.
+	 */
+	void moveTo(int id, int x, int y) {
+		if (x == xs[id] && y == ys[id]) {
+			return;
+		}
+		if (kinds[id] != REMOVED) {
+			unlink(id);
+			link(id, y * width + x);
+		}
+		xs[id] = x;
+		ys[id] = y;
+	}
+
+	/**
+	 * Gets the direction a monster faces.
+	 *
+	 * @param id The id of the actor.
+	 * @return The direction, or null if the actor has no heading.
+	 */
+	public Actor.Direction getHeading(int id) {
+		return headings[id] == NONE ? null : DIRECTIONS[headings[id]];
+	}
+
+	/**
+	 * Sets the direction a monster faces.
+	 *
+	 * @param id        The id of the actor.
+	 * @param direction The direction, or null for none.
+	 */
+	void setHeading(int id, Actor.Direction direction) {
+		headings[id] = (byte) (direction == null ? NONE : direction.ordinal());
+	}
+
+	/**
+	 * Gets the move an actor will make on the next movement pass.
+	 *
+	 * @param id The id of the actor.
+	 * @return The direction, or null if the actor stays where it is.
+	 */
+	public Actor.Direction getIntent(int id) {
+		return intents[id] == NONE ? null : DIRECTIONS[intents[id]];
+	}
+
+	/**
+	 * Sets the move an actor will make on the next movement pass.
+	 *
+	 * @param id        The id of the actor.
+	 * @param direction The direction, or null to stay.
+	 */
+	void setIntent(int id, Actor.Direction direction) {
+		intents[id] = (byte) (direction == null ? NONE : direction.ordinal());
+	}
+
+	/**
+	 * Gets the id of the first actor on a square; the others follow through {@link #nextOnSquare(int)}.
+	 *
+	 * @param x The x-coordinate of the square.
+	 * @param y The y-coordinate of the square.
+	 * @return The id of the actor, or -1 if no actor stands there or the square is outside the grid.
+	 */
+	public int firstOnSquare(int x, int y) {
+		return inBounds(x, y) ? firstOnSquare[y * width + x] : NONE;
+	}
+
+	/**
+	 * Gets the id of the next actor on the same square as another.
+	 *
+	 * @param id The id of the actor.
+	 * @return The id of the next actor, or -1 if there is none.
+	 */
+	public int nextOnSquare(int id) {
+		return nextOnSquare[id];
+	}
+
+	/**
+	 * Gets the actor that most recently arrived on a square.
+	 *
+	 * @param x The x-coordinate of the square.
+	 * @param y The y-coordinate of the square.
+	 * @return The actor, or null if no actor stands there.
+	 */
+	public Actor getActor(int x, int y) {
+		int id = firstOnSquare(x, y);
+		return id == NONE ? null : actors[id];
+	}
+
+	/**
+	 * Checks if an actor would collide with any other actor standing on a square.
+	 *
+	 * @param mover The actor checking for a collision.
+	 * @param x     The x-coordinate of the square.
+	 * @param y     The y-coordinate of the square.
+	 * @return true if it collides with one of the actors there, false otherwise.
+	 */
+	public boolean collidesAt(Actor mover, int x, int y) {
+		for (int id = firstOnSquare(x, y); id != NONE; id = nextOnSquare[id]) {
+			if (actors[id] != mover && mover.collidesWith(actors[id])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if an actor of a given kind stands on a square.
+	 *
+	 * @param x    The x-coordinate of the square.
+	 * @param y    The y-coordinate of the square.
+	 * @param kind One of the kind constants of this class.
+	 * @return true if an actor of the kind stands there, false otherwise.
+	 */
+	public boolean contains(int x, int y, byte kind) {
+		for (int id = firstOnSquare(x, y); id != NONE; id = nextOnSquare[id]) {
+			if (kinds[id] == kind) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if a square lies on the grid.
+	 *
+	 * @param x The x-coordinate of the square.
+	 * @param y The y-coordinate of the square.
+	 * @return true if the square is on the grid, false otherwise.
+	 */
+	public boolean inBounds(int x, int y) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Finds the kind of an actor from its class.
+	 *
+	 * @param actor The actor.
+	 * @return One of the kind constants of this class.
+	 */
+	private static byte kindOf(Actor actor) {
+		if (actor instanceof Player) {
+			return PLAYER;
+		}
+		if (actor instanceof Frog) {
+			return FROG;
+		}
+		if (actor instanceof PinkBall) {
+			return PINK_BALL;
+		}
+		if (actor instanceof Block) {
+			return BLOCK;
+		}
+		if (actor instanceof Bug) {
+			return BUG;
+		}
+		return OTHER;
+	}
+
+	/**
+	 * Doubles the capacity of every per-actor array.
+	 */
+	private void grow() {
+		int capacity = actors.length * 2;
+		actors = Arrays.copyOf(actors, capacity);
+		xs = Arrays.copyOf(xs, capacity);
+		ys = Arrays.copyOf(ys, capacity);
+		kinds = Arrays.copyOf(kinds, capacity);
+		headings = Arrays.copyOf(headings, capacity);
+		intents = Arrays.copyOf(intents, capacity);
+		nextOnSquare = Arrays.copyOf(nextOnSquare, capacity);
+		previousOnSquare = Arrays.copyOf(previousOnSquare, capacity);
+	}
+
+	/**
+	 * Adds an actor to the front of the list of a square.
+	 *
+	 * @param id     The id of the actor.
+	 * @param square The index of the square.
+	 */
+	private void link(int id, int square) {
+		int first = firstOnSquare[square];
+		previousOnSquare[id] = NONE;
+		nextOnSquare[id] = first;
+		if (first != NONE) {
+			previousOnSquare[first] = id;
+		}
+		firstOnSquare[square] = id;
+	}
+
+	/**
+	 * Removes an actor from the list of the square it stands on.
+	 *
+	 * @param id The id of the actor.
+	 */
+	private void unlink(int id) {
+		int previous = previousOnSquare[id];
+		int next = nextOnSquare[id];
+		if (previous == NONE) {
+			firstOnSquare[getSquare(id)] = next;
+		} else {
+			nextOnSquare[previous] = next;
+		}
+		if (next != NONE) {
+			previousOnSquare[next] = previous;
+		}
+	}
+}
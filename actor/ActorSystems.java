@@ -0,0 +1,118 @@
+package actor;
+
+/**
+ * The `ActorSystems` class holds the update passes run over the actors of an {@link ActorRegistry} on every
+ * monster tick. Each pass is a plain loop over the registry ids that reads the kind, position and heading
+ * arrays and skips actors it has nothing to do with, so one tick costs a few linear sweeps however many
+ * actors the level holds.
+ *
+ * <p>The passes run in order: {@link #think} decides the move of every monster from the state at the start
+ * of the pass, {@link #move} carries the moves out one actor after another, so each actor still collides
+ * with those that moved before it, and {@link #collide} kills the player if a monster now shares its square.
+ * Hazards are not a pass of their own: the tiles an actor leaves and enters are told through
+ * {@link TileEvents} as part of its move, so only the actors that moved are looked at.</p>
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.2
+ */
+public final class ActorSystems {
+
+	/**
+	 * Prevents instances; all passes are static.
+	 */
+	private ActorSystems() {
+	}
+
+	/**
+	 * Runs every pass once: the monsters decide their moves and make them, and then catch the player.
+	 *
+	 * @param registry The actors of the level.
+	 * @param playerX  The x-coordinate of the player.
+	 * @param playerY  The y-coordinate of the player.
+	 */
+	public static void update(ActorRegistry registry, int playerX, int playerY) {
+		think(registry, playerX, playerY);
+		move(registry);
+		collide(registry);
+	}
+
+	/**
+	 * Decides the next move of every monster. Frogs take the first step of a path to the player, and pink
+	 * balls turn around when the square ahead is blocked.
+	 *
+	 * @param registry The actors of the level.
+	 * @param playerX  The x-coordinate of the player.
+	 * @param playerY  The y-coordinate of the player.
+	 */
+	public static void think(ActorRegistry registry, int playerX, int playerY) {
+		int size = registry.size();
+		for (int id = 0; id < size; id++) {
+			switch (registry.getKind(id)) {
+				case ActorRegistry.FROG -> registry.setIntent(id, ((Frog) registry.get(id)).findPath(playerX, playerY));
+				case ActorRegistry.PINK_BALL -> {
+					Actor.Direction heading = PinkBall.bounce(registry.get(id).getTileLayer(),
+							registry.getX(id), registry.getY(id), registry.getHeading(id));
+					registry.setHeading(id, heading);
+					registry.setIntent(id, heading);
+				}
+				default -> registry.setIntent(id, null);
+			}
+		}
+	}
+
+	/**
+	 * Makes the move decided for every actor, in id order. A move off the grid, onto a tile the actor cannot
+	 * pass, or onto an actor it collides with is dropped, and the actor stays where it is until the next tick.
+	 * The player does not block a monster: the monster moves onto it and {@link #collide} catches it.
+	 *
+	 * @param registry The actors of the level.
+	 */
+	public static void move(ActorRegistry registry) {
+		int size = registry.size();
+		for (int id = 0; id < size; id++) {
+			Actor.Direction intent = registry.getIntent(id);
+			if (intent != null && registry.getKind(id) != ActorRegistry.REMOVED) {
+				if (canEnter(registry, id, intent)) {
+					registry.get(id).move(intent);
+				}
+				registry.setIntent(id, null);
+			}
+		}
+	}
+
+	/**
+	 * Kills the player if it shares its square with an actor it collides with, i.e. a monster.
+	 *
+	 * @param registry The actors of the level.
+	 */
+	public static void collide(ActorRegistry registry) {
+		int size = registry.size();
+		for (int id = 0; id < size; id++) {
+			if (registry.getKind(id) == ActorRegistry.PLAYER) {
+				Player player = (Player) registry.get(id);
+				if (registry.collidesAt(player, registry.getX(id), registry.getY(id))) {
+					player.setIsAlive(false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if an actor can make a move: the square must be on the grid, its tile passable for the actor,
+	 * and no actor the mover collides with may stand there, except the player.
+	 *
+	 * @param registry  The actors of the level.
+	 * @param id        The id of the moving actor.
+	 * @param direction The direction of the move.
+	 * @return true if the move can be made, false if it is blocked.
+	 */
+	private static boolean canEnter(ActorRegistry registry, int id, Actor.Direction direction) {
+		Actor actor = registry.get(id);
+		int x = registry.getX(id) + direction.getXOffset(direction);
+		int y = registry.getY(id) + direction.getYOffset(direction);
+		if (!registry.inBounds(x, y) || !actor.passTile(actor.getTileLayer().getTile(x, y))) {
+			return false;
+		}
+		return !registry.collidesAt(actor, x, y) || registry.contains(x, y, ActorRegistry.PLAYER);
+	}
+}
@@ -9,7 +9,7 @@ import tile.Tile;
  * Blocks can interact with various elements in the game, such as water and ice tiles.
  *
  * @author Carl Antill, Tomas Williams
- * @version 1.6
+ * @version 1.8
  */
 public class Block extends Actor {
 
@@ -49,10 +49,6 @@ public class Block extends Actor {
 		boolean check = false;
 		if (this.passTile(this.checkTile(direction))) {
 			this.move(direction);
-			Tile curTile = tileLayer.getTile(this.xPos, this.yPos);
-			if (curTile.getKey().equals("WT")) {
-				onWater(curTile);
-			}
 			check = true;
 		}
 		return check;
@@ -60,15 +56,17 @@ public class Block extends Actor {
 
 	/**
 	 * Handles the interaction of the block with water tiles.
-	 * Converts water tiles to path tiles and removes the block.
+	 * Converts water tiles to path tiles and removes the block, also from its registry.
 	 *
 	 * @param tile The water tile the block interacts with.
 	 */
+	@Override
 	public void onWater(Tile tile) {
-		tileLayer.setTile(tile.getxPos(), tile.getyPos(), new Path());
-		tileLayer.writeLayer();
-		actorLayer.setActor(tile.getxPos(), tile.getyPos(), null);
-		actorLayer.writeLayer();
+		tileLayer.setTile(getXPos(), getYPos(), new Path());
+		actorLayer.setActor(getXPos(), getYPos(), null);
+		if (getRegistry() != null) {
+			getRegistry().remove(getRegistryId());
+		}
 
 		//remove item
 	}
@@ -1,5 +1,7 @@
 package actor;
 
+import game.log.Logger;
+import tile.PassabilityMask;
 import tile.Tile;
 
 /**
@@ -8,11 +10,13 @@ import tile.Tile;
  * Bugs can be oriented to move either left or right.
  *
  * @author Carl Antill, Tomas Williams
- * @version 1.8
+ * @version 2.0
  */
 public class Bug extends Monster {
-	private final String[] passableTileBug =
-			{"Bx", "Tx", "PA"};
+	// Logger for the maze-solving decisions.
+	private static final Logger LOG = Logger.getLogger(Bug.class);
+	// Tile types that bugs can pass through.
+	private static final PassabilityMask PASSABLE_BUG = PassabilityMask.of("Bx", "Tx", "PA");
 
 	/**
 	 * Constructs a `Bug` object with the specified initial direction, position, and key.
@@ -46,8 +50,8 @@ public class Bug extends Monster {
 	private String setKey() {
 		char directionChar = direction.getDirection();
 		return switch (directionChar) {
-			case 'L' -> "BE";
-			case 'R' -> "BW";
+			case 'L' -> "BW";
+			case 'R' -> "BE";
 			default -> null;
 		};
 	}
@@ -65,20 +69,7 @@ public class Bug extends Monster {
 			throw new IllegalArgumentException("Tile cannot be null");
 			// Check if the tile represents a wall
 		}
-		String tileKey = tile.getKey();
-		for (String passableTile : passableTileBug) {
-			try {
-				if (tileKey.equals(passableTile)) {
-					// The tile is passable
-					return true;
-				}
-			} catch (IndexOutOfBoundsException e) {
-				// Handle the IndexOutOfBoundsException (you may throw an exception or log an error)
-				throw new IndexOutOfBoundsException("Index out of bounds while accessing tile key");
-			}
-		}
-		// The tile is not in the list of passable tiles, so it's not passable
-		return false;
+		return PASSABLE_BUG.allows(tile);
 	}
 
 	/**
@@ -86,28 +77,30 @@ public class Bug extends Monster {
 	 * The bug checks adjacent tiles to determine its movement.
 	 */
 	public void mazeSolvingAlgorithm() {
-		int newX = this.xPos + this.direction.getXOffset(this.direction);
-		int newY = this.yPos + this.direction.getYOffset(this.direction);
+		Direction direction = getDirection();
+		int newX = getXPos() + direction.getXOffset(direction);
+		int newY = getYPos() + direction.getYOffset(direction);
 		Tile rightTile = tileLayer.getTile(newX, newY);
 
-		Direction currentDirection = this.direction.getRightTurnDirection(direction);
-		Direction superCurrentDirection = this.direction.getRightTurnDirection(currentDirection);
-		System.out.println(currentDirection);
-		int altX = this.xPos + this.direction.getXOffset(currentDirection);
-		int altY = this.yPos + this.direction.getYOffset(currentDirection);
+		Direction currentDirection = direction.getRightTurnDirection(direction);
+		Direction superCurrentDirection = direction.getRightTurnDirection(currentDirection);
+		LOG.debug("Right turn direction: {}", currentDirection);
+		int altX = getXPos() + direction.getXOffset(currentDirection);
+		int altY = getYPos() + direction.getYOffset(currentDirection);
 		Tile altTile = tileLayer.getTile(altX, altY);
-		System.out.println("rightTile passable: " + bugPassable(rightTile));
-		System.out.println("altTile passable: " + bugPassable(altTile));
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("rightTile passable: {}, altTile passable: {}", bugPassable(rightTile), bugPassable(altTile));
+		}
 
 
 		if (bugPassable(altTile)) {
 			this.move(currentDirection);
 		} else if (bugPassable(altTile) && bugPassable(rightTile)) {
 			// Turn right
-			this.direction = direction.getRightTurnDirection(direction);
+			setDirection(direction.getRightTurnDirection(direction));
 		} else {
 			// Turn left (following the right-hand rule)
-			this.direction = direction.getLeftTurnDirection(direction);
+			setDirection(direction.getLeftTurnDirection(direction));
 		}
 	}
 }
\ No newline at end of file
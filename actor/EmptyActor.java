@@ -40,5 +40,13 @@ public class EmptyActor extends Actor{
         return this.key;
     }
 
-
+    /**
+     * Checks if this empty actor can be shared between cells.
+     *
+     * @return Always true, as empty actors hold no per-cell state.
+     */
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
 }
@@ -0,0 +1,183 @@
+package actor;
+
+import actor.Actor.Direction;
+import level.Layer;
+import tile.Tile;
+
+import java.util.Arrays;
+
+/**
+ * The `FlowField` class guides any number of monsters towards the same target with a single search.
+ * A breadth-first search from the target stores the path length of every reachable cell in an array, and a
+ * monster's next step is the neighbouring cell with the smallest length, so each monster is served in constant time.
+ * The field is only searched again when the target moves, the tile layer changes, or a monster of another
+ * class asks for a step, since different classes may pass different tiles.
+ *
+ * <p>One field is shared by all the chasers of a level. It is not thread-safe, so it must only be
+ * used by the thread running that level.</p>
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.1
+ */
+public final class FlowField implements PathStrategy {
+
+	// Directions checked from each cell; on equal lengths the first one wins.
+	private static final Direction[] MOVES = {Direction.UP, Direction.DOWN, Direction.RIGHT, Direction.LEFT};
+
+	// Width of the grid in cells.
+	private final int width;
+	// Height of the grid in cells.
+	private final int height;
+	// Search in which each cell was last reached; cells from older searches are unreachable.
+	private final int[] generation;
+	// Path length from each reached cell to the target.
+	private final int[] distance;
+	// Queue of cells waiting to be expanded by the search.
+	private final int[] queue;
+	// Number of the current search.
+	private int currentGeneration;
+	// Index of the target cell of the current field, or -1 before the first search.
+	private int target = -1;
+	// Tile layer the current field was built from.
+	private Layer<Tile> builtFrom;
+	// Version of the tile layer when the current field was built.
+	private int builtVersion;
+	// Class of the monster whose passable tiles the current field was built with.
+	private Class<?> builtFor;
+	// Number of cells expanded by all searches so far.
+	private long expansions;
+
+	/**
+	 * Constructs a flow field for a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 */
+	public FlowField(int width, int height) {
+		int cells = width * height;
+		this.width = width;
+		this.height = height;
+		this.generation = new int[cells];
+		this.distance = new int[cells];
+		this.queue = new int[cells];
+	}
+
+	/**
+	 * Gets the number of cells expanded by all searches so far.
+	 *
+	 * @return The number of expansions.
+	 */
+	@Override
+	public long getExpansions() {
+		return expansions;
+	}
+
+	/**
+	 * Checks if this field can cover a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 * @return true if the grid has the size this field was built for, false otherwise.
+	 */
+	@Override
+	public boolean fits(int width, int height) {
+		return this.width == width && this.height == height;
+	}
+
+	/**
+	 * Finds the first step of a shortest path for an actor, searching the field again first if it is stale.
+	 *
+	 * @param mover The actor that will follow the path.
+	 * @param tiles The tile layer to search.
+	 * @param fromX The x-coordinate of the start cell.
+	 * @param fromY The y-coordinate of the start cell.
+	 * @param toX   The x-coordinate of the goal cell.
+	 * @param toY   The y-coordinate of the goal cell.
+	 * @return The direction of the first step, or null if the actor is already at the goal or no path exists.
+	 */
+	@Override
+	public Direction nextStep(Actor mover, Layer<Tile> tiles, int fromX, int fromY, int toX, int toY) {
+		if (!inBounds(fromX, fromY) || !inBounds(toX, toY) || (fromX == toX && fromY == toY)) {
+			return null;
+		}
+		int goal = toY * width + toX;
+		if (goal != target || tiles != builtFrom || tiles.getVersion() != builtVersion
+				|| mover.getClass() != builtFor) {
+			build(mover, tiles, goal);
+		}
+
+		Direction best = null;
+		int bestDistance = Integer.MAX_VALUE;
+		for (Direction move : MOVES) {
+			int newX = fromX + move.getXOffset(move);
+			int newY = fromY + move.getYOffset(move);
+			if (inBounds(newX, newY)) {
+				int next = newY * width + newX;
+				if (generation[next] == currentGeneration && distance[next] < bestDistance) {
+					best = move;
+					bestDistance = distance[next];
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Searches outwards from the target, recording the path length of every cell the mover could walk
+	 * from to reach it.
+	 *
+	 * @param mover The actor whose passable tiles are used.
+	 * @param tiles The tile layer to search.
+	 * @param goal  The index of the target cell.
+	 */
+	private void build(Actor mover, Layer<Tile> tiles, int goal) {
+		target = goal;
+		builtFrom = tiles;
+		builtVersion = tiles.getVersion();
+		builtFor = mover.getClass();
+		if (currentGeneration == Integer.MAX_VALUE) {
+			Arrays.fill(generation, 0);
+			currentGeneration = 0;
+		}
+		currentGeneration++;
+
+		if (!mover.passTile(tiles.getTile(goal % width, goal / width))) {
+			return;
+		}
+		generation[goal] = currentGeneration;
+		distance[goal] = 0;
+		queue[0] = goal;
+		int head = 0;
+		int tail = 1;
+		while (head < tail) {
+			int current = queue[head++];
+			expansions++;
+			int x = current % width;
+			int y = current / width;
+			for (Direction move : MOVES) {
+				int newX = x + move.getXOffset(move);
+				int newY = y + move.getYOffset(move);
+				if (!inBounds(newX, newY)) {
+					continue;
+				}
+				int next = newY * width + newX;
+				if (generation[next] != currentGeneration && mover.passTile(tiles.getTile(newX, newY))) {
+					generation[next] = currentGeneration;
+					distance[next] = distance[current] + 1;
+					queue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if a cell lies on the grid.
+	 *
+	 * @param x The x-coordinate of the cell.
+	 * @param y The y-coordinate of the cell.
+	 * @return true if the cell is on the grid, false otherwise.
+	 */
+	private boolean inBounds(int x, int y) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+}
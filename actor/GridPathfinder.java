@@ -0,0 +1,304 @@
+package actor;
+
+import actor.Actor.Direction;
+import level.Layer;
+import tile.Tile;
+
+import java.util.Arrays;
+
+/**
+ * The `GridPathfinder` class finds shortest paths across the tile layer of a level using the A* algorithm.
+ * All of its working state is held in primitive arrays sized to the level and reused between searches,
+ * so a search does not allocate. Instead of clearing the arrays, every search starts a new generation,
+ * and cells last touched by an older generation count as unvisited.
+ *
+ * <p>A search costs time proportional to the area explored, so it suits levels with few chasers;
+ * {@code FlowField} serves many chasers of the same target with one search.
+ * One pathfinder is shared by all the monsters of a level. It is not thread-safe, so it must only be
+ * used by the thread running that level.</p>
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.1
+ */
+public final class GridPathfinder implements PathStrategy {
+
+	// Directions searched from each cell, in the order neighbours are expanded.
+	private static final Direction[] MOVES = {Direction.UP, Direction.DOWN, Direction.RIGHT, Direction.LEFT};
+	// Heap position of a cell that has been expanded.
+	private static final int CLOSED = -1;
+
+	// Width of the grid in cells.
+	private final int width;
+	// Height of the grid in cells.
+	private final int height;
+	// Generation in which each cell was last reached.
+	private final int[] generation;
+	// Cost of the best known path from the start to each cell.
+	private final int[] cost;
+	// Estimated total cost of a path through each cell.
+	private final int[] estimate;
+	// Index of the cell each cell was reached from.
+	private final int[] parent;
+	// Position of each open cell in the heap, or CLOSED.
+	private final int[] heapIndex;
+	// Binary min-heap of open cells, ordered by estimate and then by distance to the goal.
+	private final int[] heap;
+	// Number of cells in the heap.
+	private int heapSize;
+	// Generation of the current search.
+	private int currentGeneration;
+	// Number of cells expanded by all searches so far.
+	private long expansions;
+
+	/**
+	 * Constructs a pathfinder for a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 */
+	public GridPathfinder(int width, int height) {
+		int cells = width * height;
+		this.width = width;
+		this.height = height;
+		this.generation = new int[cells];
+		this.cost = new int[cells];
+		this.estimate = new int[cells];
+		this.parent = new int[cells];
+		this.heapIndex = new int[cells];
+		this.heap = new int[cells];
+	}
+
+	/**
+	 * Gets the number of cells expanded by all searches so far.
+	 *
+	 * @return The number of expansions.
+	 */
+	@Override
+	public long getExpansions() {
+		return expansions;
+	}
+
+	/**
+	 * Checks if this pathfinder can search a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 * @return true if the grid has the size this pathfinder was built for, false otherwise.
+	 */
+	@Override
+	public boolean fits(int width, int height) {
+		return this.width == width && this.height == height;
+	}
+
+	/**
+	 * Finds a shortest path for an actor and returns only its first step.
+	 * A cell can be entered if the actor can pass its tile; the start cell is never checked.
+	 *
+	 * @param mover The actor that will follow the path.
+	 * @param tiles The tile layer to search.
+	 * @param fromX The x-coordinate of the start cell.
+	 * @param fromY The y-coordinate of the start cell.
+	 * @param toX   The x-coordinate of the goal cell.
+	 * @param toY   The y-coordinate of the goal cell.
+	 * @return The direction of the first step, or null if the actor is already at the goal or no path exists.
+	 */
+	@Override
+	public Direction nextStep(Actor mover, Layer<Tile> tiles, int fromX, int fromY, int toX, int toY) {
+		if (!inBounds(fromX, fromY) || !inBounds(toX, toY)) {
+			return null;
+		}
+		int start = fromY * width + fromX;
+		int goal = toY * width + toX;
+		if (start == goal) {
+			return null;
+		}
+
+		startGeneration();
+		open(start, start, 0, heuristic(fromX, fromY, toX, toY));
+
+		while (heapSize > 0) {
+			int current = poll();
+			expansions++;
+			if (current == goal) {
+				return stepTowards(start, goal);
+			}
+			int x = current % width;
+			int y = current / width;
+			int nextCost = cost[current] + 1;
+
+			for (Direction move : MOVES) {
+				int newX = x + move.getXOffset(move);
+				int newY = y + move.getYOffset(move);
+				if (!inBounds(newX, newY)) {
+					continue;
+				}
+				int next = newY * width + newX;
+				if (generation[next] != currentGeneration) {
+					if (mover.passTile(tiles.getTile(newX, newY))) {
+						open(next, current, nextCost, nextCost + heuristic(newX, newY, toX, toY));
+					}
+				} else if (heapIndex[next] != CLOSED && nextCost < cost[next]) {
+					// Only cells already found passable are in the heap.
+					estimate[next] -= cost[next] - nextCost;
+					cost[next] = nextCost;
+					parent[next] = current;
+					siftUp(heapIndex[next]);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Starts a new search, invalidating the state of every cell without clearing the arrays.
+	 */
+	private void startGeneration() {
+		heapSize = 0;
+		if (currentGeneration == Integer.MAX_VALUE) {
+			Arrays.fill(generation, 0);
+			currentGeneration = 0;
+		}
+		currentGeneration++;
+	}
+
+	/**
+	 * Follows the parents back from the goal to find the step taken out of the start cell.
+	 *
+	 * @param start The index of the start cell.
+	 * @param goal  The index of the goal cell.
+	 * @return The direction from the start cell to the next cell on the path.
+	 */
+	private Direction stepTowards(int start, int goal) {
+		int cell = goal;
+		while (parent[cell] != start) {
+			cell = parent[cell];
+		}
+		int dx = cell % width - start % width;
+		int dy = cell / width - start / width;
+		for (Direction move : MOVES) {
+			if (move.getXOffset(move) == dx && move.getYOffset(move) == dy) {
+				return move;
+			}
+		}
+		throw new IllegalStateException("Path step is not a single move: " + dx + "," + dy);
+	}
+
+	/**
+	 * Marks a cell as reached in this search and adds it to the heap.
+	 *
+	 * @param cell     The index of the cell.
+	 * @param from     The index of the cell it was reached from.
+	 * @param pathCost The cost of the path to the cell.
+	 * @param total    The estimated total cost of a path through the cell.
+	 */
+	private void open(int cell, int from, int pathCost, int total) {
+		generation[cell] = currentGeneration;
+		cost[cell] = pathCost;
+		estimate[cell] = total;
+		parent[cell] = from;
+		heap[heapSize] = cell;
+		heapIndex[cell] = heapSize;
+		siftUp(heapSize++);
+	}
+
+	/**
+	 * Removes the cell with the lowest estimate from the heap and marks it as expanded.
+	 *
+	 * @return The index of the cell.
+	 */
+	private int poll() {
+		int top = heap[0];
+		heapIndex[top] = CLOSED;
+		heapSize--;
+		if (heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapIndex[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	/**
+	 * Moves a heap entry up until its parent is not greater than it.
+	 *
+	 * @param position The position of the entry in the heap.
+	 */
+	private void siftUp(int position) {
+		int cell = heap[position];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int above = heap[parentPosition];
+			if (!less(cell, above)) {
+				break;
+			}
+			heap[position] = above;
+			heapIndex[above] = position;
+			position = parentPosition;
+		}
+		heap[position] = cell;
+		heapIndex[cell] = position;
+	}
+
+	/**
+	 * Moves a heap entry down until neither of its children is less than it.
+	 *
+	 * @param position The position of the entry in the heap.
+	 */
+	private void siftDown(int position) {
+		int cell = heap[position];
+		int half = heapSize >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < heapSize && less(heap[right], heap[child])) {
+				child = right;
+			}
+			if (!less(heap[child], cell)) {
+				break;
+			}
+			heap[position] = heap[child];
+			heapIndex[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = cell;
+		heapIndex[cell] = position;
+	}
+
+	/**
+	 * Compares two open cells by estimated total cost, preferring the one nearer the goal on ties.
+	 *
+	 * @param a The index of the first cell.
+	 * @param b The index of the second cell.
+	 * @return true if the first cell should be expanded before the second.
+	 */
+	private boolean less(int a, int b) {
+		if (estimate[a] != estimate[b]) {
+			return estimate[a] < estimate[b];
+		}
+		return cost[a] > cost[b];
+	}
+
+	/**
+	 * Checks if a cell lies on the grid.
+	 *
+	 * @param x The x-coordinate of the cell.
+	 * @param y The y-coordinate of the cell.
+	 * @return true if the cell is on the grid, false otherwise.
+	 */
+	private boolean inBounds(int x, int y) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Calculates the Manhattan distance between two cells, which never overestimates the path cost.
+	 *
+	 * @param fromX The x-coordinate of the first cell.
+	 * @param fromY The y-coordinate of the first cell.
+	 * @param toX   The x-coordinate of the second cell.
+	 * @param toY   The y-coordinate of the second cell.
+	 * @return The distance between the cells.
+	 */
+	private static int heuristic(int fromX, int fromY, int toX, int toY) {
+		return Math.abs(fromX - toX) + Math.abs(fromY - toY);
+	}
+}
@@ -0,0 +1,836 @@
+package actor;
+
+import actor.Actor.Direction;
+import level.Layer;
+import tile.Tile;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The `HierarchicalPathfinder` class finds paths on large levels with the HPA* algorithm.
+ * The level is split into square clusters. Wherever passable cells on both sides of a cluster border meet,
+ * an entrance is placed, and the path lengths between the entrances of each cluster are computed in advance.
+ * A query only searches inside the start and goal clusters and then runs A* over the graph of entrances,
+ * so its cost grows with the number of clusters rather than the number of cells.
+ *
+ * <p>Paths go through entrances, so they can be slightly longer than the shortest path. When tiles change
+ * passability, only the clusters containing them, and neighbours whose shared entrances moved, are rebuilt.
+ * One pathfinder can be shared by all the monsters of a level; it is not thread-safe.</p>
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.1
+ */
+public final class HierarchicalPathfinder implements PathStrategy {
+
+	// Width and height of a cluster in cells.
+	public static final int CLUSTER_SIZE = 16;
+
+	// Directions searched from each cell; on equal costs the first one wins.
+	private static final Direction[] MOVES = {Direction.UP, Direction.DOWN, Direction.RIGHT, Direction.LEFT};
+	// Cost of unreachable cells and nodes, small enough that adding to it cannot overflow.
+	private static final int INFINITY = Integer.MAX_VALUE / 4;
+	// Border openings at least this long get an entrance at each end instead of one in the middle.
+	private static final int LONG_OPENING = 6;
+	// Parent of abstract nodes reached directly from the start cell.
+	private static final int FROM_START = -1;
+	// Heap position of an abstract node that is not queued.
+	private static final int NOT_QUEUED = -1;
+	// Heap position of an abstract node that has been expanded.
+	private static final int CLOSED = -2;
+
+	// Width of the grid in cells.
+	private final int width;
+	// Height of the grid in cells.
+	private final int height;
+	// Number of clusters across the grid.
+	private final int clustersX;
+	// Number of clusters down the grid.
+	private final int clustersY;
+	// Cells the mover could pass when passability was last recorded.
+	private final BitSet passable;
+	// Entrances on the east border of each cluster, as pairs of cells: one inside the cluster, one outside.
+	private final int[][] eastEntrances;
+	// Entrances on the south border of each cluster, as pairs of cells: one inside the cluster, one outside.
+	private final int[][] southEntrances;
+	// Cells of the entrance nodes of each cluster.
+	private final int[][] clusterNodes;
+	// Path lengths between the entrance nodes of each cluster, as a square matrix in row order.
+	private final int[][] clusterDistances;
+
+	// Id of the first abstract node of each cluster; the nodes of a cluster have consecutive ids.
+	private int[] firstNode;
+	// Cell of each abstract node.
+	private int[] nodeCell;
+	// Cluster of each abstract node.
+	private int[] nodeCluster;
+	// Position in edgeTarget of the first edge of each abstract node; one extra entry marks the end.
+	private int[] edgeStart;
+	// Target node of each abstract edge.
+	private int[] edgeTarget;
+	// Cost of each abstract edge.
+	private int[] edgeCost;
+	// Number of abstract nodes; the id after the last one stands for the goal during a query.
+	private int nodeCount;
+
+	// Path length from the start cell to each cell of its cluster, by position in the cluster.
+	private final int[] startDistance;
+	// Cell each cell of the start cluster was reached from, by position in the cluster.
+	private final int[] startParent;
+	// Path length from each cell of the goal cluster to the goal cell, by position in the cluster.
+	private final int[] goalDistance;
+	// Path lengths found by the search in a cluster while it is being built.
+	private final int[] buildDistance;
+	// Queue of cells for searches inside a cluster.
+	private final int[] clusterQueue;
+
+	// Query in which each abstract node was last reached.
+	private int[] queryStamp;
+	// Best known cost from the start to each abstract node.
+	private int[] queryCost;
+	// Estimated total cost through each abstract node.
+	private int[] queryEstimate;
+	// Node each abstract node was reached from, or FROM_START.
+	private int[] queryParent;
+	// Position of each abstract node in the heap, NOT_QUEUED or CLOSED.
+	private int[] heapIndex;
+	// Binary min-heap of queued abstract nodes, ordered by estimate.
+	private int[] heap;
+	// Number of nodes in the heap.
+	private int heapSize;
+	// Number of the current query.
+	private int currentQuery;
+	// Number of cells and abstract nodes expanded by all searches so far.
+	private long expansions;
+
+	// Tile layer the passability was recorded from.
+	private Layer<Tile> recordedFrom;
+	// Version of the tile layer when passability was recorded.
+	private int recordedVersion;
+	// Class of the monster whose passable tiles were recorded.
+	private Class<?> recordedFor;
+
+	/**
+	 * Constructs a pathfinder for a grid of the given size. The clusters are built on the first query.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 */
+	public HierarchicalPathfinder(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		this.clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		int clusters = clustersX * clustersY;
+		int clusterCells = CLUSTER_SIZE * CLUSTER_SIZE;
+		this.passable = new BitSet(width * height);
+		this.eastEntrances = new int[clusters][];
+		this.southEntrances = new int[clusters][];
+		this.clusterNodes = new int[clusters][];
+		this.clusterDistances = new int[clusters][];
+		this.startDistance = new int[clusterCells];
+		this.startParent = new int[clusterCells];
+		this.goalDistance = new int[clusterCells];
+		this.buildDistance = new int[clusterCells];
+		this.clusterQueue = new int[clusterCells];
+	}
+
+	/**
+	 * Gets the number of cells and abstract nodes expanded by all searches so far.
+	 *
+	 * @return The number of expansions.
+	 */
+	@Override
+	public long getExpansions() {
+		return expansions;
+	}
+
+	/**
+	 * Checks if this pathfinder can search a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 * @return true if the grid has the size this pathfinder was built for, false otherwise.
+	 */
+	@Override
+	public boolean fits(int width, int height) {
+		return this.width == width && this.height == height;
+	}
+
+	/**
+	 * Finds the first step of a path for an actor through the graph of cluster entrances.
+	 *
+	 * @param mover The actor that will follow the path.
+	 * @param tiles The tile layer to search.
+	 * @param fromX The x-coordinate of the start cell.
+	 * @param fromY The y-coordinate of the start cell.
+	 * @param toX   The x-coordinate of the goal cell.
+	 * @param toY   The y-coordinate of the goal cell.
+	 * @return The direction of the first step, or null if the actor is already at the goal or no path exists.
+	 */
+	@Override
+	public Direction nextStep(Actor mover, Layer<Tile> tiles, int fromX, int fromY, int toX, int toY) {
+		if (!inBounds(fromX, fromY) || !inBounds(toX, toY) || (fromX == toX && fromY == toY)) {
+			return null;
+		}
+		refresh(mover, tiles);
+		int from = fromY * width + fromX;
+		int to = toY * width + toX;
+		if (!passable.get(to)) {
+			return null;
+		}
+		int startCluster = clusterOf(from);
+		int goalCluster = clusterOf(to);
+		searchCluster(startCluster, from, startDistance, startParent);
+		searchCluster(goalCluster, to, goalDistance, null);
+
+		int goalNode = nodeCount;
+		startQuery();
+		int[] startNodes = clusterNodes[startCluster];
+		for (int i = 0; i < startNodes.length; i++) {
+			int distance = startDistance[localIndex(startCluster, startNodes[i])];
+			if (distance < INFINITY) {
+				relax(firstNode[startCluster] + i, distance, FROM_START, heuristic(startNodes[i], to));
+			}
+		}
+		if (startCluster == goalCluster) {
+			int distance = startDistance[localIndex(startCluster, to)];
+			if (distance < INFINITY) {
+				relax(goalNode, distance, FROM_START, 0);
+			}
+		}
+
+		while (heapSize > 0) {
+			int node = poll();
+			expansions++;
+			if (node == goalNode) {
+				return firstMove(from, to, startCluster);
+			}
+			if (nodeCluster[node] == goalCluster) {
+				int distance = goalDistance[localIndex(goalCluster, nodeCell[node])];
+				if (distance < INFINITY) {
+					relax(goalNode, queryCost[node] + distance, node, 0);
+				}
+			}
+			for (int edge = edgeStart[node]; edge < edgeStart[node + 1]; edge++) {
+				int next = edgeTarget[edge];
+				relax(next, queryCost[node] + edgeCost[edge], node, heuristic(nodeCell[next], to));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Works out the first move of the path found by a query, by following the abstract path back to the
+	 * first cell it leaves the start cell for, and then the search from the start cell back to that cell.
+	 *
+	 * @param from         The index of the start cell.
+	 * @param to           The index of the goal cell.
+	 * @param startCluster The cluster of the start cell.
+	 * @return The direction of the first move.
+	 */
+	private Direction firstMove(int from, int to, int startCluster) {
+		int goalNode = nodeCount;
+		int node = goalNode;
+		int child = goalNode;
+		while (queryParent[node] != FROM_START) {
+			child = node;
+			node = queryParent[node];
+		}
+		int target = cellOf(node, to);
+		if (target == from) {
+			target = cellOf(child, to);
+		}
+		if (clusterOf(target) != startCluster) {
+			// The abstract path leaves the start cell straight across the cluster border.
+			return directionTo(from, target);
+		}
+		int cell = target;
+		while (startParent[localIndex(startCluster, cell)] != from) {
+			cell = startParent[localIndex(startCluster, cell)];
+		}
+		return directionTo(from, cell);
+	}
+
+	/**
+	 * Gets the cell an abstract node stands for.
+	 *
+	 * @param node The id of the node.
+	 * @param to   The index of the goal cell, which the id after the last node stands for.
+	 * @return The index of the cell.
+	 */
+	private int cellOf(int node, int to) {
+		return node == nodeCount ? to : nodeCell[node];
+	}
+
+	/**
+	 * Gets the direction of a move between neighbouring cells.
+	 *
+	 * @param from The index of the cell moved from.
+	 * @param to   The index of the neighbouring cell moved to.
+	 * @return The direction of the move.
+	 */
+	private Direction directionTo(int from, int to) {
+		int dx = to % width - from % width;
+		int dy = to / width - from / width;
+		for (Direction move : MOVES) {
+			if (move.getXOffset(move) == dx && move.getYOffset(move) == dy) {
+				return move;
+			}
+		}
+		throw new IllegalStateException("Cells " + from + " and " + to + " are not neighbours");
+	}
+
+	/**
+	 * Makes sure the clusters match the tile layer, building them all or only the ones whose tiles changed.
+	 *
+	 * @param mover The actor whose passable tiles are used.
+	 * @param tiles The tile layer to read.
+	 */
+	private void refresh(Actor mover, Layer<Tile> tiles) {
+		if (tiles != recordedFrom || mover.getClass() != recordedFor) {
+			recordedFrom = tiles;
+			recordedFor = mover.getClass();
+			recordedVersion = tiles.getVersion();
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					passable.set(y * width + x, mover.passTile(tiles.getTile(x, y)));
+				}
+			}
+			boolean[] all = new boolean[clustersX * clustersY];
+			Arrays.fill(all, true);
+			rebuild(all);
+		} else if (tiles.getVersion() != recordedVersion) {
+			recordedVersion = tiles.getVersion();
+			boolean[] dirty = new boolean[clustersX * clustersY];
+			boolean changed = false;
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					int cell = y * width + x;
+					boolean now = mover.passTile(tiles.getTile(x, y));
+					if (now != passable.get(cell)) {
+						passable.set(cell, now);
+						dirty[clusterOf(cell)] = true;
+						changed = true;
+					}
+				}
+			}
+			if (changed) {
+				rebuild(dirty);
+			}
+		}
+	}
+
+	/**
+	 * Rebuilds the borders of the dirty clusters, then the entrance distances of every cluster whose
+	 * tiles or entrances changed, and finally the abstract graph.
+	 *
+	 * @param dirty The clusters containing changed cells; clusters with moved entrances are added to it.
+	 */
+	private void rebuild(boolean[] dirty) {
+		boolean[] rebuild = dirty.clone();
+		for (int cluster = 0; cluster < dirty.length; cluster++) {
+			if (!dirty[cluster]) {
+				continue;
+			}
+			int cx = cluster % clustersX;
+			int cy = cluster / clustersX;
+			rebuildEast(cluster, rebuild);
+			rebuildSouth(cluster, rebuild);
+			if (cx > 0) {
+				rebuildEast(cluster - 1, rebuild);
+			}
+			if (cy > 0) {
+				rebuildSouth(cluster - clustersX, rebuild);
+			}
+		}
+		for (int cluster = 0; cluster < rebuild.length; cluster++) {
+			if (rebuild[cluster]) {
+				buildCluster(cluster);
+			}
+		}
+		buildGraph();
+	}
+
+	/**
+	 * Recomputes the entrances on the east border of a cluster, marking both clusters if they moved.
+	 *
+	 * @param cluster The cluster.
+	 * @param rebuild The clusters whose entrance distances must be rebuilt.
+	 */
+	private void rebuildEast(int cluster, boolean[] rebuild) {
+		int cx = cluster % clustersX;
+		int[] entrances = new int[0];
+		if (cx < clustersX - 1) {
+			int x = (cx + 1) * CLUSTER_SIZE - 1;
+			int y0 = (cluster / clustersX) * CLUSTER_SIZE;
+			int y1 = Math.min(y0 + CLUSTER_SIZE, height);
+			entrances = findEntrances(y0 * width + x, width, 1, y1 - y0);
+		}
+		if (!Arrays.equals(entrances, eastEntrances[cluster])) {
+			eastEntrances[cluster] = entrances;
+			rebuild[cluster] = true;
+			if (cx < clustersX - 1) {
+				rebuild[cluster + 1] = true;
+			}
+		}
+	}
+
+	/**
+	 * Recomputes the entrances on the south border of a cluster, marking both clusters if they moved.
+	 *
+	 * @param cluster The cluster.
+	 * @param rebuild The clusters whose entrance distances must be rebuilt.
+	 */
+	private void rebuildSouth(int cluster, boolean[] rebuild) {
+		int cy = cluster / clustersX;
+		int[] entrances = new int[0];
+		if (cy < clustersY - 1) {
+			int y = (cy + 1) * CLUSTER_SIZE - 1;
+			int x0 = (cluster % clustersX) * CLUSTER_SIZE;
+			int x1 = Math.min(x0 + CLUSTER_SIZE, width);
+			entrances = findEntrances(y * width + x0, 1, width, x1 - x0);
+		}
+		if (!Arrays.equals(entrances, southEntrances[cluster])) {
+			southEntrances[cluster] = entrances;
+			rebuild[cluster] = true;
+			if (cy < clustersY - 1) {
+				rebuild[cluster + clustersX] = true;
+			}
+		}
+	}
+
+	/**
+	 * Finds the entrances along a cluster border. Each run of cells that are passable on both sides of the
+	 * border gets an entrance in its middle, or one at each end if it is long.
+	 *
+	 * @param first  The index of the first border cell inside the cluster.
+	 * @param along  The index step between border cells.
+	 * @param across The index step from a border cell to the cell on the other side.
+	 * @param length The number of cells along the border.
+	 * @return The entrances, as pairs of an inside cell and an outside cell.
+	 */
+	private int[] findEntrances(int first, int along, int across, int length) {
+		int[] entrances = new int[length * 2];
+		int count = 0;
+		int runStart = -1;
+		for (int i = 0; i <= length; i++) {
+			int cell = first + i * along;
+			boolean open = i < length && passable.get(cell) && passable.get(cell + across);
+			if (open && runStart < 0) {
+				runStart = i;
+			} else if (!open && runStart >= 0) {
+				int runEnd = i - 1;
+				if (runEnd - runStart + 1 >= LONG_OPENING) {
+					count = addEntrance(entrances, count, first + runStart * along, across);
+					count = addEntrance(entrances, count, first + runEnd * along, across);
+				} else {
+					count = addEntrance(entrances, count, first + ((runStart + runEnd) / 2) * along, across);
+				}
+				runStart = -1;
+			}
+		}
+		return Arrays.copyOf(entrances, count);
+	}
+
+	/**
+	 * Adds an entrance to a list of entrance pairs.
+	 *
+	 * @param entrances The list of pairs.
+	 * @param count     The number of values in the list.
+	 * @param inside    The cell of the entrance inside the cluster.
+	 * @param across    The index step to the cell on the other side of the border.
+	 * @return The new number of values in the list.
+	 */
+	private static int addEntrance(int[] entrances, int count, int inside, int across) {
+		entrances[count] = inside;
+		entrances[count + 1] = inside + across;
+		return count + 2;
+	}
+
+	/**
+	 * Collects the entrance nodes of a cluster from its four borders and computes the path lengths between them.
+	 *
+	 * @param cluster The cluster to build.
+	 */
+	private void buildCluster(int cluster) {
+		int cx = cluster % clustersX;
+		int cy = cluster / clustersX;
+		int[] nodes = new int[0];
+		nodes = addNodes(nodes, eastEntrances[cluster], 0);
+		nodes = addNodes(nodes, southEntrances[cluster], 0);
+		if (cx > 0) {
+			nodes = addNodes(nodes, eastEntrances[cluster - 1], 1);
+		}
+		if (cy > 0) {
+			nodes = addNodes(nodes, southEntrances[cluster - clustersX], 1);
+		}
+
+		int count = nodes.length;
+		int[] distances = new int[count * count];
+		for (int i = 0; i < count; i++) {
+			searchCluster(cluster, nodes[i], buildDistance, null);
+			for (int j = 0; j < count; j++) {
+				distances[i * count + j] = buildDistance[localIndex(cluster, nodes[j])];
+			}
+		}
+		clusterNodes[cluster] = nodes;
+		clusterDistances[cluster] = distances;
+	}
+
+	/**
+	 * Adds one side of a list of entrance pairs to a cluster's nodes, skipping cells already present.
+	 *
+	 * @param nodes     The nodes found so far.
+	 * @param entrances The entrance pairs, or null if the border has not been built.
+	 * @param side      0 to take the first cell of each pair, 1 to take the second.
+	 * @return The nodes with the new cells added.
+	 */
+	private static int[] addNodes(int[] nodes, int[] entrances, int side) {
+		if (entrances == null) {
+			return nodes;
+		}
+		int[] result = Arrays.copyOf(nodes, nodes.length + entrances.length / 2);
+		int count = nodes.length;
+		for (int i = side; i < entrances.length; i += 2) {
+			if (indexOf(result, count, entrances[i]) < 0) {
+				result[count++] = entrances[i];
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Rebuilds the abstract graph from the clusters: edges between the entrance nodes of each cluster,
+	 * and an edge of cost 1 across the border for each entrance.
+	 */
+	private void buildGraph() {
+		int clusters = clustersX * clustersY;
+		firstNode = new int[clusters];
+		nodeCount = 0;
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			firstNode[cluster] = nodeCount;
+			nodeCount += clusterNodes[cluster].length;
+		}
+		nodeCell = new int[nodeCount];
+		nodeCluster = new int[nodeCount];
+		int[] degree = new int[nodeCount];
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			int[] nodes = clusterNodes[cluster];
+			int[] distances = clusterDistances[cluster];
+			for (int i = 0; i < nodes.length; i++) {
+				int id = firstNode[cluster] + i;
+				nodeCell[id] = nodes[i];
+				nodeCluster[id] = cluster;
+				for (int j = 0; j < nodes.length; j++) {
+					if (i != j && distances[i * nodes.length + j] < INFINITY) {
+						degree[id]++;
+					}
+				}
+			}
+			countCrossings(eastEntrances[cluster], cluster, cluster + 1, degree);
+			countCrossings(southEntrances[cluster], cluster, cluster + clustersX, degree);
+		}
+
+		edgeStart = new int[nodeCount + 1];
+		for (int id = 0; id < nodeCount; id++) {
+			edgeStart[id + 1] = edgeStart[id] + degree[id];
+		}
+		edgeTarget = new int[edgeStart[nodeCount]];
+		edgeCost = new int[edgeStart[nodeCount]];
+		int[] next = Arrays.copyOf(edgeStart, nodeCount);
+		for (int cluster = 0; cluster < clusters; cluster++) {
+			int[] nodes = clusterNodes[cluster];
+			int[] distances = clusterDistances[cluster];
+			for (int i = 0; i < nodes.length; i++) {
+				int id = firstNode[cluster] + i;
+				for (int j = 0; j < nodes.length; j++) {
+					int distance = distances[i * nodes.length + j];
+					if (i != j && distance < INFINITY) {
+						addEdge(next, id, firstNode[cluster] + j, distance);
+					}
+				}
+			}
+			addCrossings(eastEntrances[cluster], cluster, cluster + 1, next);
+			addCrossings(southEntrances[cluster], cluster, cluster + clustersX, next);
+		}
+
+		if (heap == null || heap.length < nodeCount + 1) {
+			int size = nodeCount + 1;
+			queryStamp = new int[size];
+			queryCost = new int[size];
+			queryEstimate = new int[size];
+			queryParent = new int[size];
+			heapIndex = new int[size];
+			heap = new int[size];
+			currentQuery = 0;
+		}
+	}
+
+	/**
+	 * Counts the edges across a border for both nodes of each entrance.
+	 *
+	 * @param entrances The entrance pairs on the border.
+	 * @param inside    The cluster holding the first cell of each pair.
+	 * @param outside   The cluster holding the second cell of each pair.
+	 * @param degree    The number of edges of each node.
+	 */
+	private void countCrossings(int[] entrances, int inside, int outside, int[] degree) {
+		for (int i = 0; i < entrances.length; i += 2) {
+			degree[nodeId(inside, entrances[i])]++;
+			degree[nodeId(outside, entrances[i + 1])]++;
+		}
+	}
+
+	/**
+	 * Adds the edges across a border in both directions for each entrance.
+	 *
+	 * @param entrances The entrance pairs on the border.
+	 * @param inside    The cluster holding the first cell of each pair.
+	 * @param outside   The cluster holding the second cell of each pair.
+	 * @param next      The next free edge position of each node.
+	 */
+	private void addCrossings(int[] entrances, int inside, int outside, int[] next) {
+		for (int i = 0; i < entrances.length; i += 2) {
+			int a = nodeId(inside, entrances[i]);
+			int b = nodeId(outside, entrances[i + 1]);
+			addEdge(next, a, b, 1);
+			addEdge(next, b, a, 1);
+		}
+	}
+
+	/**
+	 * Adds an edge at the next free position of its source node.
+	 *
+	 * @param next   The next free edge position of each node.
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @param cost   The cost of the edge.
+	 */
+	private void addEdge(int[] next, int source, int target, int cost) {
+		int edge = next[source]++;
+		edgeTarget[edge] = target;
+		edgeCost[edge] = cost;
+	}
+
+	/**
+	 * Gets the id of the abstract node for a cell of a cluster.
+	 *
+	 * @param cluster The cluster.
+	 * @param cell    The index of the cell, which must be one of the cluster's nodes.
+	 * @return The id of the node.
+	 */
+	private int nodeId(int cluster, int cell) {
+		return firstNode[cluster] + indexOf(clusterNodes[cluster], clusterNodes[cluster].length, cell);
+	}
+
+	/**
+	 * Finds a value in the start of an array.
+	 *
+	 * @param values The array.
+	 * @param count  The number of values to look at.
+	 * @param value  The value to find.
+	 * @return The position of the value, or -1 if it is not there.
+	 */
+	private static int indexOf(int[] values, int count, int value) {
+		for (int i = 0; i < count; i++) {
+			if (values[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Searches outwards from a cell without leaving its cluster, recording the path length to every cell reached.
+	 * Every cell entered must be passable; the cell searched from is not checked.
+	 *
+	 * @param cluster  The cluster to search.
+	 * @param from     The index of the cell to search from.
+	 * @param distance The path lengths, by position in the cluster; unreached cells get INFINITY.
+	 * @param parent   The cell each cell was reached from, by position in the cluster, or null if not needed.
+	 */
+	private void searchCluster(int cluster, int from, int[] distance, int[] parent) {
+		int x0 = (cluster % clustersX) * CLUSTER_SIZE;
+		int y0 = (cluster / clustersX) * CLUSTER_SIZE;
+		int x1 = Math.min(x0 + CLUSTER_SIZE, width);
+		int y1 = Math.min(y0 + CLUSTER_SIZE, height);
+		Arrays.fill(distance, INFINITY);
+		distance[localIndex(cluster, from)] = 0;
+		clusterQueue[0] = from;
+		int head = 0;
+		int tail = 1;
+		while (head < tail) {
+			int current = clusterQueue[head++];
+			expansions++;
+			int x = current % width;
+			int y = current / width;
+			int nextDistance = distance[localIndex(cluster, current)] + 1;
+			for (Direction move : MOVES) {
+				int newX = x + move.getXOffset(move);
+				int newY = y + move.getYOffset(move);
+				if (newX < x0 || newX >= x1 || newY < y0 || newY >= y1) {
+					continue;
+				}
+				int next = newY * width + newX;
+				int local = (newY - y0) * CLUSTER_SIZE + (newX - x0);
+				if (distance[local] == INFINITY && passable.get(next)) {
+					distance[local] = nextDistance;
+					if (parent != null) {
+						parent[local] = current;
+					}
+					clusterQueue[tail++] = next;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts a new query, invalidating the state of every abstract node without clearing the arrays.
+	 */
+	private void startQuery() {
+		heapSize = 0;
+		if (currentQuery == Integer.MAX_VALUE) {
+			Arrays.fill(queryStamp, 0);
+			currentQuery = 0;
+		}
+		currentQuery++;
+	}
+
+	/**
+	 * Records a path to an abstract node if it is cheaper than the best one known, and queues the node.
+	 *
+	 * @param node      The id of the node.
+	 * @param cost      The cost of the path to the node.
+	 * @param parent    The node the path comes from, or FROM_START.
+	 * @param heuristic The estimated remaining cost from the node to the goal.
+	 */
+	private void relax(int node, int cost, int parent, int heuristic) {
+		if (queryStamp[node] != currentQuery) {
+			queryStamp[node] = currentQuery;
+			queryCost[node] = INFINITY;
+			heapIndex[node] = NOT_QUEUED;
+		}
+		if (heapIndex[node] == CLOSED || cost >= queryCost[node]) {
+			return;
+		}
+		queryCost[node] = cost;
+		queryEstimate[node] = cost + heuristic;
+		queryParent[node] = parent;
+		if (heapIndex[node] == NOT_QUEUED) {
+			heap[heapSize] = node;
+			heapIndex[node] = heapSize;
+			siftUp(heapSize++);
+		} else {
+			siftUp(heapIndex[node]);
+		}
+	}
+
+	/**
+	 * Removes the node with the lowest estimate from the heap and marks it as expanded.
+	 *
+	 * @return The id of the node.
+	 */
+	private int poll() {
+		int top = heap[0];
+		heapIndex[top] = CLOSED;
+		heapSize--;
+		if (heapSize > 0) {
+			heap[0] = heap[heapSize];
+			heapIndex[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	/**
+	 * Moves a heap entry up until its parent does not have a higher estimate.
+	 *
+	 * @param position The position of the entry in the heap.
+	 */
+	private void siftUp(int position) {
+		int node = heap[position];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int above = heap[parentPosition];
+			if (queryEstimate[node] >= queryEstimate[above]) {
+				break;
+			}
+			heap[position] = above;
+			heapIndex[above] = position;
+			position = parentPosition;
+		}
+		heap[position] = node;
+		heapIndex[node] = position;
+	}
+
+	/**
+	 * Moves a heap entry down until neither of its children has a lower estimate.
+	 *
+	 * @param position The position of the entry in the heap.
+	 */
+	private void siftDown(int position) {
+		int node = heap[position];
+		int half = heapSize >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < heapSize && queryEstimate[heap[right]] < queryEstimate[heap[child]]) {
+				child = right;
+			}
+			if (queryEstimate[heap[child]] >= queryEstimate[node]) {
+				break;
+			}
+			heap[position] = heap[child];
+			heapIndex[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = node;
+		heapIndex[node] = position;
+	}
+
+	/**
+	 * Gets the cluster containing a cell.
+	 *
+	 * @param cell The index of the cell.
+	 * @return The index of the cluster.
+	 */
+	private int clusterOf(int cell) {
+		return (cell / width / CLUSTER_SIZE) * clustersX + (cell % width) / CLUSTER_SIZE;
+	}
+
+	/**
+	 * Gets the position of a cell within its cluster.
+	 *
+	 * @param cluster The cluster containing the cell.
+	 * @param cell    The index of the cell.
+	 * @return The position of the cell in the cluster's arrays.
+	 */
+	private int localIndex(int cluster, int cell) {
+		int x0 = (cluster % clustersX) * CLUSTER_SIZE;
+		int y0 = (cluster / clustersX) * CLUSTER_SIZE;
+		return (cell / width - y0) * CLUSTER_SIZE + (cell % width - x0);
+	}
+
+	/**
+	 * Checks if a cell lies on the grid.
+	 *
+	 * @param x The x-coordinate of the cell.
+	 * @param y The y-coordinate of the cell.
+	 * @return true if the cell is on the grid, false otherwise.
+	 */
+	private boolean inBounds(int x, int y) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Calculates the Manhattan distance between two cells, which never overestimates the path cost.
+	 *
+	 * @param a The index of the first cell.
+	 * @param b The index of the second cell.
+	 * @return The distance between the cells.
+	 */
+	private int heuristic(int a, int b) {
+		return Math.abs(a % width - b % width) + Math.abs(a / width - b / width);
+	}
+}
@@ -0,0 +1,494 @@
+package actor;
+
+import actor.Actor.Direction;
+import level.Layer;
+import tile.Tile;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The `IncrementalPathfinder` class plans a monster's path with the D* Lite algorithm and keeps its search
+ * state between ticks. The search runs backwards from the target, so when the monster moves or tiles change
+ * passability, only the part of the search affected by the change is repaired instead of searching again.
+ * Changed tiles are found by comparing the tile layer with the passability recorded at the last step,
+ * which is only done when the layer's version moves.
+ *
+ * <p>This strategy only helps when the target rarely moves. D* Lite assumes a fixed target, and when the
+ * target moves to another cell the search starts over, which costs about the same as one A* search; a
+ * target that moves every step gains nothing over A*. Shifting the root of the search to the new target
+ * instead was tried and repaired more cells than a new search expands. The state belongs to one monster,
+ * so every monster needs its own instance, and it is not thread-safe.</p>
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.2
+ */
+public final class IncrementalPathfinder implements PathStrategy {
+
+	// Directions searched from each cell; on equal costs the first one wins.
+	private static final Direction[] MOVES = {Direction.UP, Direction.DOWN, Direction.RIGHT, Direction.LEFT};
+	// Cost of unreachable cells, small enough that adding to it cannot overflow.
+	private static final int INFINITY = Integer.MAX_VALUE / 4;
+	// Heap position of a cell that is not queued.
+	private static final int NOT_QUEUED = -1;
+
+	// Width of the grid in cells.
+	private final int width;
+	// Height of the grid in cells.
+	private final int height;
+	// Search in which each cell was last initialised; cells from older searches have infinite costs.
+	private final int[] stamp;
+	// Cost of the path from each cell to the target found so far.
+	private final int[] cost;
+	// Cost of each cell computed from its neighbours; differs from cost while the cell is queued.
+	private final int[] lookahead;
+	// First part of the priority of each queued cell.
+	private final int[] primaryKey;
+	// Second part of the priority of each queued cell, used on ties.
+	private final int[] secondaryKey;
+	// Position of each queued cell in the heap, or NOT_QUEUED.
+	private final int[] heapIndex;
+	// Binary min-heap of queued cells, ordered by their two-part priority.
+	private final int[] heap;
+	// Cells the mover could pass when passability was last recorded.
+	private final BitSet passable;
+	// Number of cells in the heap.
+	private int heapSize;
+	// Number of the current search.
+	private int currentStamp;
+	// Index of the target cell, or -1 before the first search.
+	private int goal = -1;
+	// Index of the cell the monster stood in at the last step.
+	private int start;
+	// Sum of the heuristic distances the monster has moved since the search started, added to new priorities.
+	private int keyModifier;
+	// Tile layer the passability was recorded from.
+	private Layer<Tile> recordedFrom;
+	// Version of the tile layer when passability was recorded.
+	private int recordedVersion;
+	// Class of the monster whose passable tiles were recorded.
+	private Class<?> recordedFor;
+	// Number of cells expanded by all searches so far.
+	private long expansions;
+
+	/**
+	 * Constructs a planner for a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 */
+	public IncrementalPathfinder(int width, int height) {
+		int cells = width * height;
+		this.width = width;
+		this.height = height;
+		this.stamp = new int[cells];
+		this.cost = new int[cells];
+		this.lookahead = new int[cells];
+		this.primaryKey = new int[cells];
+		this.secondaryKey = new int[cells];
+		this.heapIndex = new int[cells];
+		this.heap = new int[cells];
+		this.passable = new BitSet(cells);
+	}
+
+	/**
+	 * Gets the number of cells expanded by all searches so far.
+	 *
+	 * @return The number of expansions.
+	 */
+	@Override
+	public long getExpansions() {
+		return expansions;
+	}
+
+	/**
+	 * Checks if this planner can search a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 * @return true if the grid has the size this planner was built for, false otherwise.
+	 */
+	@Override
+	public boolean fits(int width, int height) {
+		return this.width == width && this.height == height;
+	}
+
+	/**
+	 * Finds the first step of a shortest path for an actor, repairing the search kept from the previous step.
+	 *
+	 * @param mover The actor that will follow the path.
+	 * @param tiles The tile layer to search.
+	 * @param fromX The x-coordinate of the start cell.
+	 * @param fromY The y-coordinate of the start cell.
+	 * @param toX   The x-coordinate of the goal cell.
+	 * @param toY   The y-coordinate of the goal cell.
+	 * @return The direction of the first step, or null if the actor is already at the goal or no path exists.
+	 */
+	@Override
+	public Direction nextStep(Actor mover, Layer<Tile> tiles, int fromX, int fromY, int toX, int toY) {
+		if (!inBounds(fromX, fromY) || !inBounds(toX, toY) || (fromX == toX && fromY == toY)) {
+			return null;
+		}
+		int from = fromY * width + fromX;
+		int to = toY * width + toX;
+
+		boolean recorded = tiles == recordedFrom && mover.getClass() == recordedFor;
+		if (!recorded || to != goal) {
+			if (!recorded || tiles.getVersion() != recordedVersion) {
+				recordPassability(mover, tiles);
+			}
+			restart(from, to);
+		} else {
+			if (from != start) {
+				keyModifier += heuristic(start, from);
+				start = from;
+			}
+			if (tiles.getVersion() != recordedVersion) {
+				repair(mover, tiles);
+			}
+		}
+		computeShortestPath();
+		return bestMove(from);
+	}
+
+	/**
+	 * Records which cells the mover can pass.
+	 *
+	 * @param mover The actor whose passable tiles are used.
+	 * @param tiles The tile layer to read.
+	 */
+	private void recordPassability(Actor mover, Layer<Tile> tiles) {
+		recordedFrom = tiles;
+		recordedFor = mover.getClass();
+		recordedVersion = tiles.getVersion();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				passable.set(y * width + x, mover.passTile(tiles.getTile(x, y)));
+			}
+		}
+	}
+
+	/**
+	 * Finds the cells whose passability has changed and updates the cells next to them, whose costs depend on them.
+	 *
+	 * @param mover The actor whose passable tiles are used.
+	 * @param tiles The tile layer to read.
+	 */
+	private void repair(Actor mover, Layer<Tile> tiles) {
+		recordedVersion = tiles.getVersion();
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int cell = y * width + x;
+				boolean now = mover.passTile(tiles.getTile(x, y));
+				if (now != passable.get(cell)) {
+					passable.set(cell, now);
+					updateNeighbours(cell);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts a new search towards a target, invalidating all costs without clearing the arrays.
+	 *
+	 * @param from The index of the cell the monster stands in.
+	 * @param to   The index of the target cell.
+	 */
+	private void restart(int from, int to) {
+		if (currentStamp == Integer.MAX_VALUE) {
+			Arrays.fill(stamp, 0);
+			currentStamp = 0;
+		}
+		currentStamp++;
+		heapSize = 0;
+		keyModifier = 0;
+		start = from;
+		goal = to;
+		touch(goal);
+		lookahead[goal] = 0;
+		push(goal);
+	}
+
+	/**
+	 * Expands queued cells until the cost of the monster's cell is settled.
+	 */
+	private void computeShortestPath() {
+		touch(start);
+		while (heapSize > 0) {
+			int top = heap[0];
+			int startPrimary = primary(start);
+			int startSecondary = secondary(start);
+			boolean startSettled = lookahead[start] == cost[start];
+			if (startSettled && !before(primaryKey[top], secondaryKey[top], startPrimary, startSecondary)) {
+				break;
+			}
+			expansions++;
+			int newPrimary = primary(top);
+			int newSecondary = secondary(top);
+			if (before(primaryKey[top], secondaryKey[top], newPrimary, newSecondary)) {
+				// The priority was computed before the monster moved; queue the cell again at its current priority.
+				primaryKey[top] = newPrimary;
+				secondaryKey[top] = newSecondary;
+				siftDown(0);
+			} else if (cost[top] > lookahead[top]) {
+				cost[top] = lookahead[top];
+				remove(top);
+				updateNeighbours(top);
+			} else {
+				cost[top] = INFINITY;
+				updateCell(top);
+				updateNeighbours(top);
+			}
+		}
+	}
+
+	/**
+	 * Updates the cells next to a cell whose cost has changed.
+	 *
+	 * @param cell The index of the changed cell.
+	 */
+	private void updateNeighbours(int cell) {
+		int x = cell % width;
+		int y = cell / width;
+		for (Direction move : MOVES) {
+			int nearX = x + move.getXOffset(move);
+			int nearY = y + move.getYOffset(move);
+			if (inBounds(nearX, nearY)) {
+				updateCell(nearY * width + nearX);
+			}
+		}
+	}
+
+	/**
+	 * Recomputes a cell's cost from its neighbours and queues it if it is out of date.
+	 *
+	 * @param cell The index of the cell.
+	 */
+	private void updateCell(int cell) {
+		touch(cell);
+		if (cell != goal) {
+			lookahead[cell] = bestNeighbourCost(cell);
+		}
+		boolean queued = heapIndex[cell] != NOT_QUEUED;
+		if (cost[cell] != lookahead[cell]) {
+			if (queued) {
+				int position = heapIndex[cell];
+				primaryKey[cell] = primary(cell);
+				secondaryKey[cell] = secondary(cell);
+				siftUp(position);
+				siftDown(heapIndex[cell]);
+			} else {
+				push(cell);
+			}
+		} else if (queued) {
+			remove(cell);
+		}
+	}
+
+	/**
+	 * Gets the lowest cost of reaching the target through one of a cell's passable neighbours.
+	 *
+	 * @param cell The index of the cell.
+	 * @return The lowest cost, or INFINITY if no neighbour leads to the target.
+	 */
+	private int bestNeighbourCost(int cell) {
+		int x = cell % width;
+		int y = cell / width;
+		int best = INFINITY;
+		for (Direction move : MOVES) {
+			int nearX = x + move.getXOffset(move);
+			int nearY = y + move.getYOffset(move);
+			if (inBounds(nearX, nearY)) {
+				int near = nearY * width + nearX;
+				if (passable.get(near)) {
+					best = Math.min(best, costOf(near) + 1);
+				}
+			}
+		}
+		return Math.min(best, INFINITY);
+	}
+
+	/**
+	 * Chooses the neighbour of the monster's cell that lies on a shortest path.
+	 *
+	 * @param from The index of the monster's cell.
+	 * @return The direction of the neighbour, or null if no neighbour leads to the target.
+	 */
+	private Direction bestMove(int from) {
+		int x = from % width;
+		int y = from / width;
+		Direction best = null;
+		int bestCost = INFINITY;
+		for (Direction move : MOVES) {
+			int nearX = x + move.getXOffset(move);
+			int nearY = y + move.getYOffset(move);
+			if (inBounds(nearX, nearY)) {
+				int near = nearY * width + nearX;
+				if (passable.get(near) && costOf(near) < bestCost) {
+					best = move;
+					bestCost = costOf(near);
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Initialises a cell the first time the current search touches it.
+	 *
+	 * @param cell The index of the cell.
+	 */
+	private void touch(int cell) {
+		if (stamp[cell] != currentStamp) {
+			stamp[cell] = currentStamp;
+			cost[cell] = INFINITY;
+			lookahead[cell] = INFINITY;
+			heapIndex[cell] = NOT_QUEUED;
+		}
+	}
+
+	/**
+	 * Gets the cost of a cell, which is infinite if the current search has not touched it.
+	 *
+	 * @param cell The index of the cell.
+	 * @return The cost of the cell.
+	 */
+	private int costOf(int cell) {
+		return stamp[cell] == currentStamp ? cost[cell] : INFINITY;
+	}
+
+	/**
+	 * Computes the first part of a cell's priority: its estimated path cost through the monster's cell.
+	 *
+	 * @param cell The index of the cell.
+	 * @return The first part of the priority.
+	 */
+	private int primary(int cell) {
+		return secondary(cell) + heuristic(start, cell) + keyModifier;
+	}
+
+	/**
+	 * Computes the second part of a cell's priority: its best known cost to the target.
+	 *
+	 * @param cell The index of the cell.
+	 * @return The second part of the priority.
+	 */
+	private int secondary(int cell) {
+		return Math.min(cost[cell], lookahead[cell]);
+	}
+
+	/**
+	 * Compares two priorities.
+	 *
+	 * @param primaryA   The first part of the first priority.
+	 * @param secondaryA The second part of the first priority.
+	 * @param primaryB   The first part of the second priority.
+	 * @param secondaryB The second part of the second priority.
+	 * @return true if the first priority comes strictly before the second.
+	 */
+	private static boolean before(int primaryA, int secondaryA, int primaryB, int secondaryB) {
+		return primaryA < primaryB || (primaryA == primaryB && secondaryA < secondaryB);
+	}
+
+	/**
+	 * Adds a cell to the heap at its current priority.
+	 *
+	 * @param cell The index of the cell.
+	 */
+	private void push(int cell) {
+		primaryKey[cell] = primary(cell);
+		secondaryKey[cell] = secondary(cell);
+		heap[heapSize] = cell;
+		heapIndex[cell] = heapSize;
+		siftUp(heapSize++);
+	}
+
+	/**
+	 * Removes a cell from the heap.
+	 *
+	 * @param cell The index of the cell.
+	 */
+	private void remove(int cell) {
+		int position = heapIndex[cell];
+		heapIndex[cell] = NOT_QUEUED;
+		heapSize--;
+		if (position < heapSize) {
+			int moved = heap[heapSize];
+			heap[position] = moved;
+			heapIndex[moved] = position;
+			siftUp(position);
+			if (heapIndex[moved] == position) {
+				siftDown(position);
+			}
+		}
+	}
+
+	/**
+	 * Moves a heap entry up until its parent does not come after it.
+	 *
+	 * @param position The position of the entry in the heap.
+	 */
+	private void siftUp(int position) {
+		int cell = heap[position];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int above = heap[parentPosition];
+			if (!before(primaryKey[cell], secondaryKey[cell], primaryKey[above], secondaryKey[above])) {
+				break;
+			}
+			heap[position] = above;
+			heapIndex[above] = position;
+			position = parentPosition;
+		}
+		heap[position] = cell;
+		heapIndex[cell] = position;
+	}
+
+	/**
+	 * Moves a heap entry down until neither of its children comes before it.
+	 *
+	 * @param position The position of the entry in the heap.
+	 */
+	private void siftDown(int position) {
+		int cell = heap[position];
+		int half = heapSize >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < heapSize && before(primaryKey[heap[right]], secondaryKey[heap[right]],
+					primaryKey[heap[child]], secondaryKey[heap[child]])) {
+				child = right;
+			}
+			if (!before(primaryKey[heap[child]], secondaryKey[heap[child]], primaryKey[cell], secondaryKey[cell])) {
+				break;
+			}
+			heap[position] = heap[child];
+			heapIndex[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = cell;
+		heapIndex[cell] = position;
+	}
+
+	/**
+	 * Checks if a cell lies on the grid.
+	 *
+	 * @param x The x-coordinate of the cell.
+	 * @param y The y-coordinate of the cell.
+	 * @return true if the cell is on the grid, false otherwise.
+	 */
+	private boolean inBounds(int x, int y) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	/**
+	 * Calculates the Manhattan distance between two cells, which never overestimates the path cost.
+	 *
+	 * @param a The index of the first cell.
+	 * @param b The index of the second cell.
+	 * @return The distance between the cells.
+	 */
+	private int heuristic(int a, int b) {
+		return Math.abs(a % width - b % width) + Math.abs(a / width - b / width);
+	}
+}
@@ -3,15 +3,16 @@ package actor;
 /**
  * Represents the generic attributes and behaviors of monsters in the game.
  * This abstract class extends the {@code Actor} class, providing common functionalities for all monster types.
+ * A registered monster's direction is stored in its {@link ActorRegistry} along with its position.
  *
  * @author Carl Antill, Tomas Williams
- * @version 1.5
+ * @version 1.6
  */
 abstract public class Monster extends Actor {
 
 	// Array of keys representing tiles that the Monster can pass through.
 	protected final String[] passableTiles = {"PA", "Bx", "Tx"};
-	// Current direction of the Monster
+	// Current direction of the Monster, while it is not registered.
 	protected Direction direction;
 	// Reference to the player, used to check interactions between the Monster and the player.
 	protected Player player;
@@ -33,18 +34,18 @@ abstract public class Monster extends Actor {
 	 * For example, if the current direction is UP, it will be changed to DOWN.
 	 */
 	public void flipDirection(Direction direction) {
-		switch(this.direction) {
+		switch(getDirection()) {
 			case UP:
-				this.direction = Direction.DOWN;
+				setDirection(Direction.DOWN);
 				break;
 			case DOWN:
-				this.direction = Direction.UP;
+				setDirection(Direction.UP);
 				break;
 			case RIGHT:
-				this.direction = Direction.LEFT;
+				setDirection(Direction.LEFT);
 				break;
 			case LEFT:
-				this.direction = Direction.RIGHT;
+				setDirection(Direction.RIGHT);
 				break;
 		}
 	}
@@ -54,18 +55,18 @@ abstract public class Monster extends Actor {
 	 * This method adjusts the direction based on a left turn.
 	 */
 	public void turnLeft() {
-		switch(this.direction) {
+		switch(getDirection()) {
 			case UP:
-				this.direction = Direction.LEFT;
+				setDirection(Direction.LEFT);
 				break;
 			case DOWN:
-				this.direction = Direction.RIGHT;
+				setDirection(Direction.RIGHT);
 				break;
 			case RIGHT:
-				this.direction = Direction.UP;
+				setDirection(Direction.UP);
 				break;
 			case LEFT:
-				this.direction = Direction.DOWN;
+				setDirection(Direction.DOWN);
 				break;
 		}
 	}
@@ -75,7 +76,7 @@ abstract public class Monster extends Actor {
 	 */
 	public void turnRight() {
 		this.turnLeft();
-		this.flipDirection(this.direction);
+		this.flipDirection(getDirection());
 	}
 
 	/**
@@ -97,7 +98,7 @@ abstract public class Monster extends Actor {
 	 */
 	@Override
 	public Direction getDirection() {
-		return direction;
+		return getRegistry() != null ? getRegistry().getHeading(getRegistryId()) : direction;
 	}
 
 	/**
@@ -108,7 +109,11 @@ abstract public class Monster extends Actor {
 	 */
 	@Override
 	public void setDirection(Direction direction) {
-		this.direction = direction;
+		if (getRegistry() != null) {
+			getRegistry().setHeading(getRegistryId(), direction);
+		} else {
+			this.direction = direction;
+		}
 	}
 
 	/**
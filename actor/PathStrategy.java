@@ -0,0 +1,46 @@
+package actor;
+
+import actor.Actor.Direction;
+import level.Layer;
+import tile.Tile;
+
+/**
+ * The `PathStrategy` interface is implemented by the ways monsters can find their way to a target across the tile layer.
+ * Only the next step is asked for, since monsters move one cell per monster tick and the target may move in between.
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.1
+ */
+public interface PathStrategy {
+
+	/**
+	 * Checks if this strategy can search a grid of the given size.
+	 *
+	 * @param width  The width of the grid in cells.
+	 * @param height The height of the grid in cells.
+	 * @return true if the grid has the size this strategy was built for, false otherwise.
+	 */
+	boolean fits(int width, int height);
+
+	/**
+	 * Finds the first step of a shortest path for an actor.
+	 * A cell can be entered if the actor can pass its tile; the start cell is never checked.
+	 *
+	 * @param mover The actor that will follow the path.
+	 * @param tiles The tile layer to search.
+	 * @param fromX The x-coordinate of the start cell.
+	 * @param fromY The y-coordinate of the start cell.
+	 * @param toX   The x-coordinate of the goal cell.
+	 * @param toY   The y-coordinate of the goal cell.
+	 * @return The direction of the first step, or null if the actor is already at the goal or no path exists.
+	 */
+	Direction nextStep(Actor mover, Layer<Tile> tiles, int fromX, int fromY, int toX, int toY);
+
+	/**
+	 * Gets the number of cells or nodes expanded by all searches of this strategy so far.
+	 * The count only grows, so the work of one search is the difference between two calls.
+	 *
+	 * @return The number of expansions.
+	 */
+	long getExpansions();
+}
@@ -1,6 +1,7 @@
 package actor;
 
-import tile.GameButton;
+import level.Layer;
+import tile.PassabilityMask;
 import tile.Tile;
 
 /**
@@ -8,9 +9,11 @@ import tile.Tile;
  * The Pink Ball moves in a specific direction until it hits an impassable tile, at which point it flips direction.
  *
  * @author Carl Antill, Tomas Williams
- * @version 1.5
+ * @version 1.8
  */
 public class PinkBall extends Monster {
+	// Tile types that the Pink Ball can pass through.
+	private static final PassabilityMask PASSABLE_BALL = PassabilityMask.of("Bx", "Tx", "PA");
 
 	/**
 	 * Constructs a Pink Ball at a given position, facing a set direction.
@@ -19,8 +22,6 @@ public class PinkBall extends Monster {
 	 * @param y         The y-coordinate position of the Pink Ball.
 	 * @param direction The initial direction the Pink Ball is facing.
 	 */
-	private final String[] passableTiles =
-			{"Bx", "Tx", "PA"};
 	public PinkBall (int x, int y, Actor.Direction direction) {
 		this.direction = direction;
 		this.xPos = x;
@@ -38,32 +39,54 @@ public class PinkBall extends Monster {
 		this.key = String.format("P%s",direction.getDirection());
 	}
 
+	/**
+	 * Checks if the Pink Ball can roll onto a tile.
+	 *
+	 * @param tile The tile to check.
+	 * @return true if the Pink Ball can pass through the tile, false otherwise.
+	 */
+	@Override
+	public boolean passTile(Tile tile) {
+		return isTilePassable(tile);
+	}
+
 	/**
 	 * Sets the next move for the Pink Ball.
 	 * The Pink Ball continues to move in its current direction and flips direction if it encounters an impassable tile.
 	 */
 	public void setNextMove() {
-		int newX = this.xPos + direction.getXOffset(direction);
-		int newY = this.yPos + direction.getYOffset(direction);
-		Tile nextTile = tileLayer.getTile(newX, newY);
-		if (this.checkTile(this.direction) == null || !isTilePassable(nextTile)) {
-			flipDirection(this.direction);
-		}
+		setDirection(bounce(tileLayer, getXPos(), getYPos(), getDirection()));
 
-		this.move(this.direction);
+		this.move(getDirection());
+	}
 
-		if (this.checkTile(Direction.CURRENTPOS).getKey().charAt(0) == 'B') {
-			this.onButton(((GameButton) this.checkTile(Direction.CURRENTPOS)));
+	/**
+	 * Finds the direction a Pink Ball moves in next: its current direction, or the opposite one
+	 * if the square ahead is off the grid or cannot be passed.
+	 *
+	 * @param tiles   The tile layer the Pink Ball moves on.
+	 * @param x       The x-coordinate of the Pink Ball.
+	 * @param y       The y-coordinate of the Pink Ball.
+	 * @param heading The direction the Pink Ball faces.
+	 * @return The direction of the next move.
+	 */
+	static Direction bounce(Layer<Tile> tiles, int x, int y, Direction heading) {
+		int newX = x + heading.getXOffset(heading);
+		int newY = y + heading.getYOffset(heading);
+		boolean inBounds = newX >= 0 && newX < tiles.getWidth() && newY >= 0 && newY < tiles.getHeight();
+		if (inBounds && isTilePassable(tiles.getTile(newX, newY))) {
+			return heading;
 		}
+		return switch (heading) {
+			case UP -> Direction.DOWN;
+			case DOWN -> Direction.UP;
+			case RIGHT -> Direction.LEFT;
+			case LEFT -> Direction.RIGHT;
+			default -> heading;
+		};
 	}
 
-		private boolean isTilePassable (Tile tile){
-			String tileKey = tile.getKey();
-			for (String passableTile : passableTiles) {
-				if (tileKey.equals(passableTile)) {
-					return true;
-				}
-			}
-			return false;
+		private static boolean isTilePassable (Tile tile){
+			return PASSABLE_BALL.allows(tile);
 		}
 	}
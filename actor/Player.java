@@ -2,6 +2,7 @@ package actor;
 
 import game.PlayerInventory;
 
+import item.ColourKey;
 import item.Item;
 import javafx.scene.image.Image;
 import tile.*;
@@ -14,7 +15,7 @@ import tile.*;
  * such as movement, item interaction, and checking game state conditions.
  *
  * @author Carl Antill, Tomas Williams
- * @version 2.4
+ * @version 2.6
  */
 public class Player extends Actor {
 
@@ -26,6 +27,8 @@ public class Player extends Actor {
 	private Boolean isAlive = true;
 	// Flag indicating whether the player is on an exit tile.
 	private Boolean onExit = false;
+	// Inventory passed with the last move, used when the player enters doors and chip sockets.
+	private PlayerInventory inventory;
 
 
 
@@ -89,21 +92,22 @@ public class Player extends Actor {
 
 	/**
 	 * Handles actions after the player moves in a specified direction.
-	 * This includes checking for collisions with blocks or monsters, interactions with items,
-	 * and determining if the player has reached an exit tile or encountered a trap.
+	 * This includes checking for collisions with blocks or monsters. Reaching an exit, falling into water
+	 * or a trap, and using keys and chips are handled by the tile hooks, called through {@link TileEvents}.
 	 *
 	 * @param direction The direction in which to move the player.
 	 * @param inventory The inventory of the player, used for item interactions.
 	 */
 	public void moveDirection(Direction direction, PlayerInventory inventory) {
+		this.inventory = inventory;
 		boolean passCheck = false;
 		boolean blockCheck = false;
-		int newX = this.xPos + direction.getXOffset(direction);
-		int newY = this.yPos + direction.getYOffset(direction);
-		Tile newTile = tileLayer.getTile(newX, newY);
-
+		int newX = getXPos() + direction.getXOffset(direction);
+		int newY = getYPos() + direction.getYOffset(direction);
+		if (newX < 0 || newX >= tileLayer.getWidth() || newY < 0 || newY >= tileLayer.getHeight()) {
+			return;
+		}
 		Actor tempNewActor = actorLayer.getActor(newX, newY);
-		Tile curTile = tileLayer.getTile(this.xPos, this.yPos);
 
 		// Check if the move is passable and within bounds
 		if (newX >= 0 && newX < tileLayer.getWidth() && newY >= 0 && newY < tileLayer.getHeight()) {
@@ -142,38 +146,72 @@ public class Player extends Actor {
 		if (passCheck && this.getIsAlive() && !this.getOnIce()) {
 
 			this.move(direction);
+		}
+	}
 
-			// Is on exit
-			if (this.checkTile(Direction.CURRENTPOS).getKey().equals("EX")) {
-				this.setOnExit(true);
-			} else {
-
-				newTile = this.checkTile(Direction.CURRENTPOS);
-				if (newTile.getKey().equals("WT")) {
-					this.setIsAlive(false);
-				}
-				if (newTile instanceof Trap) {
-					if (((Trap) newTile).isActive()) {
-						this.setIsAlive(false);
-					}
-				}
-			}
+	/**
+	 * Marks the player as on the exit when it enters an exit tile.
+	 *
+	 * @param exit The exit the player entered.
+	 */
+	@Override
+	public void onExitTile(Exit exit) {
+		this.setOnExit(true);
+	}
 
+	/**
+	 * Kills the player when it enters water.
+	 *
+	 * @param tile The water tile the player entered.
+	 */
+	@Override
+	public void onWater(Tile tile) {
+		this.setIsAlive(false);
+	}
 
-			// Check if the player is on a button
-			if (curTile.getKey().charAt(0) == 'B') {
-				this.onButton((GameButton) this.checkTile(Direction.CURRENTPOS));
-			}
+	/**
+	 * Kills the player when it enters an active trap.
+	 *
+	 * @param trap The trap the player entered.
+	 */
+	@Override
+	public void onTrap(Trap trap) {
+		if (trap.isActive()) {
+			this.setIsAlive(false);
+		}
+	}
 
-			String key = curTile.getKey();
-			switch (key) {
-				case "RL" -> this.useItem("RP", inventory);
-				case "BL" -> this.useItem("BP", inventory);
-				case "YL" -> this.useItem("YP", inventory);
-				case "GL" -> this.useItem("GP", inventory);
-				case "CX" -> this.onChipSocket(inventory.getChipCount());
+	/**
+	 * Opens a locked door with a key of its colour from the inventory, using up the key.
+	 *
+	 * @param door The door the player entered.
+	 */
+	@Override
+	public void onDoor(Door door) {
+		if (inventory == null) {
+			return;
+		}
+		Item key = null;
+		for (Item item : inventory.getInventory()) {
+			if (item instanceof ColourKey && door.getColour().equals(((ColourKey) item).getColour())) {
+				key = item;
 			}
 		}
+		if (key != null && door.tryOpen(door.getColour())) {
+			inventory.getInventory().remove(key);
+		}
+	}
+
+	/**
+	 * Opens a chip socket if the player holds enough chips.
+	 *
+	 * @param socket The chip socket the player entered.
+	 */
+	@Override
+	public void onChipSocket(ChipSocket socket) {
+		if (inventory != null && socket.isEnough(inventory.getChipCount())) {
+			socket.openSocket();
+		}
 	}
 
 	/**
@@ -205,7 +243,7 @@ public class Player extends Actor {
 	 * @param chipCount The current number of chips the player has.
 	 */
 	public void onChipSocket(int chipCount) {
-		Tile curTile = tileLayer.getTile(this.xPos, this.yPos);
+		Tile curTile = tileLayer.getTile(getXPos(), getYPos());
 		if (curTile instanceof ChipSocket){
 			if (((ChipSocket) curTile).isEnough(chipCount)){
 				((ChipSocket) curTile).openSocket();
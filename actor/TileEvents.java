@@ -0,0 +1,163 @@
+package actor;
+
+import tile.ChipSocket;
+import tile.Door;
+import tile.Exit;
+import tile.GameButton;
+import tile.Tile;
+import tile.Trap;
+import tile.Water;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The `TileEvents` class tells tiles and actors when an actor enters or leaves a square.
+ * Every tile type has one {@link Handler}, found from the tile's class the first time the type is seen and
+ * kept in a table indexed by the tile's type id, so an event costs an array lookup and a method call and
+ * allocates nothing. A handler calls the matching hook of the actor, such as {@link Actor#onWater(Tile)},
+ * so each kind of actor decides how it reacts to each kind of tile.
+ *
+ * <p>A new tile type only needs to be added with {@link #register(Class, Handler)}; the actors moving onto
+ * it need no changes unless they react to it in their own way.</p>
+ *
+ * @author Carl Antill, Tomas Williams
+ * @version 1.0
+ */
+public final class TileEvents {
+
+	/**
+	 * Reacts to an actor entering or leaving a tile of one type.
+	 */
+	public interface Handler {
+
+		/**
+		 * Called after an actor moved onto a tile.
+		 *
+		 * @param actor The actor that moved.
+		 * @param tile  The tile it moved onto.
+		 */
+		void onEnter(Actor actor, Tile tile);
+
+		/**
+		 * Called after an actor moved off a tile. Does nothing unless a handler overrides it.
+		 *
+		 * @param actor The actor that moved.
+		 * @param tile  The tile it moved off.
+		 */
+		default void onExit(Actor actor, Tile tile) {
+		}
+	}
+
+	// Handler of tile types nothing reacts to.
+	private static final Handler NONE = (actor, tile) -> { };
+
+	// Tile classes with a handler, in the order they were registered.
+	private static final List<Class<? extends Tile>> TYPES = new ArrayList<>();
+	// Handler of each class in TYPES.
+	private static final List<Handler> HANDLERS = new ArrayList<>();
+	// Handler of each tile type id seen so far, or null if the type has not been looked up yet.
+	private static volatile Handler[] table = new Handler[32];
+
+	static {
+		register(Exit.class, (actor, tile) -> actor.onExitTile((Exit) tile));
+		register(Water.class, (actor, tile) -> actor.onWater(tile));
+		register(Trap.class, (actor, tile) -> actor.onTrap((Trap) tile));
+		register(GameButton.class, (actor, tile) -> actor.onButton((GameButton) tile));
+		register(Door.class, (actor, tile) -> actor.onDoor((Door) tile));
+		register(ChipSocket.class, (actor, tile) -> actor.onChipSocket((ChipSocket) tile));
+	}
+
+	/**
+	 * Prevents instances; all events are dispatched through static methods.
+	 */
+	private TileEvents() {
+	}
+
+	/**
+	 * Sets the handler of a tile class and its subclasses, replacing any handler registered for it before.
+	 *
+	 * @param type    The tile class.
+	 * @param handler The handler of its tiles.
+	 */
+	public static synchronized void register(Class<? extends Tile> type, Handler handler) {
+		int index = TYPES.indexOf(type);
+		if (index >= 0) {
+			HANDLERS.set(index, handler);
+		} else {
+			TYPES.add(type);
+			HANDLERS.add(handler);
+		}
+		table = new Handler[table.length];
+	}
+
+	/**
+	 * Tells the handler of a tile that an actor moved onto it.
+	 *
+	 * @param actor The actor that moved.
+	 * @param tile  The tile it moved onto, or null.
+	 */
+	public static void enter(Actor actor, Tile tile) {
+		if (tile != null) {
+			handlerOf(tile).onEnter(actor, tile);
+		}
+	}
+
+	/**
+	 * Tells the handler of a tile that an actor moved off it.
+	 *
+	 * @param actor The actor that moved.
+	 * @param tile  The tile it moved off, or null.
+	 */
+	public static void exit(Actor actor, Tile tile) {
+		if (tile != null) {
+			handlerOf(tile).onExit(actor, tile);
+		}
+	}
+
+	/**
+	 * Gets the handler of a tile from the table, resolving it on the first event of its type.
+	 *
+	 * @param tile The tile.
+	 * @return The handler, which does nothing if no class of the tile was registered.
+	 */
+	private static Handler handlerOf(Tile tile) {
+		int id = tile.getTypeId();
+		Handler[] current = table;
+		if (id >= 0 && id < current.length) {
+			Handler handler = current[id];
+			if (handler != null) {
+				return handler;
+			}
+		}
+		return resolve(tile, id);
+	}
+
+	/**
+	 * Finds the handler of a tile from its class and stores it in the table under the tile's type id.
+	 *
+	 * @param tile The tile.
+	 * @param id   The type id of the tile.
+	 * @return The handler, which does nothing if no class of the tile was registered.
+	 */
+	private static synchronized Handler resolve(Tile tile, int id) {
+		Handler handler = NONE;
+		for (int i = 0; i < TYPES.size(); i++) {
+			if (TYPES.get(i).isInstance(tile)) {
+				handler = HANDLERS.get(i);
+				break;
+			}
+		}
+		if (id >= 0) {
+			Handler[] current = table;
+			if (id >= current.length) {
+				Handler[] grown = new Handler[Math.max(id + 1, current.length * 2)];
+				System.arraycopy(current, 0, grown, 0, current.length);
+				current = grown;
+			}
+			current[id] = handler;
+			table = current;
+		}
+		return handler;
+	}
+}
@@ -0,0 +1,84 @@
+package game;
+
+/**
+ * The {@code ActorMove} class records an actor moving from one square to another during a simulation step,
+ * so a renderer can draw the actor part way between the two squares.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class ActorMove {
+
+    // Key of the actor that moved.
+    private final String key;
+    // Column the actor moved from.
+    private final int fromX;
+    // Row the actor moved from.
+    private final int fromY;
+    // Column the actor moved to.
+    private final int toX;
+    // Row the actor moved to.
+    private final int toY;
+
+    /**
+     * Constructs a move.
+     *
+     * @param key   The key of the actor that moved.
+     * @param fromX The column the actor moved from.
+     * @param fromY The row the actor moved from.
+     * @param toX   The column the actor moved to.
+     * @param toY   The row the actor moved to.
+     */
+    public ActorMove(String key, int fromX, int fromY, int toX, int toY) {
+        this.key = key;
+        this.fromX = fromX;
+        this.fromY = fromY;
+        this.toX = toX;
+        this.toY = toY;
+    }
+
+    /**
+     * Gets the key of the actor that moved.
+     *
+     * @return The actor's key.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the column the actor moved from.
+     *
+     * @return The column.
+     */
+    public int getFromX() {
+        return fromX;
+    }
+
+    /**
+     * Gets the row the actor moved from.
+     *
+     * @return The row.
+     */
+    public int getFromY() {
+        return fromY;
+    }
+
+    /**
+     * Gets the column the actor moved to.
+     *
+     * @return The column.
+     */
+    public int getToX() {
+        return toX;
+    }
+
+    /**
+     * Gets the row the actor moved to.
+     *
+     * @return The row.
+     */
+    public int getToY() {
+        return toY;
+    }
+}
@@ -0,0 +1,142 @@
+package game;
+
+/**
+ * The {@code FixedStepClock} class turns the irregular frame times of a front end into simulation steps of a
+ * fixed length. Elapsed time is added to an accumulator, and one step is due for every step length it holds,
+ * so the game runs at the same speed however fast frames are drawn. When a frame arrives so late that more
+ * than the allowed number of steps are due, the extra time is dropped instead of being caught up, so a slow
+ * machine cannot fall further and further behind. The time left over after the due steps gives the fraction
+ * of the next step that has passed, which renderers use to draw movement between two steps.
+ * The clock also keeps a running average of how long each step takes to simulate.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.1
+ */
+public class FixedStepClock {
+
+    // Weight of the newest step in the running average of step times.
+    private static final double SMOOTHING = 0.05;
+    // Frame time meaning the clock has not seen a frame since it was created or paused.
+    private static final long NO_FRAME = Long.MIN_VALUE;
+
+    // Length of one simulation step in nanoseconds.
+    private final long stepNanos;
+    // Largest number of steps run for a single frame.
+    private final int maxStepsPerFrame;
+    // Time passed that has not been used up by steps yet, in nanoseconds.
+    private long accumulator;
+    // Time of the last frame in nanoseconds, or NO_FRAME.
+    private long lastFrame = NO_FRAME;
+    // Time dropped because too many steps were due at once, in nanoseconds.
+    private long droppedNanos;
+    // Number of steps whose simulation time was recorded.
+    private long recordedSteps;
+    // Running average of the time taken to simulate a step, in nanoseconds.
+    private double averageStepNanos;
+
+    /**
+     * Constructs a clock.
+     *
+     * @param stepNanos        The length of one simulation step in nanoseconds.
+     * @param maxStepsPerFrame The largest number of steps run for a single frame.
+     * @throws IllegalArgumentException If either value is not positive.
+     */
+    public FixedStepClock(long stepNanos, int maxStepsPerFrame) {
+        if (stepNanos <= 0 || maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("Step length and steps per frame must be positive");
+        }
+        this.stepNanos = stepNanos;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * Adds the time passed since the previous frame and takes the steps that are now due.
+     * The first frame after the clock is created or paused only sets the starting time.
+     *
+     * @param now The time of the frame in nanoseconds, e.g. as given to an {@code AnimationTimer}.
+     * @return The number of steps to simulate for this frame.
+     */
+    public int advance(long now) {
+        if (lastFrame == NO_FRAME) {
+            lastFrame = now;
+            return 0;
+        }
+        accumulator += Math.max(0, now - lastFrame);
+        lastFrame = now;
+
+        int due = (int) Math.min(accumulator / stepNanos, maxStepsPerFrame);
+        accumulator -= due * stepNanos;
+        if (accumulator >= stepNanos) {
+            long excess = accumulator - accumulator % stepNanos;
+            droppedNanos += excess;
+            accumulator -= excess;
+        }
+        return due;
+    }
+
+    /**
+     * Stops counting time until the next frame, so time spent paused is not caught up afterwards.
+     */
+    public void pause() {
+        lastFrame = NO_FRAME;
+    }
+
+    /**
+     * Gets the fraction of the next step that has already passed.
+     *
+     * @return A value from 0 inclusive to 1 exclusive.
+     */
+    public double getInterpolation() {
+        return (double) accumulator / stepNanos;
+    }
+
+    /**
+     * Gets the time left until the next step is due, counted from the last frame.
+     *
+     * @return The waiting time in nanoseconds.
+     */
+    public long getNanosUntilNextStep() {
+        return stepNanos - accumulator;
+    }
+
+    /**
+     * Records how long a step took to simulate.
+     *
+     * @param nanos The time taken in nanoseconds.
+     */
+    public void recordStep(long nanos) {
+        recordedSteps++;
+        if (recordedSteps == 1) {
+            averageStepNanos = nanos;
+        } else {
+            averageStepNanos += SMOOTHING * (nanos - averageStepNanos);
+        }
+    }
+
+    /**
+     * Gets the running average of the time taken to simulate a step.
+     *
+     * @return The average step time in milliseconds, or 0 if no step was recorded.
+     */
+    public double getAverageStepMillis() {
+        return averageStepNanos / 1_000_000.0;
+    }
+
+    /**
+     * Gets the time dropped because frames arrived too late to catch up.
+     *
+     * @return The dropped time in milliseconds.
+     */
+    public long getDroppedMillis() {
+        return droppedNanos / 1_000_000L;
+    }
+
+    /**
+     * Gets the length of one simulation step.
+     *
+     * @return The step length in nanoseconds.
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+}
@@ -0,0 +1,227 @@
+package game;
+
+import item.Item;
+import level.Level;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The {@code FrameSnapshot} class is an immutable picture of a simulation, taken after a step so that another
+ * thread can draw it. It holds the tile, item and actor keys of the squares that changed since an earlier
+ * snapshot, the moves of the last step, the inventory and the remaining time. Nothing in a snapshot refers
+ * to the level, so a renderer can read it while the simulation goes on changing the level.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class FrameSnapshot {
+
+    // Number of steps taken since the start of the level.
+    private final long tick;
+    // The state of the game after the last step.
+    private final StepResult.Status status;
+    // Time the snapshot was taken, in nanoseconds as given by System.nanoTime.
+    private final long takenAt;
+    // Seconds left to finish the level.
+    private final int timeRemaining;
+    // Number of chips the player holds.
+    private final int chipCount;
+    // Keys of the items the player holds, in pick-up order.
+    private final List<String> inventoryKeys;
+    // Moves made by the player and monsters during the last step.
+    private final List<ActorMove> moves;
+    // Indexes of the changed squares, y * width + x, in ascending order.
+    private final int[] squares;
+    // Tile key of each changed square.
+    private final String[] tileKeys;
+    // Item key of each changed square.
+    private final String[] itemKeys;
+    // Actor key of each changed square.
+    private final String[] actorKeys;
+
+    /**
+     * Constructs a snapshot. The arrays and lists are owned by the snapshot from now on.
+     *
+     * @param tick          The number of steps taken.
+     * @param status        The state of the game.
+     * @param takenAt       The time the snapshot was taken in nanoseconds.
+     * @param timeRemaining The seconds left to finish the level.
+     * @param chipCount     The number of chips the player holds.
+     * @param inventoryKeys The keys of the items the player holds.
+     * @param moves         The moves of the last step.
+     * @param squares       The indexes of the changed squares.
+     * @param tileKeys      The tile key of each changed square.
+     * @param itemKeys      The item key of each changed square.
+     * @param actorKeys     The actor key of each changed square.
+     */
+    private FrameSnapshot(long tick, StepResult.Status status, long takenAt, int timeRemaining, int chipCount,
+                          List<String> inventoryKeys, List<ActorMove> moves, int[] squares,
+                          String[] tileKeys, String[] itemKeys, String[] actorKeys) {
+        this.tick = tick;
+        this.status = status;
+        this.takenAt = takenAt;
+        this.timeRemaining = timeRemaining;
+        this.chipCount = chipCount;
+        this.inventoryKeys = inventoryKeys;
+        this.moves = moves;
+        this.squares = squares;
+        this.tileKeys = tileKeys;
+        this.itemKeys = itemKeys;
+        this.actorKeys = actorKeys;
+    }
+
+    /**
+     * Takes a snapshot of a simulation. Must be called on the thread running the simulation.
+     *
+     * @param simulation The simulation to copy.
+     * @param changed    The squares whose keys are copied, indexed by {@code y * width + x}.
+     * @param takenAt    The time of the snapshot in nanoseconds.
+     * @return The snapshot.
+     */
+    public static FrameSnapshot capture(Simulation simulation, BitSet changed, long takenAt) {
+        Level level = simulation.getLevel();
+        int width = level.getWidth();
+        int count = changed.cardinality();
+        int[] squares = new int[count];
+        String[] tileKeys = new String[count];
+        String[] itemKeys = new String[count];
+        String[] actorKeys = new String[count];
+
+        int n = 0;
+        for (int i = changed.nextSetBit(0); i >= 0; i = changed.nextSetBit(i + 1)) {
+            int col = i % width;
+            int row = i / width;
+            squares[n] = i;
+            tileKeys[n] = level.getTiles().getKey(col, row);
+            itemKeys[n] = level.getItems().getKey(col, row);
+            actorKeys[n] = level.getActors().getKey(col, row);
+            n++;
+        }
+
+        PlayerInventory inventory = simulation.getInventory();
+        ArrayList<String> inventoryKeys = new ArrayList<>(inventory.getInventory().size());
+        for (Item item : inventory.getInventory()) {
+            inventoryKeys.add(item.getKey());
+        }
+        return new FrameSnapshot(simulation.getTick(), simulation.getStatus(), takenAt,
+                simulation.getTimeRemaining(), inventory.getChipCount(),
+                Collections.unmodifiableList(inventoryKeys),
+                Collections.unmodifiableList(new ArrayList<>(simulation.getLastMoves())),
+                squares, tileKeys, itemKeys, actorKeys);
+    }
+
+    /**
+     * Gets the number of steps taken since the start of the level.
+     *
+     * @return The tick number.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the state of the game after the last step.
+     *
+     * @return The status.
+     */
+    public StepResult.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the time the snapshot was taken.
+     *
+     * @return The time in nanoseconds, comparable with System.nanoTime.
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Gets the seconds left to finish the level.
+     *
+     * @return The remaining time in seconds.
+     */
+    public int getTimeRemaining() {
+        return timeRemaining;
+    }
+
+    /**
+     * Gets the number of chips the player holds.
+     *
+     * @return The chip count.
+     */
+    public int getChipCount() {
+        return chipCount;
+    }
+
+    /**
+     * Gets the keys of the items the player holds.
+     *
+     * @return An unmodifiable list of item keys.
+     */
+    public List<String> getInventoryKeys() {
+        return inventoryKeys;
+    }
+
+    /**
+     * Gets the moves made by the player and monsters during the last step.
+     *
+     * @return An unmodifiable list of moves.
+     */
+    public List<ActorMove> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Gets the number of changed squares held by the snapshot.
+     *
+     * @return The number of squares.
+     */
+    public int getSquareCount() {
+        return squares.length;
+    }
+
+    /**
+     * Gets the index of a changed square.
+     *
+     * @param n The position of the square in the snapshot, from 0 to {@code getSquareCount() - 1}.
+     * @return The index of the square, {@code y * width + x}.
+     */
+    public int getSquare(int n) {
+        return squares[n];
+    }
+
+    /**
+     * Gets the tile key of a changed square.
+     *
+     * @param n The position of the square in the snapshot.
+     * @return The tile key.
+     */
+    public String getTileKey(int n) {
+        return tileKeys[n];
+    }
+
+    /**
+     * Gets the item key of a changed square.
+     *
+     * @param n The position of the square in the snapshot.
+     * @return The item key.
+     */
+    public String getItemKey(int n) {
+        return itemKeys[n];
+    }
+
+    /**
+     * Gets the actor key of a changed square.
+     *
+     * @param n The position of the square in the snapshot.
+     * @return The actor key.
+     */
+    public String getActorKey(int n) {
+        return actorKeys[n];
+    }
+}
@@ -1,4 +1,6 @@
 package game;
+import game.log.Logger;
+
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileWriter;
@@ -12,10 +14,13 @@ import java.util.Scanner;
  * such as score calculation, saving/loading game states, and restarting levels.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.7
+ * @version 1.9
  */
 public class GameStuff {
 
+    // Logger for saving and loading.
+    private static final Logger LOG = Logger.getLogger(GameStuff.class);
+
     /**
      * Calculates the score based on the time left and the number of chips collected.
      * The method can be expanded to include functionality for appending the score to a highscore table.
@@ -40,8 +45,7 @@ public class GameStuff {
             writer.write("testing");
             writer.close();
         } catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            LOG.error("Could not save game to test.txt", e);
         }
     }
 
@@ -57,12 +61,12 @@ public class GameStuff {
             while (scanner.hasNextLine()) {
                 String line = scanner.nextLine();
                 // Process each line of the file here
-                System.out.println(line);
+                LOG.info("{}", line);
             }
 
             scanner.close();
         } catch (FileNotFoundException e) {
-            e.printStackTrace();
+            LOG.error("Could not load game from test.txt", e);
         }
     }
 
@@ -4,12 +4,19 @@ import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import level.Level;
 
+import java.util.BitSet;
+import java.util.List;
+
 /**
  * The {@code GridClass} manages and renders a grid structure for a game level using JavaFX.
  * It utilizes a {@code GraphicsContext} for drawing, and can render images onto specific grid squares.
+ * The grid keeps its own copy of the tile, item and actor keys of every square, updated from the
+ * {@link FrameSnapshot}s of a simulation, so it can draw on the JavaFX thread while the level changes
+ * on the simulation thread. Only squares changed by a snapshot are repainted, unless a full repaint is requested.
+ * Actors that moved in the last simulation step can be drawn part way between their old and new squares.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.9
+ * @version 2.1
  */
 public class GridClass {
 
@@ -23,6 +30,18 @@ public class GridClass {
     private int squareSize;
     // The grid's state, represented as a 2D array of integers.
     private int[][] stateGrid;
+    // Whether the next repaint must redraw every square, e.g. after the canvas is resized.
+    private boolean fullRepaint = true;
+    // Squares changed by snapshots since the last repaint.
+    private final BitSet damagedSquares = new BitSet();
+    // Squares drawn over by moving actors, which must be repainted before the next frame.
+    private final BitSet motionSquares = new BitSet();
+    // Tile key of every square, as of the last snapshot applied.
+    private final String[] tileKeys;
+    // Item key of every square, as of the last snapshot applied.
+    private final String[] itemKeys;
+    // Actor key of every square, as of the last snapshot applied.
+    private final String[] actorKeys;
 
     /**
      * Constructs a GridClass with a specified graphics context and level.
@@ -36,6 +55,9 @@ public class GridClass {
         this.width = level.getWidth();// Get the width from the Layer instance
         this.height = level.getHeight();
         this.squareSize = 60; // You can set a default square size or get it from the Layer if needed
+        this.tileKeys = new String[width * height];
+        this.itemKeys = new String[width * height];
+        this.actorKeys = new String[width * height];
         initializeGrid();
     }
 
@@ -81,6 +103,136 @@ public class GridClass {
         gc.drawImage(image, x, y, squareSize, squareSize);
     }
 
+    /**
+     * Draws the sprite of a key from a sprite atlas onto a specific square in the grid.
+     * Keys without a sprite in the atlas are skipped.
+     *
+     * @param atlas The {@code SpriteAtlas} holding the sprite.
+     * @param key   The key of the sprite to be drawn.
+     * @param col   The column number of the square.
+     * @param row   The row number of the square.
+     */
+    public void drawImageOntoSquare(SpriteAtlas atlas, String key, int col, int row) {
+        drawImageAt(atlas, key, col * squareSize, row * squareSize);
+    }
+
+    /**
+     * Draws the sprite of a key from a sprite atlas at a position on the canvas, scaled to one square.
+     * Keys without a sprite in the atlas are skipped.
+     *
+     * @param atlas The {@code SpriteAtlas} holding the sprite.
+     * @param key   The key of the sprite to be drawn.
+     * @param x     The x-coordinate of the sprite's top left corner on the canvas.
+     * @param y     The y-coordinate of the sprite's top left corner on the canvas.
+     */
+    private void drawImageAt(SpriteAtlas atlas, String key, double x, double y) {
+        int cell = atlas.getCell(key);
+        if (cell < 0) {
+            return;
+        }
+        int cellSize = atlas.getCellSize();
+        gc.drawImage(atlas.getTexture(), atlas.getSourceX(cell), atlas.getSourceY(cell), cellSize, cellSize,
+                x, y, squareSize, squareSize);
+    }
+
+    /**
+     * Draws the actors that moved in the last simulation step part way between their old and new squares.
+     * The squares each actor passes over are redrawn without it first, and are repainted in full
+     * on the next call to {@code repaint}, so nothing is left behind once the actor arrives.
+     *
+     * @param atlas         The sprite atlas to draw from.
+     * @param moves         The moves made in the last simulation step.
+     * @param interpolation The fraction of the next step that has passed, from 0 to 1.
+     */
+    public void drawMotion(SpriteAtlas atlas, List<ActorMove> moves, double interpolation) {
+        for (ActorMove move : moves) {
+            // Actors move in straight lines, e.g. when sliding on ice, so this covers every square passed.
+            for (int row = Math.min(move.getFromY(), move.getToY()); row <= Math.max(move.getFromY(), move.getToY()); row++) {
+                for (int col = Math.min(move.getFromX(), move.getToX()); col <= Math.max(move.getFromX(), move.getToX()); col++) {
+                    int square = row * width + col;
+                    gc.clearRect(col * squareSize, row * squareSize, squareSize, squareSize);
+                    drawImageOntoSquare(atlas, tileKeys[square], col, row);
+                    drawImageOntoSquare(atlas, itemKeys[square], col, row);
+                    if (col != move.getToX() || row != move.getToY()) {
+                        drawImageOntoSquare(atlas, actorKeys[square], col, row);
+                    }
+                    motionSquares.set(square);
+                }
+            }
+        }
+        for (ActorMove move : moves) {
+            double x = move.getFromX() + (move.getToX() - move.getFromX()) * interpolation;
+            double y = move.getFromY() + (move.getToY() - move.getFromY()) * interpolation;
+            drawImageAt(atlas, move.getKey(), x * squareSize, y * squareSize);
+        }
+    }
+
+    /**
+     * Requests that the next repaint redraws every square instead of only the changed ones.
+     */
+    public void invalidate() {
+        fullRepaint = true;
+    }
+
+    /**
+     * Copies the keys of the squares changed by a snapshot and marks them for the next repaint.
+     *
+     * @param frame The snapshot to apply.
+     */
+    public void apply(FrameSnapshot frame) {
+        for (int n = 0; n < frame.getSquareCount(); n++) {
+            int square = frame.getSquare(n);
+            tileKeys[square] = frame.getTileKey(n);
+            itemKeys[square] = frame.getItemKey(n);
+            actorKeys[square] = frame.getActorKey(n);
+            damagedSquares.set(square);
+        }
+    }
+
+    /**
+     * Repaints the squares changed by the snapshots applied since the last repaint.
+     * Each repainted square is cleared and redrawn in tile, item and actor order.
+     * Falls back to redrawing the whole grid when a full repaint was requested.
+     *
+     * @param atlas The sprite atlas to draw from.
+     */
+    public void repaint(SpriteAtlas atlas) {
+        if (fullRepaint) {
+            clearGrid();
+            for (int row = 0; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    drawSquare(atlas, col, row);
+                }
+            }
+            fullRepaint = false;
+        } else {
+            damagedSquares.or(motionSquares);
+            for (int i = damagedSquares.nextSetBit(0); i >= 0; i = damagedSquares.nextSetBit(i + 1)) {
+                int col = i % width;
+                int row = i / width;
+                gc.clearRect(col * squareSize, row * squareSize, squareSize, squareSize);
+                drawSquare(atlas, col, row);
+            }
+        }
+
+        damagedSquares.clear();
+        motionSquares.clear();
+    }
+
+    /**
+     * Draws the tile, item and actor of a single square, in that order.
+     *
+     * @param atlas The sprite atlas to draw from.
+     * @param col   The column number of the square.
+     * @param row   The row number of the square.
+     */
+    private void drawSquare(SpriteAtlas atlas, int col, int row) {
+        int square = row * width + col;
+        drawImageOntoSquare(atlas, tileKeys[square], col, row);
+        drawImageOntoSquare(atlas, itemKeys[square], col, row);
+        drawImageOntoSquare(atlas, actorKeys[square], col, row);
+    }
+
     /**
      * Draws an image across multiple squares in the grid.
      *
@@ -1,5 +1,7 @@
 package game;
 
+import game.log.Logger;
+
 import java.io.*;
 import java.util.HashMap;
 
@@ -8,10 +10,12 @@ import java.util.HashMap;
  * It provides functionalities to add, retrieve, display, save, and load high scores.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.4
+ * @version 1.5
  */
 public class HighScoreTable {
 
+    // Logger for displaying, saving and loading the table.
+    private static final Logger LOG = Logger.getLogger(HighScoreTable.class);
     // File path for the CSV file where high scores are stored.
     private final static String CSV_FILE_PATH = "/home/Fwuffypc/Documents/230 cw/ChipsChallengeCW/test.csv";
     // HashMap to store high scores with the level as the key and the score as the value.
@@ -48,10 +52,10 @@ public class HighScoreTable {
      * Displays all high scores stored in the table.
      */
     public void displayHighScores() {
-        System.out.println("High Scores:");
+        LOG.info("High Scores:");
         for (String level : highScores.keySet()) {
             int score = highScores.get(level);
-            System.out.println(level + ": " + score);
+            LOG.info("{}: {}", level, score);
         }
     }
 
@@ -62,9 +66,9 @@ public class HighScoreTable {
     public void saveHighScoreTable() {
         try (PrintWriter writer = new PrintWriter(new FileWriter(CSV_FILE_PATH))) {
             highScores.forEach((level, score) -> writer.println(level + "," + score));
-            System.out.println("High score table saved successfully to " + CSV_FILE_PATH);
+            LOG.info("High score table saved successfully to {}", CSV_FILE_PATH);
         } catch (IOException e) {
-            System.err.println("Error saving high score table: " + e.getMessage());
+            LOG.error("Error saving high score table: {}", e.getMessage());
         }
     }
 
@@ -76,11 +80,11 @@ public class HighScoreTable {
         try (BufferedReader reader = new BufferedReader(new FileReader(CSV_FILE_PATH))) {
             highScores.clear();
             reader.lines().map(line -> line.split(",")).forEach(parts -> highScores.put(parts[0], Integer.parseInt(parts[1])));
-            System.out.println("High score table loaded successfully from " + CSV_FILE_PATH);
+            LOG.info("High score table loaded successfully from {}", CSV_FILE_PATH);
         } catch (FileNotFoundException e) {
-            System.out.println("No previous high score table found. Starting with an empty table.");
+            LOG.info("No previous high score table found. Starting with an empty table.");
         } catch (IOException e) {
-            System.err.println("Error loading high score table: " + e.getMessage());
+            LOG.error("Error loading high score table: {}", e.getMessage());
         }
     }
     /**
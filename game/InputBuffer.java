@@ -0,0 +1,172 @@
+package game;
+
+import actor.Actor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code InputBuffer} class carries the directions pressed by the player from the JavaFX thread to the
+ * simulation thread. Presses are stored with their time in a bounded ring buffer of primitive arrays, so
+ * neither side allocates or locks, and the simulation takes at most one press per tick. When the buffer is
+ * full, further presses are dropped and counted. It is safe for exactly one producing and one consuming thread.
+ *
+ * <p>Key repeats sent by the operating system while a key is held are ignored. Instead, the
+ * {@link RepeatPolicy} decides whether a held key moves the player again, and if so every how many ticks,
+ * so the move rate follows the tick rate and not the keyboard settings.</p>
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public class InputBuffer {
+
+    /**
+     * What happens while a direction key is held down.
+     */
+    public enum RepeatPolicy {
+        // Every press moves the player once, however long the key is held.
+        NONE,
+        // A held key moves the player again every few ticks once the buffer is empty.
+        HOLD
+    }
+
+    // Directions by ordinal, for decoding the buffer.
+    private static final Actor.Direction[] DIRECTIONS = Actor.Direction.values();
+
+    // Number of slots in the buffer; always a power of two.
+    private final int capacity;
+    // Mask turning a sequence number into a slot index.
+    private final int mask;
+    // Ordinal of the direction stored in each slot.
+    private final byte[] directions;
+    // Time each stored press was made, in nanoseconds.
+    private final long[] pressedAt;
+    // What happens while a key is held down.
+    private final RepeatPolicy policy;
+    // Number of ticks between repeated moves of a held key.
+    private final int repeatTicks;
+    // Sequence number of the next press to take; only advanced by the consumer.
+    private final AtomicLong head = new AtomicLong();
+    // Sequence number of the next press to store; only advanced by the producer.
+    private final AtomicLong tail = new AtomicLong();
+    // Direction key currently held down, or null.
+    private volatile Actor.Direction held;
+    // Number of presses dropped because the buffer was full.
+    private volatile int dropped;
+    // Ticks since the player was last moved by a press or a repeat; only used by the consumer.
+    private int ticksSinceMove;
+    // Time between the last press taken and the tick that took it, in nanoseconds.
+    private volatile long lastDelayNanos;
+
+    /**
+     * Constructs an input buffer.
+     *
+     * @param depth       The largest number of presses held at once; rounded up to a power of two.
+     * @param policy      What happens while a key is held down.
+     * @param repeatTicks The number of ticks between repeated moves of a held key.
+     * @throws IllegalArgumentException If the depth or the number of repeat ticks is not positive.
+     */
+    public InputBuffer(int depth, RepeatPolicy policy, int repeatTicks) {
+        if (depth <= 0 || repeatTicks <= 0) {
+            throw new IllegalArgumentException("Buffer depth and repeat ticks must be positive");
+        }
+        int size = 1;
+        while (size < depth) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = capacity - 1;
+        this.directions = new byte[capacity];
+        this.pressedAt = new long[capacity];
+        this.policy = policy;
+        this.repeatTicks = repeatTicks;
+    }
+
+    /**
+     * Records that a direction key went down. Repeats of a key already held are ignored.
+     * Must only be called by the producing thread.
+     *
+     * @param direction The direction of the key.
+     * @param time      The time of the press in nanoseconds.
+     * @return true if the press was stored, false if it was a repeat or the buffer was full.
+     */
+    public boolean press(Actor.Direction direction, long time) {
+        if (direction == held) {
+            return false;
+        }
+        held = direction;
+        long sequence = tail.get();
+        if (sequence - head.get() >= capacity) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) sequence & mask;
+        directions[slot] = (byte) direction.ordinal();
+        pressedAt[slot] = time;
+        tail.lazySet(sequence + 1);
+        return true;
+    }
+
+    /**
+     * Records that a direction key went up. Must only be called by the producing thread.
+     *
+     * @param direction The direction of the key.
+     */
+    public void release(Actor.Direction direction) {
+        if (direction == held) {
+            held = null;
+        }
+    }
+
+    /**
+     * Takes the input for one tick: the oldest stored press, or a repeat of the held key if the policy
+     * allows one. Must be called exactly once per tick by the consuming thread.
+     *
+     * @param now The time of the tick in nanoseconds.
+     * @return The direction to move the player in, or null for no input.
+     */
+    public Actor.Direction poll(long now) {
+        ticksSinceMove++;
+        long sequence = head.get();
+        if (sequence != tail.get()) {
+            int slot = (int) sequence & mask;
+            Actor.Direction direction = DIRECTIONS[directions[slot]];
+            lastDelayNanos = now - pressedAt[slot];
+            head.lazySet(sequence + 1);
+            ticksSinceMove = 0;
+            return direction;
+        }
+        Actor.Direction repeat = held;
+        if (policy == RepeatPolicy.HOLD && repeat != null && ticksSinceMove >= repeatTicks) {
+            ticksSinceMove = 0;
+            return repeat;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of presses the buffer can hold.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of presses dropped because the buffer was full.
+     *
+     * @return The number of dropped presses.
+     */
+    public int getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Gets how long the last press taken waited for its tick.
+     *
+     * @return The delay in nanoseconds.
+     */
+    public long getLastDelayNanos() {
+        return lastDelayNanos;
+    }
+}
@@ -1,5 +1,6 @@
 package game;
 
+import game.log.Logger;
 import item.Chip;
 import item.Item;
 
@@ -10,10 +11,12 @@ import java.util.ArrayList;
  * It manages the collection of items a player has picked up, including chips and other items.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.4
+ * @version 1.5
  */
 public class PlayerInventory {
 
+    // Logger for items picked up.
+    private static final Logger LOG = Logger.getLogger(PlayerInventory.class);
     // List to store the items in the player's inventory.
     private ArrayList<Item> inventory = new ArrayList<>();
     // Count of chips collected by the player.
@@ -48,7 +51,7 @@ public class PlayerInventory {
         } else {
             inventory.add(item);
         }
-        System.out.println("picked up" + item.getKey());
+        LOG.debug("picked up {}", item.getKey());
     }
 
     /**
@@ -1,5 +1,8 @@
 package game;
 
+import game.log.Logger;
+import game.metrics.LatencyHistogram;
+import game.metrics.Metrics;
 import level.Level;
 
 import java.io.File;
@@ -11,7 +14,7 @@ import java.io.IOException;
  * and manages saving game states specific to the player.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.3
+ * @version 1.5
  */
 public class PlayerProfile {
 
@@ -35,6 +38,12 @@ public class PlayerProfile {
     private int currentLevel = 1;  // Added a variable to keep track of the current level
     // Base directory for saving game data.
     private static final String BASE_DIRECTORY = "saves";
+    // Time taken by each save, recorded when metrics are enabled.
+    private static final LatencyHistogram SAVE_TIME = Metrics.histogram("profile.saveGame");
+    // Logger for failed saves.
+    private static final Logger LOG = Logger.getLogger(PlayerProfile.class);
+    // Extension of save files, which are written in the binary level format.
+    private static final String SAVE_EXTENSION = ".lvl";
 
     /**
      * Constructs a new PlayerProfile with the specified player name.
@@ -46,7 +55,7 @@ public class PlayerProfile {
         this.playerName = name;
         this.userId = userNumber;
         this.userFile = new File(BASE_DIRECTORY, playerName); // Use playerName as the directory name
-        this.saveFile = new File(userFile, "level" + currentLevel + ".txt"); // Use playerName for the directory and a default level file
+        this.saveFile = new File(userFile, "level" + currentLevel + SAVE_EXTENSION); // Use playerName for the directory and a default level file
         userNumber++;
 
         File baseDirectory = new File(BASE_DIRECTORY);
@@ -75,13 +84,14 @@ public class PlayerProfile {
 
     /**
      * Saves the current state of a game level to a file.
-     * This method writes the level data to a file specific to the player's profile.
+     * This method writes the level data to a binary file specific to the player's profile.
      *
      * @param level The Level object representing the current state of the game to be saved.
      */
     public void saveGame(Level level) {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
         int levelNumber = level.getLevelNumber();
-        String filename = "level" + levelNumber + ".txt";
+        String filename = "level" + levelNumber + SAVE_EXTENSION;
         File levelFile = new File(userFile, filename); // Save the level file directly in the user's directory
 
         // Ensure the directory exists
@@ -96,10 +106,13 @@ public class PlayerProfile {
             }
 
             // Write the level content to the file
-            level.writeLevel(levelFile.getPath());
+            level.saveLevel(levelFile.getPath());
             lastSavePath = levelFile.getPath();
         } catch (IOException e) {
-            e.printStackTrace();  // Handle the exception as needed
+            LOG.error("Could not save game to {}", levelFile, e);
+        }
+        if (Metrics.ENABLED) {
+            SAVE_TIME.recordSince(start);
         }
     }
 
@@ -217,7 +230,7 @@ public class PlayerProfile {
 
     public void nextLevel() {
         currentLevel++;
-        String filename = "level" + currentLevel + ".txt";
+        String filename = "level" + currentLevel + SAVE_EXTENSION;
         saveFile = new File(userFile, filename);
     }
 
@@ -0,0 +1,259 @@
+package game;
+
+import actor.Actor;
+import level.Level;
+import level.LevelWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The {@code Replay} class is an immutable record of one game of a level: which level was played, the input
+ * of every tick, and how the game ended. The simulation has no randomness, so running the same inputs on the
+ * same level again always gives the same game, and a replay can be checked or watched without a player.
+ *
+ * <p>The level is identified by a SHA-256 hash of its binary encoding when the game started, so a replay
+ * only plays back on exactly that level state. The input takes one byte per tick: 0 for no input, or one
+ * more than the ordinal of the direction.</p>
+ *
+ * <p>A replay file starts with the magic number and format version, then the level file name, the hash,
+ * the path strategy the frogs used, the ticks per second of the countdown, the inputs, and the outcome.</p>
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class Replay {
+
+    // Magic number at the start of every replay file: the bytes "RPL" followed by 0x1A.
+    private static final int MAGIC = 0x52504C1A;
+    // Version of the replay format written by this build.
+    private static final int VERSION = 1;
+    // Directions by ordinal, for decoding inputs.
+    private static final Actor.Direction[] DIRECTIONS = Actor.Direction.values();
+
+    // Name of the file the level was loaded from.
+    private final String levelFile;
+    // SHA-256 hash of the binary encoding of the level when the game started.
+    private final byte[] levelHash;
+    // Name of the path strategy the frogs used, as set with game.pathing.
+    private final String pathing;
+    // Number of ticks in one second of the level's time limit.
+    private final int ticksPerSecond;
+    // Input of every tick, in tick order.
+    private final byte[] inputs;
+    // The state of the game after the last tick.
+    private final StepResult.Status status;
+    // Number of chips the player held at the end.
+    private final int chipCount;
+    // Seconds left on the time limit at the end.
+    private final int timeRemaining;
+
+    /**
+     * Constructs a replay. The arrays are owned by the replay from now on.
+     *
+     * @param levelFile      The name of the file the level was loaded from.
+     * @param levelHash      The hash of the level when the game started.
+     * @param pathing        The name of the path strategy the frogs used.
+     * @param ticksPerSecond The number of ticks in one second of the time limit.
+     * @param inputs         The input of every tick.
+     * @param status         The state of the game after the last tick.
+     * @param chipCount      The number of chips held at the end.
+     * @param timeRemaining  The seconds left at the end.
+     */
+    Replay(String levelFile, byte[] levelHash, String pathing, int ticksPerSecond, byte[] inputs,
+           StepResult.Status status, int chipCount, int timeRemaining) {
+        this.levelFile = levelFile;
+        this.levelHash = levelHash;
+        this.pathing = pathing;
+        this.ticksPerSecond = ticksPerSecond;
+        this.inputs = inputs;
+        this.status = status;
+        this.chipCount = chipCount;
+        this.timeRemaining = timeRemaining;
+    }
+
+    /**
+     * Calculates the hash identifying the current state of a level.
+     *
+     * @param level The level.
+     * @return The SHA-256 hash of the binary encoding of the level.
+     */
+    public static byte[] hash(Level level) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(LevelWriter.toBinary(level));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Encodes the input of a tick in one byte.
+     *
+     * @param direction The direction the player was moved in, or null for no input.
+     * @return The encoded input.
+     */
+    static byte encode(Actor.Direction direction) {
+        return (byte) (direction == null ? 0 : direction.ordinal() + 1);
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param path The path of the file.
+     * @return The replay.
+     * @throws IOException              If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a replay or has an unsupported version.
+     */
+    public static Replay read(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(Paths.get(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a replay file: " + path);
+            }
+            int version = in.readUnsignedShort();
+            if (version > VERSION) {
+                throw new IllegalArgumentException("Unsupported replay format version " + version);
+            }
+            String levelFile = in.readUTF();
+            byte[] levelHash = new byte[in.readUnsignedByte()];
+            in.readFully(levelHash);
+            String pathing = in.readUTF();
+            int ticksPerSecond = in.readInt();
+            byte[] inputs = new byte[in.readInt()];
+            in.readFully(inputs);
+            StepResult.Status status = StepResult.Status.values()[in.readUnsignedByte()];
+            int chipCount = in.readInt();
+            int timeRemaining = in.readInt();
+            return new Replay(levelFile, levelHash, pathing, ticksPerSecond, inputs, status, chipCount, timeRemaining);
+        }
+    }
+
+    /**
+     * Writes the replay to a file, creating its directory if needed.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(String path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(inputs.length + 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeUTF(levelFile);
+            out.writeByte(levelHash.length);
+            out.write(levelHash);
+            out.writeUTF(pathing);
+            out.writeInt(ticksPerSecond);
+            out.writeInt(inputs.length);
+            out.write(inputs);
+            out.writeByte(status.ordinal());
+            out.writeInt(chipCount);
+            out.writeInt(timeRemaining);
+        }
+        Path target = Paths.get(path);
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Files.write(target, bytes.toByteArray());
+    }
+
+    /**
+     * Checks if the replay was recorded on a level in the given state.
+     *
+     * @param level The level, before any tick was run.
+     * @return true if the level has the recorded hash, false otherwise.
+     */
+    public boolean matches(Level level) {
+        return Arrays.equals(levelHash, hash(level));
+    }
+
+    /**
+     * Gets the input of a tick.
+     *
+     * @param tick The number of the tick, counting from 0.
+     * @return The direction the player was moved in, or null for no input.
+     */
+    public Actor.Direction getInput(int tick) {
+        int input = inputs[tick];
+        return input == 0 ? null : DIRECTIONS[input - 1];
+    }
+
+    /**
+     * Gets the number of ticks recorded.
+     *
+     * @return The number of ticks.
+     */
+    public int getTickCount() {
+        return inputs.length;
+    }
+
+    /**
+     * Gets the name of the file the level was loaded from.
+     *
+     * @return The file name.
+     */
+    public String getLevelFile() {
+        return levelFile;
+    }
+
+    /**
+     * Gets the name of the path strategy the frogs used.
+     *
+     * @return The strategy name, as set with game.pathing.
+     */
+    public String getPathing() {
+        return pathing;
+    }
+
+    /**
+     * Gets the number of ticks in one second of the level's time limit.
+     *
+     * @return The ticks per second.
+     */
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    /**
+     * Gets the state of the game after the last tick.
+     *
+     * @return The recorded status.
+     */
+    public StepResult.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the number of chips the player held at the end.
+     *
+     * @return The recorded chip count.
+     */
+    public int getChipCount() {
+        return chipCount;
+    }
+
+    /**
+     * Gets the seconds left on the time limit at the end.
+     *
+     * @return The recorded remaining time.
+     */
+    public int getTimeRemaining() {
+        return timeRemaining;
+    }
+
+    /**
+     * Gets the score of the recorded game.
+     *
+     * @return The score, as calculated by {@link ScoreCalc}.
+     */
+    public int getScore() {
+        return ScoreCalc.calc(chipCount, timeRemaining);
+    }
+}
@@ -0,0 +1,96 @@
+package game;
+
+import level.Level;
+
+import java.io.IOException;
+
+/**
+ * The {@code ReplayPlayer} class plays {@link Replay}s back without a user interface, as fast as the
+ * simulation can run. Each recorded input is passed to {@link Simulation#step(actor.Actor.Direction)}, so the
+ * player, frogs and pink balls move exactly as in the recorded game, and the outcome can be compared with the
+ * recorded one, e.g. to check a high score or to reproduce a bug report.
+ *
+ * <p>Run as a program, it plays every replay file given on the command line and exits with status 1 if any
+ * of them does not reach its recorded outcome.</p>
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class ReplayPlayer {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private ReplayPlayer() {
+    }
+
+    /**
+     * Plays a replay on a level that has not been played yet.
+     *
+     * @param replay The replay to play.
+     * @param level  The level, in the state the recorded game started in.
+     * @return The simulation after the last recorded tick.
+     * @throws IllegalArgumentException If the level is not in the recorded state.
+     * @throws IllegalStateException    If the frogs use another path strategy than in the recorded game.
+     */
+    public static Simulation play(Replay replay, Level level) {
+        Simulation simulation = new Simulation(level);
+        if (!replay.matches(level)) {
+            throw new IllegalArgumentException("Replay was recorded on another state of " + replay.getLevelFile());
+        }
+        if (!replay.getPathing().equals(String.valueOf(level.getPathStrategyName()))) {
+            throw new IllegalStateException("Replay was recorded with -Dgame.pathing=" + replay.getPathing());
+        }
+        for (int tick = 0; tick < replay.getTickCount(); tick++) {
+            simulation.step(replay.getInput(tick));
+            if (simulation.getTick() % replay.getTicksPerSecond() == 0) {
+                simulation.countDown();
+            }
+        }
+        return simulation;
+    }
+
+    /**
+     * Checks if a played simulation reached the outcome recorded in a replay.
+     *
+     * @param replay The replay that was played.
+     * @param played The simulation returned by {@link #play(Replay, Level)}.
+     * @return true if the status, chip count and remaining time all match, false otherwise.
+     */
+    public static boolean verify(Replay replay, Simulation played) {
+        return played.getStatus() == replay.getStatus()
+                && played.getInventory().getChipCount() == replay.getChipCount()
+                && played.getTimeRemaining() == replay.getTimeRemaining();
+    }
+
+    /**
+     * Plays the replay files given as arguments and prints the outcome of each.
+     *
+     * @param args The paths of the replay files.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java game.ReplayPlayer <replay file>...");
+            System.exit(2);
+        }
+        boolean allVerified = true;
+        for (String path : args) {
+            try {
+                Replay replay = Replay.read(path);
+                long start = System.nanoTime();
+                Simulation played = play(replay, Level.load(replay.getLevelFile()));
+                long micros = (System.nanoTime() - start) / 1_000;
+                boolean verified = verify(replay, played);
+                allVerified &= verified;
+                System.out.printf("%s: %s after %d ticks, score %d, %s in %d us%n", path, played.getStatus(),
+                        played.getTick(), ScoreCalc.calc(played.getInventory().getChipCount(), played.getTimeRemaining()),
+                        verified ? "verified" : "MISMATCH (recorded " + replay.getStatus() + ", score " + replay.getScore() + ")",
+                        micros);
+            } catch (IOException | RuntimeException e) {
+                allVerified = false;
+                System.out.println(path + ": " + e.getMessage());
+            }
+        }
+        System.exit(allVerified ? 0 : 1);
+    }
+}
@@ -0,0 +1,80 @@
+package game;
+
+import actor.Actor;
+import level.Level;
+
+import java.util.Arrays;
+
+/**
+ * The {@code ReplayRecorder} class records the input of every tick of a game, so the game can be saved as a
+ * {@link Replay}. It identifies the level when it is created, so it must be created before the first tick.
+ * The input is stored as one byte per tick in an array that grows as needed.
+ * It is not thread-safe and must only be used by the thread running the simulation.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public class ReplayRecorder {
+
+    // Number of ticks the input array holds at first; about ten seconds of play.
+    private static final int INITIAL_TICKS = 256;
+
+    // Name of the file the level was loaded from.
+    private final String levelFile;
+    // Hash of the level when the game started.
+    private final byte[] levelHash;
+    // Name of the path strategy the frogs use.
+    private final String pathing;
+    // Number of ticks in one second of the level's time limit.
+    private final int ticksPerSecond;
+    // Input of every tick recorded so far; only the first tickCount entries are used.
+    private byte[] inputs = new byte[INITIAL_TICKS];
+    // Number of ticks recorded.
+    private int tickCount;
+
+    /**
+     * Starts recording a game that has not run any tick yet.
+     *
+     * @param simulation     The simulation to record.
+     * @param ticksPerSecond The number of ticks in one second of the level's time limit.
+     */
+    public ReplayRecorder(Simulation simulation, int ticksPerSecond) {
+        Level level = simulation.getLevel();
+        this.levelFile = level.getFileName();
+        this.levelHash = Replay.hash(level);
+        this.pathing = String.valueOf(level.getPathStrategyName());
+        this.ticksPerSecond = ticksPerSecond;
+    }
+
+    /**
+     * Records the input of the next tick.
+     *
+     * @param direction The direction the player is moved in, or null for no input.
+     */
+    public void record(Actor.Direction direction) {
+        if (tickCount == inputs.length) {
+            inputs = Arrays.copyOf(inputs, inputs.length * 2);
+        }
+        inputs[tickCount++] = Replay.encode(direction);
+    }
+
+    /**
+     * Gets the number of ticks recorded.
+     *
+     * @return The number of ticks.
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Creates a replay of the ticks recorded so far, ending in the current state of the simulation.
+     *
+     * @param simulation The simulation that was recorded.
+     * @return The replay.
+     */
+    public Replay finish(Simulation simulation) {
+        return new Replay(levelFile, levelHash, pathing, ticksPerSecond, Arrays.copyOf(inputs, tickCount),
+                simulation.getStatus(), simulation.getInventory().getChipCount(), simulation.getTimeRemaining());
+    }
+}
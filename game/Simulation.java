@@ -0,0 +1,367 @@
+package game;
+
+import actor.Actor;
+import actor.ActorRegistry;
+import actor.ActorSystems;
+import actor.Frog;
+import actor.PinkBall;
+import actor.Player;
+import game.metrics.LatencyHistogram;
+import game.metrics.Metrics;
+import item.Item;
+import level.Level;
+import tile.Dirt;
+import tile.Path;
+import tile.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static level.ItemFactory.itemKey;
+import static level.KeyFactory.getDirectionFromKey;
+
+/**
+ * The {@code Simulation} class runs the rules of a level without any user interface.
+ * It owns the level, the player's inventory and the tick counters, and advances the game
+ * one tick at a time through {@link #step(Actor.Direction)}. Front ends render the level
+ * and forward input, while headless callers can run many simulations in a loop.
+ * The player and every frog and pink ball of the level are kept in an {@link ActorRegistry},
+ * whose systems decide and make the moves of all the monsters each monster tick, and collisions
+ * are found without scanning the grid.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.5
+ */
+public class Simulation {
+
+    // Number of ticks between evaluations of the player's rules.
+    public static final int PLAYER_TICK = 3;
+    // Number of ticks between monster moves.
+    public static final int MONSTER_TICK = 5;
+    // Time taken by each tick, recorded when metrics are enabled.
+    private static final LatencyHistogram TICK_TIME = Metrics.histogram("game.tick");
+
+    // The level being played.
+    private final Level level;
+    // The inventory of the player.
+    private final PlayerInventory inventory;
+    // The player character.
+    private Player player;
+    // The player, monsters and other actors of the level, in the order they move.
+    private final ActorRegistry actors;
+    // Square each registered actor stood on before the current step, indexed by id.
+    private int[] squaresBefore;
+
+    // Ticks since the player's rules were last evaluated.
+    private int playerTickCounter = 0;
+    // Ticks since the monsters last moved.
+    private int monsterTickCounter = 0;
+    // Number of steps taken since the start of the level.
+    private long tick = 0;
+    // Seconds left to finish the level.
+    private int timeRemaining;
+    // The state of the game after the last step.
+    private StepResult.Status status = StepResult.Status.RUNNING;
+    // Moves made by the player and monsters during the last step.
+    private final ArrayList<ActorMove> lastMoves = new ArrayList<>();
+
+    /**
+     * Constructs a simulation of a level.
+     * Items already picked up in the level are added to the inventory, and the player
+     * and monsters are created from the keys of the actor layer.
+     *
+     * @param level The level to simulate.
+     * @throws IllegalArgumentException If the level has no player.
+     */
+    public Simulation(Level level) {
+        this.level = level;
+        this.inventory = new PlayerInventory();
+        this.timeRemaining = level.getTimeLimit();
+        this.actors = new ActorRegistry(level.getWidth(), level.getHeight());
+        pickUpUnseen();
+        initialiseActors();
+    }
+
+    /**
+     * Advances the game by one tick.
+     * The input, if any, moves the player straight away. Every {@link #PLAYER_TICK} ticks the
+     * player's rules are evaluated, and every {@link #MONSTER_TICK} ticks the monsters move.
+     * Once the level has ended, further steps do nothing and report the final status.
+     *
+     * @param input The direction to move the player in, or null for no input.
+     * @return The outcome of the step.
+     */
+    public StepResult step(Actor.Direction input) {
+        lastMoves.clear();
+        if (status != StepResult.Status.RUNNING) {
+            return new StepResult(status, tick, false, false, false);
+        }
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        tick++;
+        for (int id = 0; id < actors.size(); id++) {
+            squaresBefore[id] = actors.getSquare(id);
+        }
+
+        if (input != null) {
+            player.moveDirection(input, inventory);
+        }
+
+        boolean playerTick = false;
+        boolean inventoryChanged = false;
+        if (playerTickCounter >= PLAYER_TICK) {
+            inventoryChanged = pickUp();
+            onDirt();
+            ActorSystems.collide(actors);
+            status = checkStatus();
+            playerTick = true;
+            playerTickCounter = 0;
+        }
+        playerTickCounter++;
+
+        boolean monsterTick = false;
+        if (status == StepResult.Status.RUNNING && monsterTickCounter >= MONSTER_TICK) {
+            moveMonsters();
+            monsterTick = true;
+            monsterTickCounter = 0;
+        }
+        monsterTickCounter++;
+
+        recordMoves();
+        if (Metrics.ENABLED) {
+            TICK_TIME.recordSince(start);
+        }
+        return new StepResult(status, tick, playerTick, monsterTick, inventoryChanged);
+    }
+
+    /**
+     * Moves every monster once by running the {@link ActorSystems} passes over the registry:
+     * frogs step towards the player, pink balls roll along their direction, and a monster
+     * that reaches the player kills it.
+     */
+    private void moveMonsters() {
+        ActorSystems.update(actors, player.getXPos(), player.getYPos());
+    }
+
+    /**
+     * Records a move for every actor that stands on another square than before the step.
+     */
+    private void recordMoves() {
+        int width = level.getWidth();
+        for (int id = 0; id < actors.size(); id++) {
+            int from = squaresBefore[id];
+            if (actors.getSquare(id) != from) {
+                Actor actor = actors.get(id);
+                lastMoves.add(new ActorMove(actor.getKey(), from % width, from / width, actor.getXPos(), actor.getYPos()));
+            }
+        }
+    }
+
+    /**
+     * Gets the moves made by the player and monsters during the last step.
+     * The list is reused, so callers must not keep it across steps.
+     *
+     * @return The moves of the last step.
+     */
+    public List<ActorMove> getLastMoves() {
+        return lastMoves;
+    }
+
+    /**
+     * Counts down one second of the time limit.
+     * The remaining time is also stored in the level so that saved games resume with it.
+     */
+    public void countDown() {
+        level.setTimeLimit(timeRemaining);
+        timeRemaining--;
+    }
+
+    /**
+     * Determines the state of the game from the player's position and the time left.
+     *
+     * @return The current game status.
+     */
+    private StepResult.Status checkStatus() {
+        if (player.getOnExit()) {
+            return StepResult.Status.COMPLETED;
+        }
+        if (!player.getIsAlive()) {
+            return StepResult.Status.DIED;
+        }
+        if (timeRemaining == 0) {
+            return StepResult.Status.OUT_OF_TIME;
+        }
+        return StepResult.Status.RUNNING;
+    }
+
+    /**
+     * Picks up the item under the player, if there is one that has not been picked up yet.
+     *
+     * @return true if an item was added to the inventory, false otherwise.
+     */
+    private boolean pickUp() {
+        int x = player.getXPos();
+        int y = player.getYPos();
+        Item item = level.getItems().getItem(x, y);
+
+        if (!"II".equals(item.getKey()) && !item.getPickedUp()) {
+            inventory.pickUp(itemKey(item.getKey()));
+            item.pickUp();
+            level.getItems().markDirty(x, y);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Turns the dirt tile under the player into a path tile.
+     */
+    private void onDirt() {
+        int x = player.getXPos();
+        int y = player.getYPos();
+
+        if (level.getTiles().getTile(x, y) instanceof Dirt) {
+            level.getTiles().setTile(x, y, new Path());
+        }
+    }
+
+    /**
+     * Adds every item of the level that has already been picked up to the inventory.
+     */
+    private void pickUpUnseen() {
+        for (int y = level.getHeight() - 1; y >= 0; y--) {
+            for (int x = level.getWidth() - 1; x >= 0; x--) {
+                Item item = level.getItems().getItem(x, y);
+                if (item.getPickedUp()) {
+                    inventory.pickUp(item);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the player and monsters from the keys of the actor layer and registers them, together with
+     * the other actors of the layer, such as blocks. The player is registered first, then the frogs and
+     * then the pink balls, which is the order monsters move in; the new actors replace the ones in the layer.
+     *
+     * @throws IllegalArgumentException If the actor layer has no player.
+     */
+    private void initialiseActors() {
+        ArrayList<Actor> frogs = new ArrayList<>();
+        ArrayList<Actor> pinkBalls = new ArrayList<>();
+        ArrayList<Actor> others = new ArrayList<>();
+        for (int y = level.getHeight() - 1; y >= 0; y--) {
+            for (int x = level.getWidth() - 1; x >= 0; x--) {
+                String key = level.getActors().getKey(x, y);
+                Actor actor = null;
+                switch (key) {
+                    case "PY":
+                        player = new Player(x, y);
+                        actor = player;
+                        break;
+                    case "FG":
+                        Frog frog = new Frog(x, y);
+                        frog.setPathStrategy(level.getPathStrategy());
+                        frogs.add(frog);
+                        actor = frog;
+                        break;
+                    case "PU":
+                    case "PD":
+                    case "PL":
+                    case "PR":
+                        actor = new PinkBall(x, y, getDirectionFromKey(key));
+                        pinkBalls.add(actor);
+                        break;
+                    default:
+                        Actor existing = level.getActors().getActor(x, y);
+                        if (existing != null && !existing.isShareable()) {
+                            existing.setPos(x, y);
+                            others.add(existing);
+                        }
+                        break;
+                }
+                if (actor != null) {
+                    actor.setLayers(level.getActors(), level.getTiles(), level.getItems());
+                    level.getActors().setActor(x, y, actor);
+                }
+            }
+        }
+
+        if (player == null) {
+            throw new IllegalArgumentException("Level has no player: " + level.getFileName());
+        }
+        actors.register(player);
+        for (Actor actor : frogs) {
+            actors.register(actor);
+        }
+        for (Actor actor : pinkBalls) {
+            actors.register(actor);
+        }
+        for (Actor actor : others) {
+            actors.register(actor);
+        }
+        squaresBefore = new int[actors.size()];
+    }
+
+    /**
+     * Gets the level being simulated.
+     *
+     * @return The level.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the inventory of the player.
+     *
+     * @return The player's inventory.
+     */
+    public PlayerInventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Gets the registry of the player, monsters and other actors of the level.
+     *
+     * @return The actor registry.
+     */
+    public ActorRegistry getActors() {
+        return actors;
+    }
+
+    /**
+     * Gets the player character.
+     *
+     * @return The player.
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Gets the number of steps taken since the start of the level.
+     *
+     * @return The step count.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the seconds left to finish the level.
+     *
+     * @return The remaining time.
+     */
+    public int getTimeRemaining() {
+        return timeRemaining;
+    }
+
+    /**
+     * Gets the state of the game after the last step.
+     *
+     * @return The game status.
+     */
+    public StepResult.Status getStatus() {
+        return status;
+    }
+}
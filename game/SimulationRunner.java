@@ -0,0 +1,250 @@
+package game;
+
+import actor.Actor;
+import game.log.Logger;
+import game.metrics.Gauge;
+import game.metrics.Metrics;
+import level.Level;
+
+import java.util.BitSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code SimulationRunner} class runs a {@link Simulation} on a thread of its own, so slow steps, such as
+ * pathfinding on a large level, never hold up input or drawing. Steps are timed by a {@link FixedStepClock}.
+ * After each batch of steps the runner publishes a {@link FrameSnapshot} into a single slot, replacing any
+ * snapshot not taken yet, and a renderer takes the latest one whenever it draws a frame. Because a renderer
+ * may skip snapshots, each one holds every square changed since the last snapshot that was taken.
+ *
+ * <p>Other threads never touch the simulation directly. Input is handed over through an {@link InputBuffer},
+ * drained once per step, and any other work on the level, such as saving it, is passed to
+ * {@link #execute(Runnable)} to be run on the simulation thread between steps. A task that throws is logged
+ * and the thread carries on with the next one.</p>
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.4
+ */
+public class SimulationRunner {
+
+    // Time the thread sleeps while paused or once the level has ended, in nanoseconds.
+    private static final long IDLE_NANOS = 10_000_000L;
+    // Running average of the step time in milliseconds, exported when metrics are enabled.
+    private static final Gauge STEP_MILLIS = Metrics.gauge("simulation.averageStepMillis");
+    // Key presses dropped because the input buffer was full, exported when metrics are enabled.
+    private static final Gauge INPUT_DROPPED = Metrics.gauge("input.dropped");
+    // Logger for tasks that fail or arrive too late.
+    private static final Logger LOG = Logger.getLogger(SimulationRunner.class);
+
+    // The simulation run by this runner; only touched by the simulation thread once started.
+    private final Simulation simulation;
+    // Clock turning elapsed time into steps of a fixed length.
+    private final FixedStepClock clock;
+    // Number of steps in one second of the level's time limit.
+    private final long stepsPerSecond;
+    // Directions pressed by the player and not yet applied.
+    private final InputBuffer input;
+    // Work waiting to be run on the simulation thread.
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // The latest snapshot not taken by the renderer yet, or null.
+    private final AtomicReference<FrameSnapshot> latest = new AtomicReference<>();
+    // Recorder of the input of every step, or null if the game is not recorded.
+    private ReplayRecorder recorder;
+    // Thread running the simulation.
+    private final Thread thread;
+    // Squares changed since the last snapshot known to be taken.
+    private BitSet untaken;
+    // Whether the thread should keep running.
+    private volatile boolean running = true;
+    // Whether the thread has stopped taking tasks; set just before it runs the last of them.
+    private volatile boolean finished;
+    // Whether steps are held back, e.g. while the game is paused.
+    private volatile boolean paused;
+    // Running average of the time taken to simulate a step, in milliseconds.
+    private volatile double averageStepMillis;
+
+    /**
+     * Constructs a runner for a simulation. The simulation must not be used by any other thread afterwards.
+     *
+     * @param simulation       The simulation to run.
+     * @param input            The buffer the player's presses arrive through.
+     * @param stepNanos        The length of one step in nanoseconds.
+     * @param maxStepsPerBatch The largest number of steps caught up at once after the thread fell behind.
+     */
+    public SimulationRunner(Simulation simulation, InputBuffer input, long stepNanos, int maxStepsPerBatch) {
+        this.simulation = simulation;
+        this.input = input;
+        this.clock = new FixedStepClock(stepNanos, maxStepsPerBatch);
+        this.stepsPerSecond = Math.max(1, 1_000_000_000L / stepNanos);
+        this.thread = new Thread(this::run, "simulation");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Records the input of every step from now on. Must be called before {@code start}.
+     *
+     * @param recorder The recorder, created before the first step.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Gets the number of steps in one second of the level's time limit.
+     *
+     * @return The steps per second.
+     */
+    public int getStepsPerSecond() {
+        return (int) stepsPerSecond;
+    }
+
+    /**
+     * Publishes a snapshot of the whole level and starts the simulation thread.
+     */
+    public void start() {
+        Level level = simulation.getLevel();
+        untaken = new BitSet(level.getWidth() * level.getHeight());
+        untaken.set(0, level.getWidth() * level.getHeight());
+        clearDirty(level);
+        latest.set(FrameSnapshot.capture(simulation, untaken, System.nanoTime()));
+        thread.start();
+    }
+
+    /**
+     * Asks the thread to stop after the current step. Work already passed to {@code execute} is still run.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Holds back or resumes the steps. Time spent paused is not caught up afterwards.
+     *
+     * @param paused true to pause the simulation, false to resume it.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Runs work on the simulation thread between two steps, e.g. to save the level while nothing changes it.
+     * Can be called from any thread. Work passed after the thread has run its last tasks is never run; it is
+     * dropped with a warning.
+     *
+     * @param task The work to run.
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        LockSupport.unpark(thread);
+        if (finished && tasks.remove(task)) {
+            LOG.warn("Dropped a task passed after the simulation thread stopped");
+        }
+    }
+
+    /**
+     * Takes the latest snapshot, leaving the slot empty until the next one is published.
+     *
+     * @return The latest snapshot, or null if none was published since the last call.
+     */
+    public FrameSnapshot takeLatest() {
+        return latest.getAndSet(null);
+    }
+
+    /**
+     * Gets the running average of the time taken to simulate one step.
+     *
+     * @return The average step time in milliseconds.
+     */
+    public double getAverageStepMillis() {
+        return averageStepMillis;
+    }
+
+    /**
+     * Steps the simulation as the clock allows until the runner is stopped, publishing a snapshot after each
+     * batch of steps. One second of the time limit is counted down for every second of steps.
+     */
+    private void run() {
+        while (running) {
+            runTasks();
+            if (paused || simulation.getStatus() != StepResult.Status.RUNNING) {
+                clock.pause();
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+            int due = clock.advance(System.nanoTime());
+            boolean stepped = false;
+            for (int i = 0; i < due && simulation.getStatus() == StepResult.Status.RUNNING; i++) {
+                long start = System.nanoTime();
+                Actor.Direction direction = input.poll(start);
+                if (recorder != null) {
+                    recorder.record(direction);
+                }
+                simulation.step(direction);
+                if (simulation.getTick() % stepsPerSecond == 0) {
+                    simulation.countDown();
+                }
+                clock.recordStep(System.nanoTime() - start);
+                stepped = true;
+            }
+            if (stepped) {
+                averageStepMillis = clock.getAverageStepMillis();
+                if (Metrics.ENABLED) {
+                    STEP_MILLIS.set(averageStepMillis);
+                    INPUT_DROPPED.set(input.getDropped());
+                }
+                publish();
+            }
+            LockSupport.parkNanos(clock.getNanosUntilNextStep());
+        }
+        finished = true;
+        runTasks();
+    }
+
+    /**
+     * Runs the work waiting for the simulation thread. A task that throws is logged, so it cannot stop the
+     * thread and freeze the game.
+     */
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                LOG.error("Task on the simulation thread failed", e);
+            }
+        }
+    }
+
+    /**
+     * Publishes a snapshot holding every square changed since the last snapshot that was taken.
+     * If the slot was empty, the previous snapshot was taken, so only the squares changed in this batch
+     * can still be unseen; otherwise the previous snapshot was replaced and its squares stay pending.
+     */
+    private void publish() {
+        Level level = simulation.getLevel();
+        BitSet changed = new BitSet();
+        changed.or(level.getTiles().getDirtyCells());
+        changed.or(level.getItems().getDirtyCells());
+        changed.or(level.getActors().getDirtyCells());
+        clearDirty(level);
+
+        untaken.or(changed);
+        FrameSnapshot frame = FrameSnapshot.capture(simulation, untaken, System.nanoTime());
+        if (latest.getAndSet(frame) == null) {
+            untaken = changed;
+        }
+    }
+
+    /**
+     * Forgets the changed cells of every layer of a level.
+     *
+     * @param level The level.
+     */
+    private static void clearDirty(Level level) {
+        level.getTiles().clearDirty();
+        level.getItems().clearDirty();
+        level.getActors().clearDirty();
+    }
+}
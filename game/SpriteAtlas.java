@@ -0,0 +1,198 @@
+package game;
+
+import game.log.Logger;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@code SpriteAtlas} class packs every sprite used by the game into a single texture.
+ * Each image file is decoded once, scaled to the sprite size, and copied into a square cell of the atlas.
+ * Keys are then resolved to the source rectangle of their cell, so drawing a sprite never decodes an image.
+ * An image that cannot be loaded is logged and its keys are left out, so they are drawn as nothing.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.1
+ */
+public class SpriteAtlas {
+
+    // Logger for images that cannot be loaded.
+    private static final Logger LOG = Logger.getLogger(SpriteAtlas.class);
+
+    // The packed texture holding every sprite.
+    private final WritableImage texture;
+    // Size of a single sprite cell in pixels.
+    private final int cellSize;
+    // Number of cells in each row of the atlas.
+    private final int columns;
+    // Index of the atlas cell for each key.
+    private final Map<String, Integer> keyToCell = new HashMap<>();
+    // Standalone images for keys that are shown outside the canvas, decoded on first use.
+    private final Map<String, Image> imageCache = new HashMap<>();
+    // Image path for each key, kept for the image cache.
+    private final Map<String, String> keyToPath;
+    // Number of image files decoded while building the atlas and filling the cache.
+    private int decodeCount;
+
+    /**
+     * Builds the atlas from a mapping of keys to image file paths.
+     * Keys that share an image path share a single atlas cell. Keys whose image cannot be loaded get no cell.
+     *
+     * @param keyToImage The mapping of keys to image file paths.
+     * @param cellSize   The size in pixels of each sprite cell.
+     */
+    public SpriteAtlas(Map<String, String> keyToImage, int cellSize) {
+        this.cellSize = cellSize;
+        this.keyToPath = new HashMap<>(keyToImage);
+
+        Map<String, Integer> pathToCell = new LinkedHashMap<>();
+        for (String path : keyToImage.values()) {
+            pathToCell.putIfAbsent(path, pathToCell.size());
+        }
+
+        int cellCount = Math.max(1, pathToCell.size());
+        this.columns = (int) Math.ceil(Math.sqrt(cellCount));
+        int rows = (cellCount + columns - 1) / columns;
+        this.texture = new WritableImage(columns * cellSize, rows * cellSize);
+
+        PixelWriter writer = texture.getPixelWriter();
+        Set<String> failedPaths = new HashSet<>();
+        for (Map.Entry<String, Integer> entry : pathToCell.entrySet()) {
+            Image image = decode(entry.getKey());
+            PixelReader reader = image == null ? null : image.getPixelReader();
+            if (reader == null) {
+                failedPaths.add(entry.getKey());
+                continue;
+            }
+            int cell = entry.getValue();
+            writer.setPixels(getSourceX(cell), getSourceY(cell), cellSize, cellSize, reader, 0, 0);
+        }
+
+        for (Map.Entry<String, String> entry : keyToImage.entrySet()) {
+            if (!failedPaths.contains(entry.getValue())) {
+                keyToCell.put(entry.getKey(), pathToCell.get(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Decodes an image file at the sprite size. A file that is missing or cannot be decoded is logged.
+     *
+     * @param path The path of the image file.
+     * @return The decoded image, or null if it cannot be loaded.
+     */
+    private Image decode(String path) {
+        decodeCount++;
+        try {
+            Image image = new Image(path, cellSize, cellSize, false, true);
+            if (image.isError()) {
+                LOG.warn("Could not load sprite {}", path, image.getException());
+                return null;
+            }
+            return image;
+        } catch (RuntimeException e) {
+            LOG.warn("Could not load sprite {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the atlas holds a sprite for a key.
+     *
+     * @param key The key to look up.
+     * @return true if the key has a sprite, false otherwise.
+     */
+    public boolean contains(String key) {
+        return key != null && keyToCell.containsKey(key);
+    }
+
+    /**
+     * Gets the atlas cell index for a key.
+     *
+     * @param key The key to look up.
+     * @return The cell index, or -1 if the key has no sprite.
+     */
+    public int getCell(String key) {
+        Integer cell = key == null ? null : keyToCell.get(key);
+        return cell == null ? -1 : cell;
+    }
+
+    /**
+     * Gets the x-coordinate of the source rectangle of a cell.
+     *
+     * @param cell The cell index.
+     * @return The x-coordinate in pixels within the atlas texture.
+     */
+    public int getSourceX(int cell) {
+        return (cell % columns) * cellSize;
+    }
+
+    /**
+     * Gets the y-coordinate of the source rectangle of a cell.
+     *
+     * @param cell The cell index.
+     * @return The y-coordinate in pixels within the atlas texture.
+     */
+    public int getSourceY(int cell) {
+        return (cell / columns) * cellSize;
+    }
+
+    /**
+     * Gets a standalone image for a key, for use in image views outside the canvas.
+     * The image is decoded on first use and cached afterwards; an image that cannot be loaded is tried again.
+     *
+     * @param key The key to look up.
+     * @return The image for the key, or null if the key has no image or it cannot be loaded.
+     */
+    public Image getImage(String key) {
+        String path = keyToPath.get(key);
+        if (path == null) {
+            return null;
+        }
+        return imageCache.computeIfAbsent(key, k -> decode(path));
+    }
+
+    /**
+     * Gets the packed texture.
+     *
+     * @return The atlas texture.
+     */
+    public Image getTexture() {
+        return texture;
+    }
+
+    /**
+     * Gets the size of a single sprite cell.
+     *
+     * @return The cell size in pixels.
+     */
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Gets the number of image files decoded so far.
+     * This stays constant while the game is running.
+     *
+     * @return The number of decoded image files.
+     */
+    public int getDecodeCount() {
+        return decodeCount;
+    }
+
+    /**
+     * Gets the memory taken by the atlas texture, assuming 4 bytes per pixel.
+     *
+     * @return The size of the texture in bytes.
+     */
+    public long getByteSize() {
+        return (long) texture.getWidth() * (long) texture.getHeight() * 4L;
+    }
+}
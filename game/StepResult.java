@@ -0,0 +1,120 @@
+package game;
+
+/**
+ * The {@code StepResult} class describes the outcome of a single {@link Simulation} step.
+ * It tells the caller whether the game is still running, whether the player's rules were
+ * evaluated on this step, and whether the inventory changed, so that a front end only has
+ * to redraw what the step affected.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class StepResult {
+
+    /**
+     * The state of the game after a step.
+     */
+    public enum Status {
+        // The level is still being played.
+        RUNNING,
+        // The player reached the exit.
+        COMPLETED,
+        // The player was killed.
+        DIED,
+        // The time limit ran out.
+        OUT_OF_TIME
+    }
+
+    // The state of the game after the step.
+    private final Status status;
+    // The number of the step, counted from the start of the level.
+    private final long tick;
+    // Whether the player's rules were evaluated on this step.
+    private final boolean playerTick;
+    // Whether the monsters moved on this step.
+    private final boolean monsterTick;
+    // Whether an item was added to the inventory on this step.
+    private final boolean inventoryChanged;
+
+    /**
+     * Constructs a step result.
+     *
+     * @param status           The state of the game after the step.
+     * @param tick             The number of the step.
+     * @param playerTick       Whether the player's rules were evaluated.
+     * @param monsterTick      Whether the monsters moved.
+     * @param inventoryChanged Whether the inventory changed.
+     */
+    public StepResult(Status status, long tick, boolean playerTick, boolean monsterTick,
+                      boolean inventoryChanged) {
+        this.status = status;
+        this.tick = tick;
+        this.playerTick = playerTick;
+        this.monsterTick = monsterTick;
+        this.inventoryChanged = inventoryChanged;
+    }
+
+    /**
+     * Gets the state of the game after the step.
+     *
+     * @return The game status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks if the level ended on or before this step.
+     *
+     * @return true if the game is no longer running, false otherwise.
+     */
+    public boolean isFinished() {
+        return status != Status.RUNNING;
+    }
+
+    /**
+     * Gets the number of the step, counted from the start of the level.
+     *
+     * @return The step number.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Checks if the player's rules were evaluated on this step.
+     *
+     * @return true if this was a player tick, false otherwise.
+     */
+    public boolean isPlayerTick() {
+        return playerTick;
+    }
+
+    /**
+     * Checks if the monsters moved on this step.
+     *
+     * @return true if this was a monster tick, false otherwise.
+     */
+    public boolean isMonsterTick() {
+        return monsterTick;
+    }
+
+    /**
+     * Checks if an item was added to the inventory on this step.
+     *
+     * @return true if the inventory changed, false otherwise.
+     */
+    public boolean isInventoryChanged() {
+        return inventoryChanged;
+    }
+
+    /**
+     * Returns a string representation of the step result.
+     *
+     * @return The status and step number.
+     */
+    @Override
+    public String toString() {
+        return status + "@" + tick;
+    }
+}
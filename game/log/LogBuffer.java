@@ -0,0 +1,215 @@
+package game.log;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code LogBuffer} class carries log messages from the threads that log them to a background thread
+ * that formats and writes them. Messages are stored unformatted in a bounded ring buffer of parallel arrays:
+ * the logging thread only claims a slot and copies in the level, the time, the message template and its
+ * arguments, so it never formats text, allocates a message or waits for the console. When the buffer is
+ * full, messages are dropped and counted rather than holding up the game.
+ *
+ * <p>Any number of threads can log at once; each slot carries a sequence number telling producers when it
+ * is free and the writer when it is filled. The writer drains the buffer in batches and writes messages at
+ * {@link LogLevel#WARN} and above to standard error, the others to standard output. Messages still in the
+ * buffer when the program exits are written by a shutdown hook.</p>
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+final class LogBuffer {
+
+    // Number of slots, set with -Dgame.log.buffer and rounded up to a power of two.
+    private static final int CAPACITY = Integer.highestOneBit(Math.max(2, Integer.getInteger("game.log.buffer", 4096) - 1)) << 1;
+    // Time the writer sleeps when the buffer is empty, in nanoseconds.
+    private static final long IDLE_NANOS = 2_000_000L;
+    // Format of the time at the start of each line.
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+    // Levels by ordinal, for decoding the buffer.
+    private static final LogLevel[] LEVELS = LogLevel.values();
+
+    // The buffer shared by every logger.
+    static final LogBuffer INSTANCE = new LogBuffer(CAPACITY);
+
+    // Mask turning a sequence number into a slot index.
+    private final int mask;
+    // Sequence number of each slot: its position when free to fill, one more when filled.
+    private final AtomicLongArray sequences;
+    // Ordinal of the level of each message.
+    private final byte[] levels;
+    // Time each message was logged, in milliseconds since the epoch.
+    private final long[] times;
+    // Name of the logger of each message.
+    private final String[] loggers;
+    // Template of each message, with {} where the arguments go.
+    private final String[] templates;
+    // First argument of each message, or null.
+    private final Object[] firstArguments;
+    // Second argument of each message, or null.
+    private final Object[] secondArguments;
+    // Sequence number of the next slot to claim; advanced by the logging threads.
+    private final AtomicLong tail = new AtomicLong();
+    // Sequence number of the next slot to write; only used by the writer thread.
+    private long head;
+    // Number of messages dropped because the buffer was full.
+    private final AtomicLong dropped = new AtomicLong();
+    // Number of dropped messages already reported; only used by the writer thread.
+    private long reportedDropped;
+    // Line being formatted; only used by the writer thread.
+    private final StringBuilder line = new StringBuilder(160);
+
+    /**
+     * Constructs a buffer and starts its writer thread.
+     *
+     * @param capacity The number of slots; must be a power of two.
+     */
+    private LogBuffer(int capacity) {
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.levels = new byte[capacity];
+        this.times = new long[capacity];
+        this.loggers = new String[capacity];
+        this.templates = new String[capacity];
+        this.firstArguments = new Object[capacity];
+        this.secondArguments = new Object[capacity];
+
+        Thread writer = new Thread(this::run, "log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "log-flush"));
+    }
+
+    /**
+     * Stores a message for the writer thread. Can be called from any thread.
+     *
+     * @param level    The level of the message.
+     * @param logger   The name of the logger.
+     * @param template The message, with {} where the arguments go.
+     * @param first    The first argument, or null.
+     * @param second   The second argument, or null.
+     * @return true if the message was stored, false if the buffer was full.
+     */
+    boolean offer(LogLevel level, String logger, String template, Object first, Object second) {
+        long sequence = tail.get();
+        while (true) {
+            int slot = (int) sequence & mask;
+            long difference = sequences.get(slot) - sequence;
+            if (difference == 0) {
+                if (tail.compareAndSet(sequence, sequence + 1)) {
+                    levels[slot] = (byte) level.ordinal();
+                    times[slot] = System.currentTimeMillis();
+                    loggers[slot] = logger;
+                    templates[slot] = template;
+                    firstArguments[slot] = first;
+                    secondArguments[slot] = second;
+                    sequences.lazySet(slot, sequence + 1);
+                    return true;
+                }
+                sequence = tail.get();
+            } else if (difference < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                sequence = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Writes messages as they arrive, sleeping while the buffer is empty.
+     */
+    private void run() {
+        while (true) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Writes every message in the buffer, and a warning if messages were dropped since the last one.
+     * Called by the writer thread, and by the shutdown hook once the game has stopped logging.
+     *
+     * @return The number of messages written.
+     */
+    private synchronized int drain() {
+        int written = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                break;
+            }
+            LogLevel level = LEVELS[levels[slot]];
+            write(level, times[slot], loggers[slot], templates[slot], firstArguments[slot], secondArguments[slot]);
+            loggers[slot] = null;
+            templates[slot] = null;
+            firstArguments[slot] = null;
+            secondArguments[slot] = null;
+            sequences.lazySet(slot, head + mask + 1);
+            head++;
+            written++;
+        }
+        long lost = dropped.get();
+        if (lost != reportedDropped) {
+            write(LogLevel.WARN, System.currentTimeMillis(), "LogBuffer", "{} log messages dropped because the buffer was full",
+                    lost - reportedDropped, null);
+            reportedDropped = lost;
+            written++;
+        }
+        if (written > 0) {
+            System.out.flush();
+            System.err.flush();
+        }
+        return written;
+    }
+
+    /**
+     * Formats one message and writes it to the console. Arguments that are exceptions are not put in the
+     * text; their stack traces are written after it.
+     *
+     * @param level    The level of the message.
+     * @param time     The time the message was logged in milliseconds since the epoch.
+     * @param logger   The name of the logger.
+     * @param template The message, with {} where the arguments go.
+     * @param first    The first argument, or null.
+     * @param second   The second argument, or null.
+     */
+    private void write(LogLevel level, long time, String logger, String template, Object first, Object second) {
+        line.setLength(0);
+        TIME.formatTo(Instant.ofEpochMilli(time), line);
+        line.append(' ').append(level).append(" [").append(logger).append("] ");
+        Object[] arguments = {first, second};
+        int next = 0;
+        int from = 0;
+        int at;
+        while (next < 2 && (at = template.indexOf("{}", from)) >= 0) {
+            while (next < 2 && arguments[next] instanceof Throwable) {
+                next++;
+            }
+            if (next == 2) {
+                break;
+            }
+            line.append(template, from, at).append(arguments[next++]);
+            from = at + 2;
+        }
+        line.append(template, from, template.length());
+
+        PrintStream out = level.compareTo(LogLevel.WARN) >= 0 ? System.err : System.out;
+        out.println(line);
+        for (Object argument : arguments) {
+            if (argument instanceof Throwable) {
+                ((Throwable) argument).printStackTrace(out);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package game.log;
+
+/**
+ * The {@code LogLevel} enum orders log messages by importance. A message is written only if its level is at
+ * least the threshold set with {@code -Dgame.log.level}, which is {@code INFO} by default.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public enum LogLevel {
+    // Detail for following the game tick by tick, such as actor decisions.
+    DEBUG,
+    // Normal events, such as a level being loaded or saved.
+    INFO,
+    // Something went wrong but the game carries on.
+    WARN,
+    // Something failed, such as a file that could not be read or written.
+    ERROR,
+    // Used as a threshold only: nothing is written.
+    OFF
+}
@@ -0,0 +1,215 @@
+package game.log;
+
+import java.util.Locale;
+
+/**
+ * The {@code Logger} class is what the game logs through instead of writing to the console. Each class keeps
+ * its logger in a static field. A call below the threshold set with {@code -Dgame.log.level} returns after a
+ * single comparison; any other call hands the message template and its arguments to the shared
+ * {@link LogBuffer}, and a background thread formats and writes it. The calling thread never builds the text
+ * or waits for the console, so logging from the game loop does not stall it.
+ *
+ * <p>Templates use {@code {}} for each argument, e.g. {@code LOG.debug("Sliding {}", direction)}. An argument
+ * that is an exception is not put in the text; its stack trace is written after the message. Arguments are
+ * formatted later on the writer thread, so they should not be changed after they are logged. A message logged
+ * without arguments is written as it is, even if it contains {@code {}}.</p>
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.1
+ */
+public final class Logger {
+
+    // Lowest level that is written, fixed at startup so disabled calls cost a single comparison.
+    private static final int THRESHOLD = parseThreshold(System.getProperty("game.log.level", "INFO")).ordinal();
+
+    // Name written with each message.
+    private final String name;
+
+    /**
+     * Constructs a logger. Loggers are created through {@link #getLogger(Class)}.
+     *
+     * @param name The name written with each message.
+     */
+    private Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets a logger named after a class.
+     *
+     * @param type The class that logs.
+     * @return The logger.
+     */
+    public static Logger getLogger(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    /**
+     * Reads the threshold set with game.log.level. An unknown level falls back to {@link LogLevel#INFO}
+     * with a warning, so a mistyped option never stops the game from starting.
+     *
+     * @param value The value of the property.
+     * @return The threshold.
+     */
+    private static LogLevel parseThreshold(String value) {
+        try {
+            return LogLevel.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LogBuffer.INSTANCE.offer(LogLevel.WARN, "Logger", "Unknown game.log.level {}, using INFO", value, null);
+            return LogLevel.INFO;
+        }
+    }
+
+    /**
+     * Checks if messages of a level are written. Only needed where working out the arguments is itself costly.
+     *
+     * @param level The level.
+     * @return true if messages of the level are written.
+     */
+    public static boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= THRESHOLD;
+    }
+
+    /**
+     * Checks if debug messages are written.
+     *
+     * @return true if debug messages are written.
+     */
+    public boolean isDebugEnabled() {
+        return THRESHOLD <= 0;
+    }
+
+    /**
+     * Logs a debug message.
+     *
+     * @param message The message.
+     */
+    public void debug(String message) {
+        log(LogLevel.DEBUG, "{}", message, null);
+    }
+
+    /**
+     * Logs a debug message with one argument.
+     *
+     * @param template The message, with {} where the argument goes.
+     * @param argument The argument.
+     */
+    public void debug(String template, Object argument) {
+        log(LogLevel.DEBUG, template, argument, null);
+    }
+
+    /**
+     * Logs a debug message with two arguments.
+     *
+     * @param template The message, with {} where each argument goes.
+     * @param first    The first argument.
+     * @param second   The second argument.
+     */
+    public void debug(String template, Object first, Object second) {
+        log(LogLevel.DEBUG, template, first, second);
+    }
+
+    /**
+     * Logs an information message.
+     *
+     * @param message The message.
+     */
+    public void info(String message) {
+        log(LogLevel.INFO, "{}", message, null);
+    }
+
+    /**
+     * Logs an information message with one argument.
+     *
+     * @param template The message, with {} where the argument goes.
+     * @param argument The argument.
+     */
+    public void info(String template, Object argument) {
+        log(LogLevel.INFO, template, argument, null);
+    }
+
+    /**
+     * Logs an information message with two arguments.
+     *
+     * @param template The message, with {} where each argument goes.
+     * @param first    The first argument.
+     * @param second   The second argument.
+     */
+    public void info(String template, Object first, Object second) {
+        log(LogLevel.INFO, template, first, second);
+    }
+
+    /**
+     * Logs a warning.
+     *
+     * @param message The message.
+     */
+    public void warn(String message) {
+        log(LogLevel.WARN, "{}", message, null);
+    }
+
+    /**
+     * Logs a warning with one argument.
+     *
+     * @param template The message, with {} where the argument goes.
+     * @param argument The argument, or an exception whose stack trace is written after the message.
+     */
+    public void warn(String template, Object argument) {
+        log(LogLevel.WARN, template, argument, null);
+    }
+
+    /**
+     * Logs a warning with two arguments.
+     *
+     * @param template The message, with {} where each argument goes.
+     * @param first    The first argument.
+     * @param second   The second argument, or an exception whose stack trace is written after the message.
+     */
+    public void warn(String template, Object first, Object second) {
+        log(LogLevel.WARN, template, first, second);
+    }
+
+    /**
+     * Logs an error.
+     *
+     * @param message The message.
+     */
+    public void error(String message) {
+        log(LogLevel.ERROR, "{}", message, null);
+    }
+
+    /**
+     * Logs an error with one argument.
+     *
+     * @param template The message, with {} where the argument goes.
+     * @param argument The argument, or an exception whose stack trace is written after the message.
+     */
+    public void error(String template, Object argument) {
+        log(LogLevel.ERROR, template, argument, null);
+    }
+
+    /**
+     * Logs an error with two arguments.
+     *
+     * @param template The message, with {} where each argument goes.
+     * @param first    The first argument.
+     * @param second   The second argument, or an exception whose stack trace is written after the message.
+     */
+    public void error(String template, Object first, Object second) {
+        log(LogLevel.ERROR, template, first, second);
+    }
+
+    /**
+     * Hands a message to the buffer if its level is written.
+     *
+     * @param level    The level of the message.
+     * @param template The message, with {} where the arguments go.
+     * @param first    The first argument, or null.
+     * @param second   The second argument, or null.
+     */
+    private void log(LogLevel level, String template, Object first, Object second) {
+        if (level.ordinal() >= THRESHOLD) {
+            LogBuffer.INSTANCE.offer(level, name, template, first, second);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package game.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code Counter} class counts events, such as nodes expanded by pathfinding.
+ * It can be incremented from any thread without contention.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class Counter {
+
+    // Name the counter is exported under.
+    private final String name;
+    // Sum of everything added so far.
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Constructs a counter starting at zero. Counters are created through {@link Metrics#counter(String)}.
+     *
+     * @param name The name of the counter.
+     */
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds one to the counter.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Adds an amount to the counter.
+     *
+     * @param amount The amount to add.
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Gets the current count.
+     *
+     * @return The sum of everything added so far.
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the name of the counter.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+}
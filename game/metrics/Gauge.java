@@ -0,0 +1,52 @@
+package game.metrics;
+
+/**
+ * The {@code Gauge} class holds the latest value of a quantity that goes up and down,
+ * such as the number of actors in a level. Only the last value set is kept.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class Gauge {
+
+    // Name the gauge is exported under.
+    private final String name;
+    // The latest value.
+    private volatile double value;
+
+    /**
+     * Constructs a gauge starting at zero. Gauges are created through {@link Metrics#gauge(String)}.
+     *
+     * @param name The name of the gauge.
+     */
+    Gauge(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Sets the value of the gauge.
+     *
+     * @param value The new value.
+     */
+    public void set(double value) {
+        this.value = value;
+    }
+
+    /**
+     * Gets the latest value of the gauge.
+     *
+     * @return The value.
+     */
+    public double get() {
+        return value;
+    }
+
+    /**
+     * Gets the name of the gauge.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,272 @@
+package game.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code LatencyHistogram} class records durations in nanoseconds in buckets whose width grows with the
+ * value, in the manner of an HDR histogram. Every power of two is split into {@code 2^SUB_BUCKET_BITS}
+ * buckets, so any recorded value is known to within about 3% while the whole range of a long fits in a fixed
+ * array of counts. Recording is a few shifts and one atomic increment, and can be done from any thread.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class LatencyHistogram {
+
+    // Number of bits of a value kept below its highest set bit; sets the precision of the buckets.
+    private static final int SUB_BUCKET_BITS = 5;
+    // Number of buckets each power of two is split into.
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below this are counted in a bucket of their own.
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    // Total number of buckets, enough for any non-negative long.
+    private static final int BUCKETS = LINEAR_LIMIT + (63 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    // Name the histogram is exported under.
+    private final String name;
+    // Number of values recorded in each bucket.
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    // Number of values recorded.
+    private final AtomicLong count = new AtomicLong();
+    // Sum of the values recorded.
+    private final AtomicLong sum = new AtomicLong();
+    // Largest value recorded.
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Constructs an empty histogram. Histograms are created through {@link Metrics#histogram(String)}.
+     *
+     * @param name The name of the histogram.
+     */
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a duration. Negative durations, e.g. from a clock going backwards, are recorded as zero.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long largest = max.get();
+        while (value > largest && !max.compareAndSet(largest, value)) {
+            largest = max.get();
+        }
+    }
+
+    /**
+     * Records the time passed since a start time.
+     *
+     * @param startNanos The start time, as given by System.nanoTime.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Takes a summary of the values recorded so far.
+     * Percentiles are the largest value of their bucket, but never more than the largest value recorded.
+     * Values recorded while the summary is taken may be counted in some of its fields and not in others.
+     *
+     * @return The summary.
+     */
+    public Summary summarize() {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        long largest = max.get();
+        return new Summary(name, total, total == 0 ? 0 : (double) sum.get() / count.get(),
+                Math.min(largest, valueAt(snapshot, total, 0.50)), Math.min(largest, valueAt(snapshot, total, 0.90)),
+                Math.min(largest, valueAt(snapshot, total, 0.99)), Math.min(largest, valueAt(snapshot, total, 0.999)),
+                largest);
+    }
+
+    /**
+     * Gets the name of the histogram.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Finds the bucket a value is counted in.
+     *
+     * @param value The non-negative value.
+     * @return The index of the bucket.
+     */
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Finds the largest value that is counted in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The largest value of the bucket.
+     */
+    private static long highestIn(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * Finds the value below which a fraction of the recorded values fall.
+     *
+     * @param snapshot The count of each bucket.
+     * @param total    The sum of the counts.
+     * @param fraction The fraction, between 0 and 1.
+     * @return The largest value of the bucket holding the value at the fraction, or 0 if nothing was recorded.
+     */
+    private static long valueAt(long[] snapshot, long total, double fraction) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestIn(i);
+            }
+        }
+        return highestIn(BUCKETS - 1);
+    }
+
+    /**
+     * An immutable summary of a histogram at one moment. All values are in nanoseconds.
+     */
+    public static final class Summary {
+
+        // Name of the histogram.
+        private final String name;
+        // Number of values recorded.
+        private final long count;
+        // Mean of the values recorded.
+        private final double mean;
+        // Median of the values recorded.
+        private final long p50;
+        // 90th percentile of the values recorded.
+        private final long p90;
+        // 99th percentile of the values recorded.
+        private final long p99;
+        // 99.9th percentile of the values recorded.
+        private final long p999;
+        // Largest value recorded.
+        private final long max;
+
+        /**
+         * Constructs a summary.
+         *
+         * @param name  The name of the histogram.
+         * @param count The number of values recorded.
+         * @param mean  The mean of the values.
+         * @param p50   The median.
+         * @param p90   The 90th percentile.
+         * @param p99   The 99th percentile.
+         * @param p999  The 99.9th percentile.
+         * @param max   The largest value.
+         */
+        Summary(String name, long count, double mean, long p50, long p90, long p99, long p999, long max) {
+            this.name = name;
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        /**
+         * Gets the name of the histogram.
+         *
+         * @return The name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the number of values recorded.
+         *
+         * @return The count.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the mean of the values recorded.
+         *
+         * @return The mean in nanoseconds.
+         */
+        public double getMean() {
+            return mean;
+        }
+
+        /**
+         * Gets the median of the values recorded.
+         *
+         * @return The median in nanoseconds.
+         */
+        public long getP50() {
+            return p50;
+        }
+
+        /**
+         * Gets the 90th percentile of the values recorded.
+         *
+         * @return The percentile in nanoseconds.
+         */
+        public long getP90() {
+            return p90;
+        }
+
+        /**
+         * Gets the 99th percentile of the values recorded.
+         *
+         * @return The percentile in nanoseconds.
+         */
+        public long getP99() {
+            return p99;
+        }
+
+        /**
+         * Gets the 99.9th percentile of the values recorded.
+         *
+         * @return The percentile in nanoseconds.
+         */
+        public long getP999() {
+            return p999;
+        }
+
+        /**
+         * Gets the largest value recorded.
+         *
+         * @return The maximum in nanoseconds.
+         */
+        public long getMax() {
+            return max;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package game.metrics;
+
+import game.log.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code Metrics} class is the registry of the game's counters, gauges and latency histograms.
+ * Code that measures something keeps the metric it gets from here in a static field, and guards the
+ * measurement with {@link #ENABLED}, so when metrics are off the JIT removes the measuring code entirely.
+ *
+ * <p>Metrics are turned on with {@code -Dgame.metrics=true}. A background thread then writes a
+ * {@link MetricsSnapshot} every {@code game.metrics.interval} milliseconds (5000 by default), and once more
+ * when the program exits, to the file named by {@code game.metrics.file} (metrics/metrics.json by default).
+ * The file is written as CSV if its name ends in .csv, and as JSON otherwise.</p>
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.1
+ */
+public final class Metrics {
+
+    // Whether metrics are recorded; fixed at startup so disabled measurements can be compiled away.
+    public static final boolean ENABLED = Boolean.getBoolean("game.metrics");
+    // File the snapshots are written to.
+    private static final String FILE = System.getProperty("game.metrics.file", "metrics/metrics.json");
+    // Time between two snapshots written to the file, in milliseconds.
+    private static final long INTERVAL_MILLIS = Long.getLong("game.metrics.interval", 5000L);
+
+    // Logger for failed reports.
+    private static final Logger LOG = Logger.getLogger(Metrics.class);
+
+    // Counters by name.
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    // Gauges by name.
+    private static final Map<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+    // Histograms by name.
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            startReporting(Paths.get(FILE), INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * Prevents instances; the registry is reached through static methods.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Gets the counter with a name, creating it the first time.
+     *
+     * @param name The name of the counter.
+     * @return The counter.
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Gets the gauge with a name, creating it the first time.
+     *
+     * @param name The name of the gauge.
+     * @return The gauge.
+     */
+    public static Gauge gauge(String name) {
+        return GAUGES.computeIfAbsent(name, Gauge::new);
+    }
+
+    /**
+     * Gets the latency histogram with a name, creating it the first time.
+     *
+     * @param name The name of the histogram.
+     * @return The histogram.
+     */
+    public static LatencyHistogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Takes a snapshot of every metric.
+     *
+     * @return The snapshot, with the metrics in name order.
+     */
+    public static MetricsSnapshot snapshot() {
+        Map<String, Long> counters = new TreeMap<>();
+        for (Counter counter : COUNTERS.values()) {
+            counters.put(counter.getName(), counter.get());
+        }
+        Map<String, Double> gauges = new TreeMap<>();
+        for (Gauge gauge : GAUGES.values()) {
+            gauges.put(gauge.getName(), gauge.get());
+        }
+        Map<String, LatencyHistogram.Summary> summaries = new TreeMap<>();
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            summaries.put(histogram.getName(), histogram.summarize());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), counters, gauges, new ArrayList<>(summaries.values()));
+    }
+
+    /**
+     * Writes a snapshot of every metric to a file, replacing it in one step so readers never see half a file.
+     *
+     * @param path The path of the file; written as CSV if it ends in .csv, and as JSON otherwise.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path) throws IOException {
+        MetricsSnapshot snapshot = snapshot();
+        String text = path.toString().endsWith(".csv") ? snapshot.toCsv() : snapshot.toJson();
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temporary, text.getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Starts writing snapshots to a file on a background thread, and once more when the program exits.
+     *
+     * @param path           The path of the file.
+     * @param intervalMillis The time between two snapshots in milliseconds.
+     */
+    private static void startReporting(Path path, long intervalMillis) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runnable report = () -> {
+            try {
+                write(path);
+            } catch (IOException e) {
+                LOG.warn("Could not write metrics to {}: {}", path, e.getMessage());
+            }
+        };
+        reporter.scheduleAtFixedRate(report, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(report, "metrics-final-report"));
+    }
+}
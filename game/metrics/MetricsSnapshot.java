@@ -0,0 +1,164 @@
+package game.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The {@code MetricsSnapshot} class is an immutable copy of every metric at one moment, in name order,
+ * which can be written out as JSON or CSV. Durations are exported in microseconds.
+ *
+ * @author Shane Lee, Aeron Vergara
+ * @version 1.0
+ */
+public final class MetricsSnapshot {
+
+    // Header row of the CSV export.
+    private static final String CSV_HEADER = "type,name,count,value,mean_us,p50_us,p90_us,p99_us,p999_us,max_us";
+
+    // Time the snapshot was taken, in milliseconds since the epoch.
+    private final long takenAt;
+    // Value of each counter, by name.
+    private final Map<String, Long> counters;
+    // Value of each gauge, by name.
+    private final Map<String, Double> gauges;
+    // Summary of each histogram, in name order.
+    private final List<LatencyHistogram.Summary> histograms;
+
+    /**
+     * Constructs a snapshot. The maps and list are owned by the snapshot from now on.
+     *
+     * @param takenAt    The time the snapshot was taken in milliseconds since the epoch.
+     * @param counters   The value of each counter, sorted by name.
+     * @param gauges     The value of each gauge, sorted by name.
+     * @param histograms The summary of each histogram, sorted by name.
+     */
+    MetricsSnapshot(long takenAt, Map<String, Long> counters, Map<String, Double> gauges,
+                    List<LatencyHistogram.Summary> histograms) {
+        this.takenAt = takenAt;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.gauges = Collections.unmodifiableMap(gauges);
+        this.histograms = Collections.unmodifiableList(histograms);
+    }
+
+    /**
+     * Gets the time the snapshot was taken.
+     *
+     * @return The time in milliseconds since the epoch.
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Gets the value of every counter.
+     *
+     * @return An unmodifiable map of counter values by name.
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Gets the value of every gauge.
+     *
+     * @return An unmodifiable map of gauge values by name.
+     */
+    public Map<String, Double> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * Gets the summary of every histogram.
+     *
+     * @return An unmodifiable list of summaries in name order.
+     */
+    public List<LatencyHistogram.Summary> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Writes the snapshot as a JSON object with a field for each kind of metric.
+     *
+     * @return The JSON text.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\n  \"takenAt\": ").append(takenAt).append(",\n  \"counters\": {");
+        String separator = "";
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            json.append(separator).append("\n    \"").append(counter.getKey()).append("\": ").append(counter.getValue());
+            separator = ",";
+        }
+        json.append("\n  },\n  \"gauges\": {");
+        separator = "";
+        for (Map.Entry<String, Double> gauge : gauges.entrySet()) {
+            json.append(separator).append("\n    \"").append(gauge.getKey()).append("\": ")
+                    .append(number(gauge.getValue()));
+            separator = ",";
+        }
+        json.append("\n  },\n  \"histograms\": {");
+        separator = "";
+        for (LatencyHistogram.Summary histogram : histograms) {
+            json.append(separator).append("\n    \"").append(histogram.getName()).append("\": {")
+                    .append("\"count\": ").append(histogram.getCount())
+                    .append(", \"mean_us\": ").append(micros(histogram.getMean()))
+                    .append(", \"p50_us\": ").append(micros(histogram.getP50()))
+                    .append(", \"p90_us\": ").append(micros(histogram.getP90()))
+                    .append(", \"p99_us\": ").append(micros(histogram.getP99()))
+                    .append(", \"p999_us\": ").append(micros(histogram.getP999()))
+                    .append(", \"max_us\": ").append(micros(histogram.getMax()))
+                    .append('}');
+            separator = ",";
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    /**
+     * Writes the snapshot as CSV, one row per metric, with the columns that do not apply to a metric left empty.
+     *
+     * @return The CSV text, starting with a header row.
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder(256).append(CSV_HEADER).append('\n');
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            csv.append("counter,").append(counter.getKey()).append(",,").append(counter.getValue())
+                    .append(",,,,,,\n");
+        }
+        for (Map.Entry<String, Double> gauge : gauges.entrySet()) {
+            csv.append("gauge,").append(gauge.getKey()).append(",,").append(number(gauge.getValue()))
+                    .append(",,,,,,\n");
+        }
+        for (LatencyHistogram.Summary histogram : histograms) {
+            csv.append("histogram,").append(histogram.getName()).append(',').append(histogram.getCount())
+                    .append(",,").append(micros(histogram.getMean()))
+                    .append(',').append(micros(histogram.getP50()))
+                    .append(',').append(micros(histogram.getP90()))
+                    .append(',').append(micros(histogram.getP99()))
+                    .append(',').append(micros(histogram.getP999()))
+                    .append(',').append(micros(histogram.getMax())).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Formats a duration in nanoseconds as microseconds.
+     *
+     * @param nanos The duration in nanoseconds.
+     * @return The duration in microseconds with one decimal.
+     */
+    private static String micros(double nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1000.0);
+    }
+
+    /**
+     * Formats a gauge value as a JSON and CSV number; values that are not finite are written as 0.
+     *
+     * @param value The value.
+     * @return The formatted value.
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.3f", value) : "0";
+    }
+}
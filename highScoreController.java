@@ -1,3 +1,4 @@
+import game.log.Logger;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -9,10 +10,13 @@ import javafx.scene.layout.Pane;
  * Handle actions related to navigating back to the main menu.
  *
  * @author Shane Lee, Aeron Vergara
- * @version 1.4
+ * @version 1.5
  */
 public class highScoreController {
 
+    // Logger for failed scene changes.
+    private static final Logger LOG = Logger.getLogger(highScoreController.class);
+
 
     @FXML
     private Button back;
@@ -34,7 +38,7 @@ public class highScoreController {
             newStage.setScene(new Scene(root));
             newStage.show();
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not open the high score table", e);
         }
     }*/
 
@@ -50,7 +54,7 @@ public class highScoreController {
             MainMenuTest.mainScene.setRoot(root);
 
         } catch (Exception e) {
-            e.printStackTrace();
+            LOG.error("Could not load the main menu", e);
         }
     }
 
@@ -8,7 +8,7 @@ import java.awt.*;
  * making it distinct and potentially corresponding to specific doors or obstacles.
  *
  * @author Max Holloway, Tanvir Ahmed, Carl Antill, Tomas Williams
- * @version 1.5
+ * @version 1.6
  */
 public class ColourKey extends Item {
 
@@ -42,6 +42,7 @@ public class ColourKey extends Item {
      */
     public ColourKey(Boolean pickedUp, Color colour) {
         super(pickedUp);
+        this.colour = colour;
         this.key = createKey(pickedUp, colour);
     }
 
@@ -19,4 +19,14 @@ public class EmptyItem extends Item {
         super(false);
         this.key = "II";
     }
+
+    /**
+     * Checks if this empty item can be shared between cells.
+     *
+     * @return Always true, as empty items hold no per-cell state.
+     */
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
 }
@@ -1,5 +1,7 @@
 package item;
 
+import level.Keyed;
+
 import java.awt.*;
 
 import static java.awt.Color.*;
@@ -12,7 +14,7 @@ import static java.awt.Color.*;
  * @author Max Holloway, Tanvir Ahmed, Carl Antill, Tomas Williams
  * @version 1.4
  */
-public class Item {
+public class Item implements Keyed {
 
     // Indicates whether the item has been picked up.
     protected Boolean pickedUp;
@@ -0,0 +1,36 @@
+package level;
+
+/**
+ * The {@code ArrayLayerStorage} class keeps one element reference per cell in a flat array.
+ * It is the simplest storage and is used for small layers.
+ *
+ * @param <T> The type of elements stored in the layer.
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+class ArrayLayerStorage<T extends Keyed> implements LayerStorage<T> {
+
+    // Element of each cell, indexed by y * width + x.
+    private final Keyed[] cells;
+
+    /**
+     * Constructs an empty storage for the given number of cells.
+     *
+     * @param size The number of cells in the layer.
+     */
+    ArrayLayerStorage(int size) {
+        this.cells = new Keyed[size];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) cells[index];
+    }
+
+    @Override
+    public void set(int index, T element) {
+        cells[index] = element;
+    }
+}
@@ -0,0 +1,199 @@
+package level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The {@code CompactLayerStorage} class keeps a layer as one byte code per cell, for large levels.
+ * Shareable elements (see {@link Keyed#isShareable()}) such as paths, walls and water are stored once
+ * in a palette and every cell with the same key points at that single instance.
+ * All other elements, e.g. traps, doors and buttons, keep their own instance in a sparse side table.
+ *
+ * @param <T> The type of elements stored in the layer.
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+class CompactLayerStorage<T extends Keyed> implements LayerStorage<T> {
+
+    // Code of an empty cell.
+    private static final int EMPTY = 0;
+    // Code of a cell whose element is kept in the side table.
+    private static final int STATEFUL = 1;
+    // Code of the first palette entry.
+    private static final int FIRST_SHARED = 2;
+    // Number of palette entries that fit in a byte code.
+    private static final int MAX_SHARED = 256 - FIRST_SHARED;
+    // Marker for a free slot in the side table.
+    private static final int FREE = -1;
+
+    // Code of each cell, indexed by y * width + x.
+    private final byte[] codes;
+    // Shared elements, indexed by code - FIRST_SHARED.
+    private final ArrayList<T> palette = new ArrayList<>();
+    // Palette code of each shared key.
+    private final HashMap<String, Integer> paletteCodes = new HashMap<>();
+
+    // Cell indexes of the side table, using open addressing.
+    private int[] sideKeys;
+    // Elements of the side table, at the same slot as their cell index.
+    private Object[] sideValues;
+    // Number of elements in the side table.
+    private int sideSize;
+
+    /**
+     * Constructs an empty storage for the given number of cells.
+     *
+     * @param size The number of cells in the layer.
+     */
+    CompactLayerStorage(int size) {
+        this.codes = new byte[size];
+        this.sideKeys = new int[16];
+        this.sideValues = new Object[16];
+        Arrays.fill(sideKeys, FREE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        int code = codes[index] & 0xFF;
+        if (code == EMPTY) {
+            return null;
+        } else if (code == STATEFUL) {
+            int slot = findSlot(index);
+            return sideKeys[slot] == FREE ? null : (T) sideValues[slot];
+        }
+        return palette.get(code - FIRST_SHARED);
+    }
+
+    @Override
+    public void set(int index, T element) {
+        if ((codes[index] & 0xFF) == STATEFUL) {
+            removeSide(index);
+        }
+        if (element == null) {
+            codes[index] = EMPTY;
+            return;
+        }
+        int code = element.isShareable() ? sharedCode(element) : STATEFUL;
+        if (code == STATEFUL) {
+            putSide(index, element);
+        }
+        codes[index] = (byte) code;
+    }
+
+    /**
+     * Gets the palette code for a shareable element, adding it to the palette if its key is new.
+     *
+     * @param element The shareable element.
+     * @return The palette code, or {@code STATEFUL} if the palette is full.
+     */
+    private int sharedCode(T element) {
+        Integer code = paletteCodes.get(element.getKey());
+        if (code == null) {
+            if (palette.size() >= MAX_SHARED) {
+                return STATEFUL;
+            }
+            code = FIRST_SHARED + palette.size();
+            palette.add(element);
+            paletteCodes.put(element.getKey(), code);
+        }
+        return code;
+    }
+
+    /**
+     * Finds the side table slot of a cell index, or the free slot where it would be inserted.
+     *
+     * @param index The cell index.
+     * @return The slot in the side table.
+     */
+    private int findSlot(int index) {
+        int mask = sideKeys.length - 1;
+        int slot = home(index, mask);
+        while (sideKeys[slot] != FREE && sideKeys[slot] != index) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the preferred side table slot of a cell index.
+     *
+     * @param index The cell index.
+     * @param mask  The side table capacity minus one.
+     * @return The preferred slot.
+     */
+    private static int home(int index, int mask) {
+        int hash = index * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Stores an element in the side table, growing the table when it is three quarters full.
+     *
+     * @param index   The cell index.
+     * @param element The element to store.
+     */
+    private void putSide(int index, T element) {
+        if ((sideSize + 1) * 4 > sideKeys.length * 3) {
+            growSide();
+        }
+        int slot = findSlot(index);
+        if (sideKeys[slot] == FREE) {
+            sideKeys[slot] = index;
+            sideSize++;
+        }
+        sideValues[slot] = element;
+    }
+
+    /**
+     * Removes a cell from the side table, shifting later entries back to keep probe chains intact.
+     *
+     * @param index The cell index.
+     */
+    private void removeSide(int index) {
+        int mask = sideKeys.length - 1;
+        int gap = findSlot(index);
+        if (sideKeys[gap] == FREE) {
+            return;
+        }
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (sideKeys[slot] == FREE) {
+                break;
+            }
+            int preferred = home(sideKeys[slot], mask);
+            boolean reachable = gap < slot
+                    ? preferred > gap && preferred <= slot
+                    : preferred > gap || preferred <= slot;
+            if (!reachable) {
+                sideKeys[gap] = sideKeys[slot];
+                sideValues[gap] = sideValues[slot];
+                gap = slot;
+            }
+        }
+        sideKeys[gap] = FREE;
+        sideValues[gap] = null;
+        sideSize--;
+    }
+
+    /**
+     * Doubles the capacity of the side table and re-inserts every entry.
+     */
+    @SuppressWarnings("unchecked")
+    private void growSide() {
+        int[] oldKeys = sideKeys;
+        Object[] oldValues = sideValues;
+        sideKeys = new int[oldKeys.length * 2];
+        sideValues = new Object[oldValues.length * 2];
+        Arrays.fill(sideKeys, FREE);
+        sideSize = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                putSide(oldKeys[i], (T) oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package level;
+
+/**
+ * The {@code Keyed} interface is implemented by every element that can be stored in a {@code Layer}.
+ * The key is the short code used to identify the element in level files, e.g. "PA" for a path tile.
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+public interface Keyed {
+
+    /**
+     * Gets the key identifying this element.
+     *
+     * @return The key of the element.
+     */
+    String getKey();
+
+    /**
+     * Checks if a single instance of this element can stand for every cell with the same key.
+     * Shareable elements hold no per-cell state, so large layers store them only once and
+     * their position fields are not meaningful.
+     *
+     * @return true if the element can be shared between cells, false otherwise.
+     */
+    default boolean isShareable() {
+        return false;
+    }
+}
@@ -4,9 +4,8 @@ import actor.*;
 import item.ColourKey;
 import item.Item;
 import tile.*;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.BitSet;
 import static level.ActorFactory.actorKey;
 import static level.ItemFactory.itemKey;
 import static level.TileFactory.tileKey;
@@ -14,24 +13,32 @@ import static level.TileFactory.tileKey;
 /**
  * The {@code Layer} class represents a layer in a game level, containing a grid of objects such as actors, items, or tiles.
  * The class is generic, allowing for different types of objects to be stored in a single layer.
- * It includes methods for populating the layer, writing the layer to a data structure, managing game elements like traps,
- * and linking game elements such as traps with levers.
+ * It includes methods for populating the layer, writing the layer to a data structure, and finding game elements like traps.
+ * Traps are linked with their buttons by the level's {@code TrapIndex}.
  *
  * @param <T> The type of objects stored in the layer, e.g., {@code Actor}, {@code Item}, {@code Tile}.
+ *            Every stored type implements {@code Keyed}, so keys are read without reflection.
  *
  * @author Max Holloway, Tanvir Ahmed
- * @version 1.8
+ * @version 2.0
  */
-public class Layer<T> {
+public class Layer<T extends Keyed> {
 
-    // 2D array representing the data stored in the layer. It holds objects of type T.
-    private T[][] data;
+    // Layers with more cells than this keep their elements in compact storage.
+    public static final int COMPACT_THRESHOLD = 64 * 64;
+
+    // Storage holding the objects of type T, indexed by y * width + x.
+    private LayerStorage<T> storage;
     // The width of the layer, indicating the number of columns.
     private int width;
     // The height of the layer, indicating the number of rows.
     private int height;
     // The time limit for the layer, often relevant in time-based levels or challenges.
     private int timeLimit;
+    // Cells changed since the last repaint, indexed by y * width + x.
+    private final BitSet dirtyCells = new BitSet();
+    // Number of changes made to the layer, so readers can tell if cached results are stale.
+    private int version;
 
     /**
      * Constructs a new Layer with specified dimensions, time limit, and initial data.
@@ -45,10 +52,40 @@ public class Layer<T> {
         this.width = (width);
         this.height = (height);
         this.timeLimit = timeLimit;
-        this.data = (T[][]) new Object[height][width];
+        this.storage = createStorage(width * height);
         populateLayer(layerBlock);
     }
 
+    /**
+     * Constructs an empty layer with specified dimensions and time limit.
+     * Used by the level reader, which fills the cells with {@code put} as it parses them.
+     *
+     * @param width     The width of the layer.
+     * @param height    The height of the layer.
+     * @param timeLimit The time limit for the layer, used in time-based game levels.
+     */
+    Layer(int width, int height, int timeLimit){
+        this.width = width;
+        this.height = height;
+        this.timeLimit = timeLimit;
+        this.storage = createStorage(width * height);
+    }
+
+    /**
+     * Chooses the storage for a layer of the given size.
+     * Small layers keep one reference per cell; large layers share a single instance for
+     * every stateless cell with the same key and keep the rest in a sparse side table.
+     *
+     * @param size The number of cells in the layer.
+     * @return The storage for the layer.
+     */
+    private static <T extends Keyed> LayerStorage<T> createStorage(int size) {
+        if (size > COMPACT_THRESHOLD) {
+            return new CompactLayerStorage<>(size);
+        }
+        return new ArrayLayerStorage<>(size);
+    }
+
     /**
      * Populates the layer with objects based on the provided data block.
      *
@@ -57,11 +94,21 @@ public class Layer<T> {
     public void populateLayer(String[][] layerBlock) {
         for (int y = height - 1; y >=0; y--) {
             for (int x = width - 1; x >= 0; x--) {
-                this.data[y][x] = createObject(layerBlock[y][x], x, y);
+                storage.set(y * width + x, createObject(layerBlock[y][x], x, y));
             }
         }
     }
 
+    /**
+     * Stores an element in a cell while the layer is being built, without marking the cell as changed.
+     *
+     * @param index   The index {@code y * width + x} of the cell.
+     * @param element The element to store.
+     */
+    void put(int index, T element){
+        storage.set(index, element);
+    }
+
     /**
      * Creates an object based on a key and its position.
      * The method determines the type of object (Actor, Item, Tile) based on the key and creates it.
@@ -99,9 +146,8 @@ public class Layer<T> {
     public String[][] writeLayer() {
         String[][] layer = new String[height][width];
         for (int y = height - 1; y >=0; y--) {
-            StringBuilder rowBuilder = new StringBuilder();
             for (int x = width - 1; x >= 0; x--) { // Fix: Change loop condition
-                T element = this.data[y][x];
+                T element = getEntity(x, y);
                 layer[y][x] = getKey(element);
             }
         }
@@ -118,9 +164,8 @@ public class Layer<T> {
     public String[][] writeLayerNoPickedUp(){
         String[][] layer = new String[height][width];
         for (int y = height - 1; y >=0; y--) {
-            StringBuilder rowBuilder = new StringBuilder();
             for (int x = width - 1; x >= 0; x--) { // Fix: Change loop condition
-                T element = this.data[y][x];
+                T element = getEntity(x, y);
                 String key = getKey(element);
                 if (element instanceof ColourKey){
                     if (((ColourKey) element).getPickedUp()){
@@ -134,28 +179,27 @@ public class Layer<T> {
     }
 
     /**
-     * Retrieves the key of an element in the layer using reflection.
-     * This method uses reflection to call the {@code getKey} method on the element, if it exists.
+     * Retrieves the key of an element in the layer.
      *
      * @param element The element for which the key is to be retrieved.
      * @return The key of the element as a String, or "##" if the element is null.
      */
     public String getKey(T element){
-        if (element != null){
-            try {
-                Method getKeyMethod = element.getClass().getMethod("getKey");
-                Object result = getKeyMethod.invoke(element);
-                if (result instanceof String) {
-                    return (String) result;
-                }
-            } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace(); // Handle the exception appropriately
-
-            }
-        } else {
+        if (element == null) {
             return "##";
         }
-        return null;
+        return element.getKey();
+    }
+
+    /**
+     * Retrieves the key of the element at the specified coordinates.
+     *
+     * @param x The x-coordinate of the element.
+     * @param y The y-coordinate of the element.
+     * @return The key of the element as a String, or "##" if the cell is empty.
+     */
+    public String getKey(int x, int y){
+        return getKey(getEntity(x, y));
     }
 
 
@@ -169,7 +213,7 @@ public class Layer<T> {
         ArrayList<Trap> trapList = new ArrayList<>();
         for (int y = height - 1; y >=0; y--) {
             for (int x = width - 1; x >= 0; x--) {
-                T element = this.data[y][x];
+                T element = getEntity(x, y);
                 if (element instanceof Trap){
                     trapList.add((Trap) element);
                 }
@@ -189,7 +233,7 @@ public class Layer<T> {
         ArrayList<Item> updatedInventory = new ArrayList<>();
         for (int y = height - 1; y >=0; y--) {
             for (int x = width - 1; x >= 0; x--) {
-                T element = this.data[y][x];
+                T element = getEntity(x, y);
                 if (element instanceof Item){
                     updatedInventory.add((Item) element);
                 }
@@ -199,36 +243,18 @@ public class Layer<T> {
     }
 
     /**
-     * Links traps with their corresponding game buttons based on matching numbers.
-     * This method establishes a connection between each trap and its associated game button,
-     * allowing for the game logic to interactively control traps via buttons.
+     * Converts coordinates to an index into the storage.
      *
-     * @param trapList A list of traps to be linked with game buttons.
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The index of the cell.
+     * @throws IndexOutOfBoundsException If the coordinates are outside the layer.
      */
-    public void linkTraps(ArrayList<Trap> trapList){
-        for (int y = height - 1; y >=0; y--) {
-            for (int x = width - 1; x >= 0; x--) {
-                T element = this.data[y][x];
-                if (element instanceof GameButton) {
-                    for (Trap trap : trapList) {
-                        if (((GameButton) element).getNumber() == trap.getNumber()) {
-                            linkTrapWithLever((GameButton) element, trap);
-                        }
-                    }
-                }
-            }
+    private int indexOf(int x, int y){
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new IndexOutOfBoundsException("Cell (" + x + ", " + y + ") is outside the layer");
         }
-    }
-
-    /**
-     * Links a specific trap with a game button.
-     * This helper method associates a trap with a game button, allowing the button to control the trap's state.
-     *
-     * @param gameButton The game button to be linked.
-     * @param trap       The trap to be linked to the game button.
-     */
-    private void linkTrapWithLever(GameButton gameButton, Trap trap) {
-        gameButton.addAssociatedTrap(trap);
+        return y * width + x;
     }
 
     /**
@@ -239,16 +265,23 @@ public class Layer<T> {
      * @return The object at the specified coordinates.
      */
     public T getObject(int x, int y){
-        return this.data[y][x];
+        return storage.get(indexOf(x, y));
     }
 
     /**
      * Gets the entire data of the layer as a 2D array.
+     * The array is a copy; changing it does not change the layer.
      *
      * @return The 2D array representing the layer's data.
      */
     public T[][] getData(){
-        return this.data;
+        T[][] data = (T[][]) new Keyed[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                data[y][x] = getEntity(x, y);
+            }
+        }
+        return data;
     }
 
     /**
@@ -259,7 +292,7 @@ public class Layer<T> {
      * @return The tile at the specified coordinates.
      */
     public Tile getTile(int x, int y){
-        return (Tile) this.data[y][x];
+        return (Tile) storage.get(indexOf(x, y));
     }
 
     /**
@@ -270,7 +303,7 @@ public class Layer<T> {
      * @return The actor at the specified coordinates.
      */
     public Actor getActor(int x, int y){
-        return (Actor) this.data[y][x];
+        return (Actor) storage.get(indexOf(x, y));
     }
 
     /**
@@ -281,7 +314,7 @@ public class Layer<T> {
      * @return The item at the specified coordinates.
      */
     public Item getItem(int x, int y){
-        return (Item) this.data[y][x];
+        return (Item) storage.get(indexOf(x, y));
     }
 
     /**
@@ -292,7 +325,8 @@ public class Layer<T> {
      * @param tile The tile to be set at the specified coordinates.
      */
     public void setTile(int x, int y, Tile tile){
-        data[y][x] = (T) tile;
+        storage.set(indexOf(x, y), (T) tile);
+        markDirty(x, y);
     }
 
     /**
@@ -303,7 +337,8 @@ public class Layer<T> {
      * @param actor The actor to be set at the specified coordinates.
      */
     public void setActor(int x, int y, Actor actor){
-        data[y][x] = (T) actor;
+        storage.set(indexOf(x, y), (T) actor);
+        markDirty(x, y);
     }
 
     /**
@@ -314,7 +349,47 @@ public class Layer<T> {
      * @param item The item to be set at the specified coordinates.
      */
     public void setItem(int x, int y, Item item){
-        data[y][x] = (T) item;
+        storage.set(indexOf(x, y), (T) item);
+        markDirty(x, y);
+    }
+
+    /**
+     * Marks a cell as changed so that it is repainted on the next frame.
+     * The setters call this automatically; it only needs to be called directly when
+     * an element changes in place, e.g. when an item is picked up.
+     *
+     * @param x The x-coordinate of the changed cell.
+     * @param y The y-coordinate of the changed cell.
+     */
+    public void markDirty(int x, int y){
+        dirtyCells.set(y * width + x);
+        version++;
+    }
+
+    /**
+     * Gets the number of changes made to the layer through its setters and {@code markDirty}.
+     * Anything computed from the layer is still valid while the version stays the same.
+     *
+     * @return The version of the layer.
+     */
+    public int getVersion(){
+        return version;
+    }
+
+    /**
+     * Gets the cells changed since the last repaint, indexed by {@code y * width + x}.
+     *
+     * @return The set of changed cells.
+     */
+    public BitSet getDirtyCells(){
+        return dirtyCells;
+    }
+
+    /**
+     * Forgets all changed cells, typically once they have been repainted.
+     */
+    public void clearDirty(){
+        dirtyCells.clear();
     }
 
     /**
@@ -380,7 +455,7 @@ public class Layer<T> {
      * @return The entity at the specified coordinates.
      */
     public T getEntity(int x, int y){
-        return this.data[y][x];
+        return storage.get(indexOf(x, y));
     }
 
     /**
@@ -391,6 +466,11 @@ public class Layer<T> {
      * @param data The new data array to set for the layer.
      */
     public void setData(T[][] data) {
-        this.data = data;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                storage.set(y * width + x, data[y][x]);
+                markDirty(x, y);
+            }
+        }
     }
 }
@@ -0,0 +1,29 @@
+package level;
+
+/**
+ * The {@code LayerStorage} interface describes how a {@code Layer} keeps its cells in memory.
+ * Cells are addressed by their index {@code y * width + x}.
+ *
+ * @param <T> The type of elements stored in the layer.
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+interface LayerStorage<T extends Keyed> {
+
+    /**
+     * Gets the element stored in a cell.
+     *
+     * @param index The index of the cell.
+     * @return The element in the cell, or null if the cell is empty.
+     */
+    T get(int index);
+
+    /**
+     * Stores an element in a cell, replacing the previous one.
+     *
+     * @param index   The index of the cell.
+     * @param element The element to store, or null to empty the cell.
+     */
+    void set(int index, T element);
+}
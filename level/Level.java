@@ -6,6 +6,7 @@ import item.EmptyItem;
 import item.Item;
 import tile.*;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import static level.LevelReader.readLevelFromFile;
 
@@ -16,7 +17,7 @@ import static level.LevelReader.readLevelFromFile;
  * initializing and managing the game level's state.
  *
  * @author Max Holloway, Tanvir Ahmed
- * @version 2.4
+ * @version 2.8
  */
 public class Level {
 
@@ -44,10 +45,31 @@ public class Level {
     private Layer<Tile> tiles;
     // Layer containing item objects in the level.
     private Layer<Item> items;
+    // Links between the buttons and traps of the level, built when the layers are linked.
+    private TrapIndex trapIndex;
 
     // List of items to be stored or managed within the level.
     private ArrayList<Item> itemsToStore;
 
+    // Snapshot of the level as it was loaded, used to restart it.
+    private LevelSnapshot snapshot;
+    // Levels with at least this many frogs share one flow field instead of one A* pathfinder.
+    private static final int FLOW_FIELD_CHASERS = 2;
+    // Levels with at least this many cells search with hierarchical pathfinding instead of flat A*.
+    private static final int HIERARCHICAL_CELLS = 500 * 500;
+    // How frogs find the player, set with -Dgame.pathing:
+    // "auto", "astar", "flowfield", "incremental" or "hierarchical".
+    private static final String PATHING = System.getProperty("game.pathing", "auto");
+
+    // Path strategy shared by the frogs of the level, chosen when the actors are linked.
+    private PathStrategy pathStrategy;
+    // Name of the chosen path strategy, as used by game.pathing.
+    private String pathStrategyName;
+    // Snapshot of the level file loaded last, so restarting it does not read the disk; null if none.
+    private static LevelSnapshot lastLoaded;
+    // Modification time of the file of the last loaded snapshot when it was read.
+    private static long lastLoadedModified;
+
     /**
      * Default constructor for creating an empty level.
      */
@@ -56,28 +78,78 @@ public class Level {
 
     /**
      * Constructs a Level object from a file.
-     * Initializes the level based on the data from the specified file and writes the initial state
-     * to a reset file for later use.
+     * Initializes the level based on the data from the specified file and keeps an in-memory
+     * snapshot of the initial state for restarting the level.
      *
      * @param fileName The name of the file containing the level data.
      */
     public Level(String fileName) {
         this.fileName = fileName;
         createLevel();
-        //resetLevel = this;
         this.itemsToStore = this.items.checkPickedItems();
+        this.snapshot = LevelSnapshot.capture(this);
+    }
+
+    /**
+     * Loads a level from a file. Only the snapshot of the file loaded last is kept, so loading the same
+     * file again, as a restart does, is restored from memory unless the file has changed on disk since.
+     *
+     * @param fileName The name of the file containing the level data.
+     * @return A new level in the state stored in the file.
+     */
+    public static Level load(String fileName) {
+        long modified = new File(fileName).lastModified();
+        LevelSnapshot loaded;
+        synchronized (Level.class) {
+            loaded = lastLoaded != null && lastLoaded.getFileName().equals(fileName)
+                    && lastLoadedModified == modified ? lastLoaded : null;
+        }
+        if (loaded != null) {
+            return loaded.restore();
+        }
+        Level level = new Level(fileName);
+        synchronized (Level.class) {
+            lastLoaded = level.getSnapshot();
+            lastLoadedModified = modified;
+        }
+        return level;
+    }
 
+    /**
+     * Drops the remembered snapshot of a file, so the next load reads it from disk.
+     * Called whenever a level has been written to the file.
+     *
+     * @param fileName The name of the file.
+     */
+    static synchronized void forget(String fileName) {
+        if (lastLoaded != null && lastLoaded.getFileName().equals(fileName)) {
+            lastLoaded = null;
+        }
+    }
 
-        writeLevel("level/resetLevel.txt");
+    /**
+     * Creates a new copy of this level in the state it was loaded in.
+     * No files are read or written.
+     *
+     * @return The restarted level.
+     */
+    public Level restart() {
+        return snapshot.restore();
     }
 
     /**
      * Initializes the level by reading data from the specified file and setting up layer interactions.
      * This method reads the level configuration from a file and then initializes the interactions
      * between different layers of the level, such as linking traps with their corresponding mechanisms.
+     * The game cannot continue without its level, so a missing file ends the program.
      */
     public void createLevel() {
-        readLevelFromFile(fileName, this);
+        try {
+            readLevelFromFile(fileName, this);
+        } catch (FileNotFoundException fnf) {
+            System.out.println(FILE_NOT_FOUND);
+            System.exit(0);
+        }
         initialiseLayerInteractions();
     }
 
@@ -91,17 +163,110 @@ public class Level {
     public void writeLevel(String fileName) {
         LevelWriter level = new LevelWriter();
         level.writeLevelToFile(fileName, this);
+        forget(fileName);
+    }
+
+    /**
+     * Saves the current state of the level to a file in the binary format.
+     * Binary saves are smaller and faster to write than the text format, and they keep the
+     * state of traps, doors and chip sockets. They are read back by the same constructor.
+     *
+     * @param fileName The name of the file where the level data will be saved.
+     */
+    public void saveLevel(String fileName) {
+        LevelWriter level = new LevelWriter();
+        level.writeBinaryLevelToFile(fileName, this);
+        forget(fileName);
     }
 
 
 
     /**
      * Initializes interactions between different layers of the level.
-     * For example, this method could be used to link traps with their corresponding control mechanisms,
-     * ensuring that the game logic reflects these relationships.
+     * Buttons are linked with the traps of the same number through a {@link TrapIndex},
+     * and the actors are given the level's layers.
      */
     public void initialiseLayerInteractions() {
-        this.tiles.linkTraps(this.tiles.getTraps());
+        this.trapIndex = TrapIndex.build(this.tiles);
+        linkActors();
+    }
+
+    /**
+     * Gives every actor of the level a reference to the level's layers, and every frog the level's path strategy.
+     * Actors hold their layers per instance, so this must be done for every level that is loaded.
+     */
+    public void linkActors() {
+        ArrayList<Frog> frogs = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Actor actor = this.actors.getActor(x, y);
+                if (actor != null && !actor.isShareable()) {
+                    actor.setLayers(this.actors, this.tiles, this.items);
+                }
+                if (actor instanceof Frog) {
+                    frogs.add((Frog) actor);
+                }
+            }
+        }
+        choosePathStrategy(frogs.size());
+        for (Frog frog : frogs) {
+            frog.setPathStrategy(getPathStrategy());
+        }
+    }
+
+    /**
+     * Gets a path strategy for a frog of the level.
+     * The incremental planner keeps state for one frog, so a new one is created for every call;
+     * the other strategies are shared by all the frogs of the level.
+     *
+     * @return The path strategy, or null if the actors have not been linked yet.
+     */
+    public PathStrategy getPathStrategy() {
+        if ("incremental".equals(pathStrategyName)) {
+            return new IncrementalPathfinder(width, height);
+        }
+        return pathStrategy;
+    }
+
+    /**
+     * Gets the name of the path strategy chosen for the frogs of the level.
+     *
+     * @return The strategy name, as used by game.pathing, or null if the actors have not been linked yet.
+     */
+    public String getPathStrategyName() {
+        return pathStrategyName;
+    }
+
+    /**
+     * Chooses how the frogs of the level find the player, unless {@code game.pathing} picks a strategy.
+     * Several frogs share a flow field, which is searched once per player move however many frogs read it.
+     * A single frog searches with A*, which only explores towards the player, or on large levels with
+     * hierarchical pathfinding, whose searches grow with the number of clusters instead of cells.
+     * The incremental planner is never chosen here, only by {@code game.pathing=incremental}: it repairs its
+     * search when the frog moves or tiles change, but starts over whenever the player moves, so it only pays
+     * off on large levels where the player stays put for many frog moves.
+     *
+     * @param frogCount The number of frogs in the level.
+     */
+    private void choosePathStrategy(int frogCount) {
+        String name = PATHING;
+        if ("auto".equals(name)) {
+            if (frogCount >= FLOW_FIELD_CHASERS) {
+                name = "flowfield";
+            } else {
+                name = width * height >= HIERARCHICAL_CELLS ? "hierarchical" : "astar";
+            }
+        }
+        if (pathStrategy != null && pathStrategy.fits(width, height) && name.equals(pathStrategyName)) {
+            return;
+        }
+        pathStrategyName = name;
+        pathStrategy = switch (name) {
+            case "flowfield" -> new FlowField(width, height);
+            case "hierarchical" -> new HierarchicalPathfinder(width, height);
+            case "incremental" -> null;
+            default -> new GridPathfinder(width, height);
+        };
     }
 
 
@@ -229,6 +394,15 @@ public class Level {
         return tiles;
     }
 
+    /**
+     * Gets the links between the buttons and traps of the level.
+     *
+     * @return The trap index, or null if the layers have not been linked yet.
+     */
+    public TrapIndex getTrapIndex() {
+        return trapIndex;
+    }
+
     /**
      * Sets the layer of tiles in the level.
      * This method allows for replacing or updating the entire tile layer.
@@ -318,6 +492,24 @@ public class Level {
         this.fileName = fileName;
     }
 
+    /**
+     * Gets the snapshot of the level as it was loaded.
+     *
+     * @return The snapshot of the initial state.
+     */
+    public LevelSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Sets the snapshot of the level as it was loaded.
+     *
+     * @param snapshot The snapshot of the initial state.
+     */
+    void setSnapshot(LevelSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
     /**
      * Retrieves the list of items to be stored or managed within the level.
      *
@@ -0,0 +1,55 @@
+package level;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+/**
+ * The {@code LevelConverter} class converts level files between the text and binary formats.
+ * The input can be in either format; the output is written as text if its name ends in
+ * {@code .txt} and as binary otherwise.
+ *
+ * <p>Usage: {@code java level.LevelConverter <input> <output>}</p>
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+public class LevelConverter {
+
+    // Extension of files written in the text format.
+    private static final String TEXT_EXTENSION = ".txt";
+
+    /**
+     * Converts the level file given on the command line.
+     *
+     * @param args The input file and the output file.
+     * @throws FileNotFoundException If the input file does not exist.
+     */
+    public static void main(String[] args) throws FileNotFoundException {
+        if (args.length != 2) {
+            System.err.println("Usage: java level.LevelConverter <input> <output>");
+            System.exit(2);
+        }
+        convert(args[0], args[1]);
+        System.out.println(args[0] + " (" + new File(args[0]).length() + " bytes) -> "
+                + args[1] + " (" + new File(args[1]).length() + " bytes)");
+    }
+
+    /**
+     * Reads a level in either format and writes it in the format chosen by the output file name.
+     *
+     * @param input  The level file to read.
+     * @param output The file to write.
+     * @throws FileNotFoundException If the input file does not exist.
+     */
+    public static void convert(String input, String output) throws FileNotFoundException {
+        Level level = new Level();
+        LevelReader.readLevelFromFile(input, level);
+
+        LevelWriter writer = new LevelWriter();
+        if (output.endsWith(TEXT_EXTENSION)) {
+            writer.writeLevelToFile(output, level);
+        } else {
+            writer.writeBinaryLevelToFile(output, level);
+        }
+    }
+}
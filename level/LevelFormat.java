@@ -0,0 +1,81 @@
+package level;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The {@code LevelFormat} class holds the constants and primitive encodings of the binary level format.
+ *
+ * <p>A binary level starts with the magic number and format version, followed by the level number,
+ * width, height and time limit. A dictionary of the keys used in the level comes next, then the tile
+ * layer as runs of equal keys, the state of traps, doors and chip sockets, and finally sparse lists
+ * of the non-empty items and actors. Counts, run lengths, key ids and cell index gaps are written as
+ * variable-length integers, so small levels take a few hundred bytes.</p>
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+final class LevelFormat {
+
+    // Magic number at the start of every binary level: the bytes "LVL" followed by 0x1A.
+    static final int MAGIC = 0x4C564C1A;
+    // Version of the binary format written by this build.
+    static final int VERSION = 1;
+
+    // Tile state flag: the trap is active, the door is open or the chip socket is open.
+    static final int FLAG_OPEN = 1;
+    // Item flag: the item has been picked up.
+    static final int FLAG_PICKED_UP = 1;
+
+    /**
+     * Prevents instantiation of this constants class.
+     */
+    private LevelFormat() {
+    }
+
+    /**
+     * Checks if a buffer starts with the binary level magic number.
+     * The position of the buffer is not changed.
+     *
+     * @param in The buffer to check.
+     * @return true if the buffer holds a binary level, false otherwise.
+     */
+    static boolean isBinary(ByteBuffer in) {
+        return in.remaining() >= Integer.BYTES && in.getInt(in.position()) == MAGIC;
+    }
+
+    /**
+     * Writes a non-negative integer using 7 bits per byte, lowest bits first.
+     *
+     * @param out   The output to write to.
+     * @param value The value to write.
+     * @throws IOException If the value cannot be written.
+     */
+    static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an integer written by {@code writeVarInt}.
+     *
+     * @param in The buffer to read from.
+     * @return The value read.
+     * @throws IllegalArgumentException If the value is longer than five bytes.
+     */
+    static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer at byte " + in.position());
+    }
+}
@@ -1,27 +1,50 @@
 package level;
 
 import actor.Actor;
+import game.metrics.LatencyHistogram;
+import game.metrics.Metrics;
 import item.Item;
+import tile.ChipSocket;
+import tile.Door;
 import tile.Tile;
-import java.io.File;
+import tile.Trap;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 
 /**
  * The {@code LevelReader} class is responsible for reading and parsing level data from a file.
  * It extracts various level attributes like time limit, level number, and layer configurations
  * to construct a complete {@code Level} object.
+ * The file is read into memory in one call and its keys are read straight from the bytes, so each
+ * layer is built in a single pass without creating a string for every cell. Files starting with the
+ * binary level magic number are read as binary levels; all other files are read as text. Level files
+ * are small, so they are not memory-mapped: on Windows a mapped file stays locked until the mapping
+ * is freed, which would make saving over it fail.
  *
  * @author Max Holloway, Tanvir Ahmed
- * @version 1.6
+ * @version 2.0
  */
 public class LevelReader {
 
 
 
 
-    // Constant message for file not found scenario.
-    private static final String FILE_NOT_FOUND = "File not found";
+    // Longest key, in bytes, that can be packed into a single code.
+    private static final int MAX_KEY_LENGTH = 7;
+    // Code used for keys that are too long to pack; they never match a factory key.
+    private static final long UNKNOWN_KEY = -1L;
+    // Key of an empty item cell.
+    private static final String EMPTY_ITEM = "II";
+    // Key of an empty actor cell.
+    private static final String EMPTY_ACTOR = "##";
+    // Time taken to read each level file, recorded when metrics are enabled.
+    private static final LatencyHistogram READ_TIME = Metrics.histogram("level.readLevelFromFile");
 
     /**
      * Reads level data from a specified file and populates a {@code Level} object.
@@ -32,45 +55,206 @@ public class LevelReader {
      * @param level    The {@code Level} object to be populated with the extracted data.
      * @throws FileNotFoundException if the specified file cannot be found.
      */
-    public static void readLevelFromFile(String fileName, Level level) {
-        File levelFile = new File(fileName);
+    public static void readLevelFromFile(String fileName, Level level) throws FileNotFoundException {
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
         try {
-            Scanner in = new Scanner(levelFile);
+            readLevel(fileName, level);
+        } finally {
+            if (Metrics.ENABLED) {
+                READ_TIME.recordSince(start);
+            }
+        }
+    }
+
+    /**
+     * Reads level data from a file in the text or binary format and populates a {@code Level} object.
+     *
+     * @param fileName The name of the file containing level data.
+     * @param level    The {@code Level} object to be populated with the extracted data.
+     * @throws FileNotFoundException if the specified file cannot be found.
+     */
+    private static void readLevel(String fileName, Level level) throws FileNotFoundException {
+        ByteBuffer in;
+        try {
+            in = ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName)));
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read level " + fileName, e);
+        }
+        if (LevelFormat.isBinary(in)) {
+            readBinaryLevel(in, level);
+            return;
+        }
+
+        // Reading time limit from the file.
+        int timeLimit = readInt(in);
+        skipLine(in);
+
+        // Extracting level number from the file name.
+        int levelNumber = extractLevelNumber(fileName);
+        level.setLevelNumber(levelNumber);
+
+        // Parsing the size of the level
+        int width = readInt(in);
+        expect(in, ',');
+        int height = readInt(in);
+        skipLine(in);
+
+        // Reading and constructing each layer: tiles, items, actors.
+        Layer<Tile> tiles = readBlock(in, width, height, timeLimit);
+        Layer<Item> items = readBlock(in, width, height, timeLimit);
+        Layer<Actor> actors = readBlock(in, width, height, timeLimit);
+
+        // Setting extracted data to the Level object.
+        level.setTimeLimit(timeLimit);
+        level.setWidth(width);
+        level.setHeight(height);
+
+        level.setTiles(tiles);
+        level.setItems(items);
+        level.setActors(actors);
+    }
+
+    /**
+     * Reads a level in the binary format from a buffer and populates a {@code Level} object.
+     * Besides the layers, this restores the state of traps, doors and chip sockets and the picked-up flags of items.
+     *
+     * @param in    The buffer holding the binary level, positioned at the magic number.
+     * @param level The {@code Level} object to be populated with the extracted data.
+     * @throws IllegalArgumentException If the format version is not supported or the data is inconsistent.
+     */
+    static void readBinaryLevel(ByteBuffer in, Level level) {
+        in.getInt();
+        int version = in.getShort() & 0xFFFF;
+        if (version > LevelFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported level format version " + version);
+        }
+        int levelNumber = LevelFormat.readVarInt(in);
+        int width = LevelFormat.readVarInt(in);
+        int height = LevelFormat.readVarInt(in);
+        int timeLimit = LevelFormat.readVarInt(in);
+        int size = width * height;
 
-            // Reading time limit from the file.
-            int timeLimit = in.nextInt();
-            in.nextLine();
+        String[] keys = new String[LevelFormat.readVarInt(in)];
+        long[] codes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            byte[] keyBytes = new byte[LevelFormat.readVarInt(in)];
+            in.get(keyBytes);
+            keys[i] = new String(keyBytes, StandardCharsets.US_ASCII);
+            codes[i] = packKey(keyBytes);
+        }
 
-            // Extracting level number from the file name.
-            int levelNumber = extractLevelNumber(fileName);
-            level.setLevelNumber(levelNumber);
+        // Tiles are stored as runs of equal keys in row order.
+        Layer<Tile> tiles = new Layer<>(width, height, timeLimit);
+        KeyTable<Tile> tileKeys = new KeyTable<>(tiles);
+        int index = 0;
+        int runs = LevelFormat.readVarInt(in);
+        for (int run = 0; run < runs; run++) {
+            int length = LevelFormat.readVarInt(in);
+            int id = LevelFormat.readVarInt(in);
+            if (index + length > size) {
+                throw new IllegalArgumentException("Tile runs exceed the size of the level");
+            }
+            for (int end = index + length; index < end; index++) {
+                Tile tile = tileKeys.create(codes[id], index % width, index / width);
+                // Keys such as door keys are not always recreated as they were saved.
+                if (tile != null && !tile.isShareable() && !keys[id].equals(tile.getKey())) {
+                    tile.setKey(keys[id]);
+                }
+                tiles.put(index, tile);
+            }
+        }
+        if (index != size) {
+            throw new IllegalArgumentException("Tile runs cover " + index + " of " + size + " cells");
+        }
 
-            // Parsing the size of the level
-            String[] size = in.nextLine().split(",");
-            int width = Integer.parseInt(size[0]);
-            int height = Integer.parseInt(size[1]);
+        index = 0;
+        int states = LevelFormat.readVarInt(in);
+        for (int i = 0; i < states; i++) {
+            index += LevelFormat.readVarInt(in);
+            boolean open = (in.get() & LevelFormat.FLAG_OPEN) != 0;
+            int value = LevelFormat.readVarInt(in);
+            Tile tile = tiles.getTile(index % width, index / width);
+            if (tile instanceof Trap) {
+                ((Trap) tile).setActive(open);
+            } else if (tile instanceof Door) {
+                ((Door) tile).setOpen(open);
+            } else if (tile instanceof ChipSocket) {
+                ((ChipSocket) tile).setOpen(open);
+                ((ChipSocket) tile).setChipCount(value);
+            }
+        }
 
-            // Reading and constructing each layer: tiles, items, actors.
-            Layer<Tile> tiles = new Layer<>(width, height, timeLimit, readBlock(in, width, height));
-            Layer<Item> items = new Layer<>(width, height, timeLimit, readBlock(in, width, height));
-            Layer<Actor> actors = new Layer<>(width, height, timeLimit, readBlock(in, width, height));
+        Layer<Item> items = emptyLayer(width, height, timeLimit, EMPTY_ITEM);
+        KeyTable<Item> itemKeys = new KeyTable<>(items);
+        index = 0;
+        int itemCount = LevelFormat.readVarInt(in);
+        for (int i = 0; i < itemCount; i++) {
+            index += LevelFormat.readVarInt(in);
+            int id = LevelFormat.readVarInt(in);
+            boolean pickedUp = (in.get() & LevelFormat.FLAG_PICKED_UP) != 0;
+            Item item = itemKeys.create(codes[id], index % width, index / width);
+            if (item != null && pickedUp && !Boolean.TRUE.equals(item.getPickedUp())) {
+                item.pickUp();
+            }
+            items.put(index, item);
+        }
 
-            // Setting extracted data to the Level object.
-            level.setTimeLimit(timeLimit);
-            level.setWidth(width);
-            level.setHeight(height);
+        Layer<Actor> actors = emptyLayer(width, height, timeLimit, EMPTY_ACTOR);
+        KeyTable<Actor> actorKeys = new KeyTable<>(actors);
+        index = 0;
+        int actorCount = LevelFormat.readVarInt(in);
+        for (int i = 0; i < actorCount; i++) {
+            index += LevelFormat.readVarInt(in);
+            int id = LevelFormat.readVarInt(in);
+            actors.put(index, actorKeys.create(codes[id], index % width, index / width));
+        }
 
-            level.setTiles(tiles);
-            level.setItems(items);
-            level.setActors(actors);
+        level.setLevelNumber(levelNumber);
+        level.setTimeLimit(timeLimit);
+        level.setWidth(width);
+        level.setHeight(height);
 
-            in.close();
+        level.setTiles(tiles);
+        level.setItems(items);
+        level.setActors(actors);
+    }
 
+    /**
+     * Builds a layer with every cell holding the object of the same key.
+     *
+     * @param width     The width of the layer.
+     * @param height    The height of the layer.
+     * @param timeLimit The time limit of the level.
+     * @param key       The key of the object in every cell.
+     * @return The filled layer.
+     */
+    private static <T extends Keyed> Layer<T> emptyLayer(int width, int height, int timeLimit, String key) {
+        Layer<T> layer = new Layer<>(width, height, timeLimit);
+        KeyTable<T> keys = new KeyTable<>(layer);
+        long code = packKey(key.getBytes(StandardCharsets.US_ASCII));
+        for (int index = 0; index < width * height; index++) {
+            layer.put(index, keys.create(code, index % width, index / width));
+        }
+        return layer;
+    }
 
-        } catch (FileNotFoundException fnf) {
-            System.out.println(FILE_NOT_FOUND);
-            System.exit(0);
+    /**
+     * Packs the bytes of a key into a code, in the same way as keys read from text.
+     *
+     * @param key The bytes of the key.
+     * @return The packed key, or {@code UNKNOWN_KEY} if it is empty or too long.
+     */
+    private static long packKey(byte[] key) {
+        if (key.length == 0 || key.length > MAX_KEY_LENGTH) {
+            return UNKNOWN_KEY;
         }
+        long code = 0;
+        for (byte b : key) {
+            code = (code << 8) | (b & 0xFF);
+        }
+        return code | ((long) key.length << 56);
     }
 
     /**
@@ -87,26 +271,296 @@ public class LevelReader {
     }
 
     /**
-     * Reads a block of data from the scanner, representing a layer in the level.
-     * Each row of the layer is read and split into individual elements.
+     * Reads a block of rows from the buffer and builds a layer from it.
+     * Each cell's key is packed into a code and resolved through a table of the keys seen so far,
+     * so the factories are only consulted once per distinct key. Cells beyond the width of a row are ignored.
      *
-     * @param in     The scanner to read from.
-     * @param width  The width of the layer.
-     * @param height The height of the layer.
-     * @return A 2D array of strings representing the layer data.
+     * @param in        The buffer to read from.
+     * @param width     The width of the layer.
+     * @param height    The height of the layer.
+     * @param timeLimit The time limit of the level.
+     * @return The layer built from the block.
+     * @throws IllegalArgumentException If the block has too few rows, or a row has too few cells.
      */
-    private static String[][] readBlock(Scanner in, int width, int height) {
-        String[][] block = new String[height][width];
-        for (int i = 0; i < height && in.hasNextLine(); i++) {
-            String layerRow = in.nextLine();
+    private static <T extends Keyed> Layer<T> readBlock(ByteBuffer in, int width, int height, int timeLimit) {
+        Layer<T> layer = new Layer<>(width, height, timeLimit);
+        KeyTable<T> keys = new KeyTable<>(layer);
+        for (int y = 0; y < height; y++) {
+            if (!in.hasRemaining()) {
+                throw new IllegalArgumentException("Level ends before row " + y + " of a block");
+            }
+            for (int x = 0; x < width; x++) {
+                long code = readKey(in);
+                if (code == 0) {
+                    throw new IllegalArgumentException("Row " + y + " has " + x + " cells, expected " + width);
+                }
+                layer.put(y * width + x, keys.create(code, x, y));
+            }
+            skipLine(in);
+        }
+        return layer;
+    }
 
-            block[i] = layerRow.split(",");
+    /**
+     * Reads the key of a cell and packs its bytes into a code.
+     * The key ends at a comma, which is consumed, or at the end of the line, which is not.
+     *
+     * @param in The buffer to read from.
+     * @return The packed key, 0 if there is no key before the end of the line, or {@code UNKNOWN_KEY} if it is too long.
+     */
+    private static long readKey(ByteBuffer in) {
+        long code = 0;
+        int length = 0;
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b == ',') {
+                break;
+            }
+            if (b == '\r' || b == '\n') {
+                in.position(in.position() - 1);
+                break;
+            }
+            if (b == ' ' || b == '\t') {
+                continue;
+            }
+            code = (code << 8) | (b & 0xFF);
+            length++;
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (length > MAX_KEY_LENGTH) {
+            return UNKNOWN_KEY;
         }
-        return block;
+        return code | ((long) length << 56);
     }
 
+    /**
+     * Unpacks a key code back into its string.
+     *
+     * @param code The packed key.
+     * @return The key.
+     */
+    private static String unpackKey(long code) {
+        int length = (int) (code >>> 56);
+        byte[] bytes = new byte[length];
+        for (int i = length - 1; i >= 0; i--) {
+            bytes[i] = (byte) code;
+            code >>>= 8;
+        }
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
 
+    /**
+     * Reads a decimal integer, skipping any spaces before it.
+     *
+     * @param in The buffer to read from.
+     * @return The integer read.
+     * @throws IllegalArgumentException If there is no integer at the current position.
+     */
+    private static int readInt(ByteBuffer in) {
+        while (in.hasRemaining() && Character.isWhitespace(in.get(in.position()))) {
+            in.get();
+        }
+        boolean negative = in.hasRemaining() && in.get(in.position()) == '-';
+        if (negative) {
+            in.get();
+        }
+        int value = 0;
+        int digits = 0;
+        while (in.hasRemaining() && Character.isDigit(in.get(in.position()))) {
+            value = value * 10 + (in.get() - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("Expected a number at byte " + in.position());
+        }
+        return negative ? -value : value;
+    }
 
+    /**
+     * Consumes a separator character, skipping any spaces before it.
+     *
+     * @param in        The buffer to read from.
+     * @param separator The character expected.
+     * @throws IllegalArgumentException If the next character is not the separator.
+     */
+    private static void expect(ByteBuffer in, char separator) {
+        while (in.hasRemaining() && in.get(in.position()) == ' ') {
+            in.get();
+        }
+        if (!in.hasRemaining() || in.get() != separator) {
+            throw new IllegalArgumentException("Expected '" + separator + "' at byte " + in.position());
+        }
+    }
 
+    /**
+     * Skips the rest of the current line, including its line ending.
+     * Both {@code \n} and {@code \r\n} line endings are accepted.
+     *
+     * @param in The buffer to read from.
+     */
+    private static void skipLine(ByteBuffer in) {
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b == '\n') {
+                return;
+            }
+            if (b == '\r') {
+                if (in.hasRemaining() && in.get(in.position()) == '\n') {
+                    in.get();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * The {@code KeyTable} class resolves packed keys to the objects of a layer.
+     * The first cell with a key goes through {@code Layer.createObject}, which decides whether the key
+     * is an actor, item or tile. Later cells with the same key call only that factory, or reuse the
+     * first object when it is stateless.
+     *
+     * @param <T> The type of objects stored in the layer.
+     */
+    private static final class KeyTable<T extends Keyed> {
+
+        // The key resolves to nothing.
+        private static final int NONE = 0;
+        // The key resolves through the actor factory.
+        private static final int ACTOR = 1;
+        // The key resolves through the item factory.
+        private static final int ITEM = 2;
+        // The key resolves through the tile factory.
+        private static final int TILE = 3;
+
+        // The layer being built, used to create the first object of each key.
+        private final Layer<T> layer;
+        // Packed keys of the table slots; 0 marks an empty slot.
+        private long[] codes = new long[32];
+        // Key strings of the table slots.
+        private String[] keys = new String[32];
+        // Factory used for each slot's key.
+        private int[] kinds = new int[32];
+        // Shared object for each slot's key, if the key's objects are stateless.
+        private Object[] shared = new Object[32];
+        // Number of keys in the table.
+        private int size;
 
+        /**
+         * Constructs an empty key table for a layer.
+         *
+         * @param layer The layer being built.
+         */
+        KeyTable(Layer<T> layer) {
+            this.layer = layer;
+        }
+
+        /**
+         * Creates the object for a cell from its packed key.
+         *
+         * @param code The packed key of the cell.
+         * @param x    The x-coordinate of the cell.
+         * @param y    The y-coordinate of the cell.
+         * @return The object for the cell, or null if the key does not resolve.
+         */
+        @SuppressWarnings("unchecked")
+        T create(long code, int x, int y) {
+            if (code == UNKNOWN_KEY) {
+                return null;
+            }
+            int slot = find(code);
+            if (codes[slot] == 0) {
+                return add(slot, code, x, y);
+            }
+            if (shared[slot] != null) {
+                return (T) shared[slot];
+            }
+            String key = keys[slot];
+            switch (kinds[slot]) {
+                case ACTOR:
+                    Actor actor = ActorFactory.actorKey(key);
+                    actor.setPos(x, y);
+                    return (T) actor;
+                case ITEM:
+                    return (T) ItemFactory.itemKey(key);
+                case TILE:
+                    Tile tile = TileFactory.tileKey(key);
+                    tile.setPos(x, y);
+                    return (T) tile;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Resolves a key seen for the first time and stores it in a free slot.
+         *
+         * @param slot The free slot for the key.
+         * @param code The packed key.
+         * @param x    The x-coordinate of the cell.
+         * @param y    The y-coordinate of the cell.
+         * @return The object for the cell.
+         */
+        private T add(int slot, long code, int x, int y) {
+            String key = unpackKey(code);
+            T element = layer.createObject(key, x, y);
+            codes[slot] = code;
+            keys[slot] = key;
+            if (element instanceof Actor) {
+                kinds[slot] = ACTOR;
+            } else if (element instanceof Item) {
+                kinds[slot] = ITEM;
+            } else if (element instanceof Tile) {
+                kinds[slot] = TILE;
+            } else {
+                kinds[slot] = NONE;
+            }
+            if (element != null && element.isShareable()) {
+                shared[slot] = element;
+            }
+            if (++size * 4 >= codes.length * 3) {
+                grow();
+            }
+            return element;
+        }
+
+        /**
+         * Finds the slot holding a key, or the free slot where it belongs.
+         *
+         * @param code The packed key.
+         * @return The slot index.
+         */
+        private int find(long code) {
+            int mask = codes.length - 1;
+            int slot = (int) (code ^ (code >>> 29)) * 0x9E3779B9 >>> 16 & mask;
+            while (codes[slot] != 0 && codes[slot] != code) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Doubles the capacity of the table.
+         */
+        private void grow() {
+            long[] oldCodes = codes;
+            String[] oldKeys = keys;
+            int[] oldKinds = kinds;
+            Object[] oldShared = shared;
+            codes = new long[oldCodes.length * 2];
+            keys = new String[codes.length];
+            kinds = new int[codes.length];
+            shared = new Object[codes.length];
+            for (int i = 0; i < oldCodes.length; i++) {
+                if (oldCodes[i] != 0) {
+                    int slot = find(oldCodes[i]);
+                    codes[slot] = oldCodes[i];
+                    keys[slot] = oldKeys[i];
+                    kinds[slot] = oldKinds[i];
+                    shared[slot] = oldShared[i];
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package level;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code LevelSnapshot} class is an immutable copy of the state of a level, held in memory.
+ * The state is encoded in the binary level format when the snapshot is taken, so later changes
+ * to the level never affect it, and any number of fresh levels can be restored from it without
+ * touching the disk. Snapshots can also be written to disk in the background.
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.1
+ */
+public final class LevelSnapshot {
+
+    // Background thread writing snapshots to disk, one at a time and in order.
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "level-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Name of the file the level was loaded from.
+    private final String fileName;
+    // The level encoded in the binary level format; never modified or handed out.
+    private final byte[] data;
+
+    /**
+     * Constructs a snapshot from an encoded level.
+     *
+     * @param fileName The name of the file the level was loaded from.
+     * @param data     The encoded level.
+     */
+    private LevelSnapshot(String fileName, byte[] data) {
+        this.fileName = fileName;
+        this.data = data;
+    }
+
+    /**
+     * Takes a snapshot of the current state of a level.
+     *
+     * @param level The level to copy.
+     * @return The snapshot.
+     */
+    public static LevelSnapshot capture(Level level) {
+        return new LevelSnapshot(level.getFileName(), LevelWriter.toBinary(level));
+    }
+
+    /**
+     * Creates a new level in the state captured by this snapshot.
+     * The new level shares nothing with the level the snapshot was taken from.
+     *
+     * @return The restored level.
+     */
+    public Level restore() {
+        Level level = new Level();
+        LevelReader.readBinaryLevel(ByteBuffer.wrap(data).asReadOnlyBuffer(), level);
+        level.setFileName(fileName);
+        level.initialiseLayerInteractions();
+        level.setItemsToStore(level.getItems().checkPickedItems());
+        level.setSnapshot(this);
+        return level;
+    }
+
+    /**
+     * Writes the snapshot to a file on a background thread, in the binary level format.
+     * The file is written under a temporary name and then moved into place, so readers never
+     * see a partly written level. The file's snapshot kept by {@link Level#load(String)} is dropped
+     * once the new file is in place. Pending writes are lost if the program exits before they run.
+     *
+     * @param path The path of the file to write.
+     * @return A future completing when the file has been written.
+     */
+    public CompletableFuture<Void> saveAsync(String path) {
+        return CompletableFuture.runAsync(() -> {
+            Path target = Paths.get(path);
+            Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                Files.write(temporary, data);
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                Level.forget(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write level " + path, e);
+            }
+        }, WRITER);
+    }
+
+    /**
+     * Gets the name of the file the level was loaded from.
+     *
+     * @return The file name.
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Gets the size of the encoded level.
+     *
+     * @return The size in bytes.
+     */
+    public int getSize() {
+        return data.length;
+    }
+}
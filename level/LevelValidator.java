@@ -0,0 +1,493 @@
+package level;
+
+import tile.Exit;
+import tile.GameButton;
+import tile.Tile;
+import tile.Trap;
+import tile.Wall;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The {@code LevelValidator} class checks level files in bulk from the command line.
+ * Every text or binary level file found under the given files or directories is checked on a fork/join pool,
+ * and a JSON report with the problems of each level and throughput figures is written out.
+ *
+ * <p>A level is valid when its blocks match the size in its header, every key resolves through
+ * the tile, item and actor factories, every trap has a button with the same number, and the exit
+ * can be reached from the player without passing through walls.</p>
+ *
+ * <p>Usage: {@code java level.LevelValidator [-o report.json] <file or directory>...}</p>
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.1
+ */
+public class LevelValidator {
+
+    // File extension of text level files.
+    private static final String LEVEL_EXTENSION = ".txt";
+    // File extension of binary level files.
+    private static final String BINARY_EXTENSION = ".lvl";
+    // Number of header lines before the first block.
+    private static final int HEADER_LINES = 2;
+    // Number of blocks in a level file: tiles, items and actors.
+    private static final int BLOCK_COUNT = 3;
+
+    /**
+     * Validates the level files given on the command line and prints a JSON report.
+     *
+     * @param args Optional {@code -o <file>} to write the report to a file, followed by level files or directories.
+     * @throws IOException If a directory cannot be listed or the report cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        String output = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-o") && i + 1 < args.length) {
+                output = args[++i];
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: java level.LevelValidator [-o report.json] <file or directory>...");
+            System.exit(2);
+        }
+
+        List<Path> files = findLevelFiles(inputs);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        List<Report> reports = validateAll(files, pool);
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        String json = toJson(reports, elapsed, pool.getParallelism());
+        if (output == null) {
+            System.out.println(json);
+        } else {
+            try (PrintStream out = new PrintStream(output, StandardCharsets.UTF_8)) {
+                out.println(json);
+            }
+        }
+
+        boolean allValid = reports.stream().allMatch(Report::isValid);
+        System.exit(allValid ? 0 : 1);
+    }
+
+    /**
+     * Collects the level files under a list of files and directories.
+     * Directories are searched recursively, and the result is sorted so reports are stable.
+     *
+     * @param inputs The files and directories to search.
+     * @return The level files found.
+     * @throws IOException If a directory cannot be listed.
+     */
+    public static List<Path> findLevelFiles(List<Path> inputs) throws IOException {
+        Set<Path> files = new TreeSet<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> walk = Files.walk(input)) {
+                    walk.filter(Files::isRegularFile)
+                            .filter(path -> path.getFileName().toString().endsWith(LEVEL_EXTENSION)
+                                    || path.getFileName().toString().endsWith(BINARY_EXTENSION))
+                            .forEach(files::add);
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Validates a list of level files in parallel.
+     *
+     * @param files The level files to validate.
+     * @param pool  The pool to run the checks on.
+     * @return One report per file, in the same order as the files.
+     */
+    public static List<Report> validateAll(List<Path> files, ForkJoinPool pool) {
+        List<Callable<Report>> tasks = new ArrayList<>();
+        for (Path file : files) {
+            tasks.add(() -> validate(file));
+        }
+
+        List<Report> reports = new ArrayList<>();
+        for (Future<Report> future : pool.invokeAll(tasks)) {
+            try {
+                reports.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Validation was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Validation failed", e.getCause());
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Validates a single level file.
+     * The raw text of text levels is checked first, so that a malformed file is reported instead of failing to load.
+     * Binary levels carry their own size, so they go straight to loading.
+     *
+     * @param file The level file to validate.
+     * @return The report for the file.
+     */
+    public static Report validate(Path file) {
+        Report report = new Report(file.toString());
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            report.addError("cannot read file: " + e.getMessage());
+            return report;
+        }
+
+        boolean binary = LevelFormat.isBinary(ByteBuffer.wrap(bytes));
+        if (!binary) {
+            List<String> lines = new String(bytes, StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+            if (!checkText(lines, report)) {
+                return report;
+            }
+        }
+
+        Level level = new Level();
+        try {
+            LevelReader.readLevelFromFile(file.toString(), level);
+        } catch (FileNotFoundException e) {
+            report.addError("file not found");
+            return report;
+        } catch (RuntimeException e) {
+            report.addError("cannot load level: " + e);
+            return report;
+        }
+        report.width = level.getWidth();
+        report.height = level.getHeight();
+
+        checkTraps(level, report);
+        checkExitReachable(level, report);
+        return report;
+    }
+
+    /**
+     * Checks the header, the size of every block, and that every key resolves through its factory.
+     *
+     * @param lines  The lines of the level file.
+     * @param report The report to add problems to.
+     * @return true if the file is well formed enough to be loaded, false otherwise.
+     */
+    private static boolean checkText(List<String> lines, Report report) {
+        if (lines.size() < HEADER_LINES) {
+            report.addError("missing header");
+            return false;
+        }
+        String[] size = lines.get(1).trim().split(",");
+        try {
+            Integer.parseInt(lines.get(0).trim());
+            report.width = Integer.parseInt(size[0].trim());
+            report.height = Integer.parseInt(size[1].trim());
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            report.addError("malformed header");
+            return false;
+        }
+
+        int expectedLines = HEADER_LINES + BLOCK_COUNT * report.height;
+        if (lines.size() < expectedLines) {
+            report.addError("expected " + BLOCK_COUNT * report.height + " rows but found "
+                    + (lines.size() - HEADER_LINES));
+            return false;
+        }
+
+        boolean wellFormed = true;
+        String[] blockNames = {"tile", "item", "actor"};
+        for (int block = 0; block < BLOCK_COUNT; block++) {
+            for (int y = 0; y < report.height; y++) {
+                String[] keys = lines.get(HEADER_LINES + block * report.height + y).trim().split(",");
+                if (keys.length != report.width) {
+                    report.addError(blockNames[block] + " row " + y + " has " + keys.length
+                            + " cells, expected " + report.width);
+                    wellFormed = false;
+                    continue;
+                }
+                for (int x = 0; x < keys.length; x++) {
+                    if (!resolves(block, keys[x])) {
+                        report.addError("unknown " + blockNames[block] + " key '" + keys[x]
+                                + "' at " + x + "," + y);
+                    }
+                }
+            }
+        }
+        return wellFormed;
+    }
+
+    /**
+     * Checks if a key resolves through the factory of its block.
+     *
+     * @param block The index of the block: 0 for tiles, 1 for items, 2 for actors.
+     * @param key   The key to resolve.
+     * @return true if the factory creates an object for the key, false otherwise.
+     */
+    private static boolean resolves(int block, String key) {
+        try {
+            return switch (block) {
+                case 0 -> TileFactory.tileKey(key) != null;
+                case 1 -> ItemFactory.itemKey(key) != null;
+                default -> ActorFactory.actorKey(key) != null;
+            };
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks that every trap has a button with the same number.
+     *
+     * @param level  The loaded level.
+     * @param report The report to add problems to.
+     */
+    private static void checkTraps(Level level, Report report) {
+        Set<Integer> buttons = new TreeSet<>();
+        Set<Integer> traps = new TreeSet<>();
+        Layer<Tile> tiles = level.getTiles();
+        for (int y = 0; y < level.getHeight(); y++) {
+            for (int x = 0; x < level.getWidth(); x++) {
+                Tile tile = tiles.getTile(x, y);
+                if (tile instanceof GameButton) {
+                    buttons.add(((GameButton) tile).getNumber());
+                } else if (tile instanceof Trap) {
+                    traps.add(((Trap) tile).getNumber());
+                }
+            }
+        }
+        traps.removeAll(buttons);
+        for (int number : traps) {
+            report.addError("trap " + number + " has no button");
+        }
+    }
+
+    /**
+     * Checks that the exit can be reached from the player.
+     * Walls are the only tiles treated as blocking, so the check finds levels that can never be finished.
+     *
+     * @param level  The loaded level.
+     * @param report The report to add problems to.
+     */
+    private static void checkExitReachable(Level level, Report report) {
+        int width = level.getWidth();
+        int height = level.getHeight();
+        Layer<Tile> tiles = level.getTiles();
+        Layer<?> actors = level.getActors();
+
+        int start = -1;
+        boolean hasExit = false;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if ("PY".equals(actors.getKey(x, y))) {
+                    start = y * width + x;
+                }
+                hasExit |= tiles.getTile(x, y) instanceof Exit;
+            }
+        }
+        if (start < 0) {
+            report.addError("no player");
+        }
+        if (!hasExit) {
+            report.addError("no exit");
+        }
+        if (start < 0 || !hasExit) {
+            return;
+        }
+
+        boolean[] visited = new boolean[width * height];
+        int[] queue = new int[width * height];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = true;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % width;
+            int y = cell / width;
+            if (tiles.getTile(x, y) instanceof Exit) {
+                return;
+            }
+            int[][] neighbours = {{x, y - 1}, {x, y + 1}, {x - 1, y}, {x + 1, y}};
+            for (int[] next : neighbours) {
+                int nx = next[0];
+                int ny = next[1];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) {
+                    continue;
+                }
+                int index = ny * width + nx;
+                Tile tile = tiles.getTile(nx, ny);
+                if (!visited[index] && tile != null && !(tile instanceof Wall)) {
+                    visited[index] = true;
+                    queue[tail++] = index;
+                }
+            }
+        }
+        report.addError("exit is not reachable from the player");
+    }
+
+    /**
+     * Builds the JSON report for a set of validated levels.
+     *
+     * @param reports     The reports of the levels.
+     * @param elapsedNano The time taken to validate all levels, in nanoseconds.
+     * @param threads     The number of threads the levels were validated on.
+     * @return The report as a JSON document.
+     */
+    public static String toJson(List<Report> reports, long elapsedNano, int threads) {
+        long cells = 0;
+        int valid = 0;
+        for (Report report : reports) {
+            cells += (long) report.width * report.height;
+            valid += report.isValid() ? 1 : 0;
+        }
+        double seconds = Math.max(elapsedNano, 1) / 1e9;
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\n");
+        json.append("  \"summary\": {");
+        json.append("\"files\": ").append(reports.size());
+        json.append(", \"valid\": ").append(valid);
+        json.append(", \"invalid\": ").append(reports.size() - valid);
+        json.append(", \"cells\": ").append(cells);
+        json.append(", \"elapsedMs\": ").append(String.format(Locale.ROOT, "%.3f", elapsedNano / 1e6));
+        json.append(", \"filesPerSecond\": ").append(String.format(Locale.ROOT, "%.1f", reports.size() / seconds));
+        json.append(", \"cellsPerSecond\": ").append(String.format(Locale.ROOT, "%.0f", cells / seconds));
+        json.append(", \"threads\": ").append(threads);
+        json.append("},\n");
+        json.append("  \"levels\": [");
+        for (int i = 0; i < reports.size(); i++) {
+            json.append(i == 0 ? "\n" : ",\n").append("    ").append(reports.get(i).toJson());
+        }
+        json.append(reports.isEmpty() ? "]\n" : "\n  ]\n");
+        json.append("}");
+        return json.toString();
+    }
+
+    /**
+     * Escapes a string for use as a JSON string value.
+     *
+     * @param text The text to escape.
+     * @return The quoted and escaped string.
+     */
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * The {@code Report} class holds the result of validating a single level file.
+     */
+    public static final class Report {
+
+        // Path of the validated file.
+        private final String file;
+        // Width of the level from its header.
+        private int width;
+        // Height of the level from its header.
+        private int height;
+        // Problems found in the level.
+        private final List<String> errors = new ArrayList<>();
+
+        /**
+         * Constructs an empty report for a file.
+         *
+         * @param file The path of the file.
+         */
+        private Report(String file) {
+            this.file = file;
+        }
+
+        /**
+         * Records a problem found in the level.
+         *
+         * @param error The description of the problem.
+         */
+        private void addError(String error) {
+            errors.add(error);
+        }
+
+        /**
+         * Checks if no problems were found in the level.
+         *
+         * @return true if the level is valid, false otherwise.
+         */
+        public boolean isValid() {
+            return errors.isEmpty();
+        }
+
+        /**
+         * Gets the path of the validated file.
+         *
+         * @return The file path.
+         */
+        public String getFile() {
+            return file;
+        }
+
+        /**
+         * Gets the problems found in the level.
+         *
+         * @return The list of problems.
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        /**
+         * Builds the JSON object for this report.
+         *
+         * @return The report as a JSON object.
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder();
+            json.append("{\"file\": ").append(quote(file));
+            json.append(", \"valid\": ").append(isValid());
+            json.append(", \"width\": ").append(width);
+            json.append(", \"height\": ").append(height);
+            json.append(", \"errors\": [");
+            for (int i = 0; i < errors.size(); i++) {
+                json.append(i == 0 ? "" : ", ").append(quote(errors.get(i)));
+            }
+            return json.append("]}").toString();
+        }
+    }
+}
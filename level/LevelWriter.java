@@ -1,21 +1,43 @@
 package level;
 
+import actor.Actor;
+import item.Item;
+import tile.ChipSocket;
+import tile.Door;
+import tile.Tile;
+import tile.Trap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The {@code LevelWriter} class is responsible for writing and saving the state of a game level to a file.
  * It outputs various level attributes and configurations, including time limits, dimensions, and the layout
  * of different layers such as tiles, items, and actors.
+ * Levels can be written in the original text format or in the compact binary format described in {@code LevelFormat}.
  *
  * @author Max Holloway, Tanvir Ahmed
- * @version 1.6
+ * @version 1.7
  */
 public class LevelWriter {
 
     // Constant message for file not found scenario.
     private static final String FILE_NOT_FOUND = "File not found";
+    // Key of an empty item cell.
+    private static final String EMPTY_ITEM = "II";
+    // Key of an empty actor cell.
+    private static final String EMPTY_ACTOR = "##";
 
     /**
      * Writes the current state of a {@code Level} object to a file.
@@ -40,6 +62,143 @@ public class LevelWriter {
         }
     }
 
+    /**
+     * Writes the current state of a {@code Level} object to a file in the binary format.
+     * Unlike the text format, this keeps the state of traps, doors and chip sockets and the
+     * picked-up flags of items.
+     *
+     * @param filePath The path of the file where the level data will be saved.
+     * @param level    The {@code Level} object whose state is to be written to the file.
+     */
+    public void writeBinaryLevelToFile(String filePath, Level level) {
+        byte[] bytes = toBinary(level);
+        try (FileOutputStream out = new FileOutputStream(filePath)) {
+            out.write(bytes);
+        } catch (FileNotFoundException e) {
+            System.out.println(FILE_NOT_FOUND);
+            System.exit(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write level " + filePath, e);
+        }
+    }
+
+    /**
+     * Encodes the current state of a level in the binary format.
+     *
+     * @param level The level to encode.
+     * @return The encoded level.
+     */
+    public static byte[] toBinary(Level level) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeBinary(out, level);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the binary encoding of a level to a stream.
+     * The cells are visited once; each section is buffered while the key dictionary is built,
+     * and written after the dictionary.
+     *
+     * @param out   The stream to write to.
+     * @param level The level to encode.
+     * @throws IOException If the stream cannot be written.
+     */
+    private static void writeBinary(DataOutputStream out, Level level) throws IOException {
+        int width = level.getWidth();
+        int height = level.getHeight();
+        Layer<Tile> tiles = level.getTiles();
+        Layer<Item> items = level.getItems();
+        Layer<Actor> actors = level.getActors();
+
+        Dictionary dictionary = new Dictionary();
+        Section tileRuns = new Section();
+        Section tileStates = new Section();
+        Section itemEntries = new Section();
+        Section actorEntries = new Section();
+
+        int runId = -1;
+        int runLength = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+
+                // Tiles are written as runs of equal keys in row order.
+                Tile tile = tiles.getTile(x, y);
+                int id = dictionary.idOf(tiles.getKey(tile));
+                if (id != runId) {
+                    if (runLength > 0) {
+                        tileRuns.add(runLength, runId);
+                    }
+                    runId = id;
+                    runLength = 0;
+                }
+                runLength++;
+
+                if (tile instanceof Trap) {
+                    tileStates.addState(index, ((Trap) tile).isActive(), 0);
+                } else if (tile instanceof Door) {
+                    tileStates.addState(index, Boolean.TRUE.equals(((Door) tile).getOpen()), 0);
+                } else if (tile instanceof ChipSocket) {
+                    ChipSocket socket = (ChipSocket) tile;
+                    tileStates.addState(index, socket.isOpen(), socket.getChipCount());
+                }
+
+                Item item = items.getItem(x, y);
+                String itemKey = itemKey(item);
+                if (itemKey != null) {
+                    itemEntries.addCell(index);
+                    itemEntries.writeVarInt(dictionary.idOf(itemKey));
+                    itemEntries.writeByte(Boolean.TRUE.equals(item.getPickedUp()) ? LevelFormat.FLAG_PICKED_UP : 0);
+                }
+
+                String actorKey = actors.getKey(x, y);
+                if (!EMPTY_ACTOR.equals(actorKey)) {
+                    actorEntries.addCell(index);
+                    actorEntries.writeVarInt(dictionary.idOf(actorKey));
+                }
+            }
+        }
+        if (runLength > 0) {
+            tileRuns.add(runLength, runId);
+        }
+
+        out.writeInt(LevelFormat.MAGIC);
+        out.writeShort(LevelFormat.VERSION);
+        LevelFormat.writeVarInt(out, level.getLevelNumber());
+        LevelFormat.writeVarInt(out, width);
+        LevelFormat.writeVarInt(out, height);
+        LevelFormat.writeVarInt(out, level.getTimeLimit());
+
+        LevelFormat.writeVarInt(out, dictionary.keys.size());
+        for (String key : dictionary.keys) {
+            byte[] keyBytes = key.getBytes(StandardCharsets.US_ASCII);
+            LevelFormat.writeVarInt(out, keyBytes.length);
+            out.write(keyBytes);
+        }
+
+        tileRuns.writeTo(out);
+        tileStates.writeTo(out);
+        itemEntries.writeTo(out);
+        actorEntries.writeTo(out);
+    }
+
+    /**
+     * Gets the key to store for an item, or null if the cell holds no item worth storing.
+     *
+     * @param item The item in the cell.
+     * @return The key of the item, or null for empty cells.
+     */
+    private static String itemKey(Item item) {
+        if (item == null || item.getKey() == null || EMPTY_ITEM.equals(item.getKey())) {
+            return null;
+        }
+        return item.getKey();
+    }
+
     /**
      * Writes a single layer's data to the file.
      * This helper method takes a 2D string array representing a layer and writes each row as a line in the file.
@@ -65,5 +224,131 @@ public class LevelWriter {
         writeLayerToFile(writer, level.getItems().writeLayer());
         writeLayerToFile(writer, level.getActors().writeLayer());
     }
-}
 
+    /**
+     * The {@code Dictionary} class assigns ids to keys in the order they are first seen.
+     * Most cells share their key string with the previous cell, so the last key is checked by reference first.
+     */
+    private static final class Dictionary {
+
+        // Keys in id order.
+        private final ArrayList<String> keys = new ArrayList<>();
+        // Id of each key.
+        private final Map<String, Integer> ids = new HashMap<>();
+        // The key looked up last.
+        private String lastKey;
+        // The id of the key looked up last.
+        private int lastId = -1;
+
+        /**
+         * Gets the id of a key, adding the key if it has not been seen yet.
+         *
+         * @param key The key.
+         * @return The id of the key.
+         */
+        int idOf(String key) {
+            if (key == lastKey) {
+                return lastId;
+            }
+            Integer id = ids.get(key);
+            if (id == null) {
+                id = keys.size();
+                keys.add(key);
+                ids.put(key, id);
+            }
+            lastKey = key;
+            lastId = id;
+            return id;
+        }
+    }
+
+    /**
+     * The {@code Section} class buffers the entries of one part of a binary level, so its
+     * entry count can be written in front of them. It writes into a plain byte array, since
+     * it is called for every cell of the level.
+     */
+    private static final class Section {
+
+        // Buffer holding the encoded entries.
+        private byte[] bytes = new byte[64];
+        // Number of bytes used in the buffer.
+        private int length;
+        // Number of entries in the section.
+        private int count;
+        // Cell index of the previous entry, used to store gaps instead of indices.
+        private int previous;
+
+        /**
+         * Adds an entry made of two variable-length integers, such as a run length and a key id.
+         *
+         * @param first  The first value.
+         * @param second The second value.
+         */
+        void add(int first, int second) {
+            count++;
+            writeVarInt(first);
+            writeVarInt(second);
+        }
+
+        /**
+         * Starts an entry for a cell by writing the gap to the previous entry's cell.
+         *
+         * @param index The index of the cell.
+         */
+        void addCell(int index) {
+            count++;
+            writeVarInt(index - previous);
+            previous = index;
+        }
+
+        /**
+         * Adds the state of a trap, door or chip socket.
+         *
+         * @param index The index of the cell.
+         * @param open  Whether the trap is active, or the door or socket is open.
+         * @param value The chip count of a chip socket, or 0.
+         */
+        void addState(int index, boolean open, int value) {
+            addCell(index);
+            writeByte(open ? LevelFormat.FLAG_OPEN : 0);
+            writeVarInt(value);
+        }
+
+        /**
+         * Appends a non-negative integer in the variable-length encoding of {@code LevelFormat}.
+         *
+         * @param value The value to append.
+         */
+        void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        /**
+         * Appends a single byte, growing the buffer when it is full.
+         *
+         * @param value The byte to append.
+         */
+        void writeByte(int value) {
+            if (length == bytes.length) {
+                bytes = Arrays.copyOf(bytes, length * 2);
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        /**
+         * Writes the entry count followed by the entries.
+         *
+         * @param target The stream to write to.
+         * @throws IOException If the stream cannot be written.
+         */
+        void writeTo(DataOutputStream target) throws IOException {
+            LevelFormat.writeVarInt(target, count);
+            target.write(bytes, 0, length);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package level;
+
+import tile.GameButton;
+import tile.Tile;
+import tile.Trap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code TrapIndex} class links the buttons of a level to the traps with the same number.
+ * It is built with one walk over the tile layer when the level is loaded: traps are grouped by number,
+ * and every button is handed the array of its traps, so pressing a button toggles its traps without
+ * searching. The index also answers which traps a button cell controls.
+ *
+ * <p>The index reflects the tiles at the time it was built. Traps and buttons are never replaced while a
+ * level is played, so it is only built again when a level is loaded or restored.</p>
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+public final class TrapIndex {
+
+    // Returned for numbers without traps and cells without buttons.
+    private static final int[] NO_CELLS = new int[0];
+    // Handed to buttons without traps.
+    private static final Trap[] NO_TRAPS = new Trap[0];
+
+    // Width of the tile layer, for turning coordinates into cell indexes.
+    private final int width;
+    // Traps of each number, shared with the buttons of that number.
+    private final Map<Integer, Trap[]> trapsByNumber;
+    // Cell index of each trap of each number, in the same order as trapsByNumber.
+    private final Map<Integer, int[]> trapCellsByNumber;
+    // Cell indexes of the buttons, in ascending order.
+    private final int[] buttonCells;
+    // Number of each button in buttonCells.
+    private final int[] buttonNumbers;
+
+    /**
+     * Constructs an index from its tables.
+     *
+     * @param width             The width of the tile layer.
+     * @param trapsByNumber     The traps of each number.
+     * @param trapCellsByNumber The cell indexes of the traps of each number.
+     * @param buttonCells       The cell indexes of the buttons, in ascending order.
+     * @param buttonNumbers     The number of each button.
+     */
+    private TrapIndex(int width, Map<Integer, Trap[]> trapsByNumber, Map<Integer, int[]> trapCellsByNumber,
+                      int[] buttonCells, int[] buttonNumbers) {
+        this.width = width;
+        this.trapsByNumber = trapsByNumber;
+        this.trapCellsByNumber = trapCellsByNumber;
+        this.buttonCells = buttonCells;
+        this.buttonNumbers = buttonNumbers;
+    }
+
+    /**
+     * Builds the index of a tile layer and links every button to the traps with its number.
+     *
+     * @param tiles The tile layer of the level.
+     * @return The index.
+     */
+    public static TrapIndex build(Layer<Tile> tiles) {
+        int width = tiles.getWidth();
+        Map<Integer, List<Trap>> traps = new HashMap<>();
+        Map<Integer, List<Integer>> trapCells = new HashMap<>();
+        List<GameButton> buttons = new ArrayList<>();
+        int[] buttonCells = new int[16];
+        int buttonCount = 0;
+
+        for (int y = 0; y < tiles.getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                Tile tile = tiles.getTile(x, y);
+                if (tile instanceof Trap) {
+                    int number = ((Trap) tile).getNumber();
+                    traps.computeIfAbsent(number, n -> new ArrayList<>()).add((Trap) tile);
+                    trapCells.computeIfAbsent(number, n -> new ArrayList<>()).add(y * width + x);
+                } else if (tile instanceof GameButton) {
+                    if (buttonCount == buttonCells.length) {
+                        buttonCells = Arrays.copyOf(buttonCells, buttonCount * 2);
+                    }
+                    buttons.add((GameButton) tile);
+                    buttonCells[buttonCount++] = y * width + x;
+                }
+            }
+        }
+
+        Map<Integer, Trap[]> trapsByNumber = new HashMap<>();
+        Map<Integer, int[]> trapCellsByNumber = new HashMap<>();
+        for (Map.Entry<Integer, List<Trap>> entry : traps.entrySet()) {
+            trapsByNumber.put(entry.getKey(), entry.getValue().toArray(new Trap[0]));
+            List<Integer> cells = trapCells.get(entry.getKey());
+            int[] cellArray = new int[cells.size()];
+            for (int i = 0; i < cellArray.length; i++) {
+                cellArray[i] = cells.get(i);
+            }
+            trapCellsByNumber.put(entry.getKey(), cellArray);
+        }
+
+        int[] buttonNumbers = new int[buttonCount];
+        for (int i = 0; i < buttonCount; i++) {
+            GameButton button = buttons.get(i);
+            buttonNumbers[i] = button.getNumber();
+            button.setLinkedTraps(trapsByNumber.getOrDefault(button.getNumber(), NO_TRAPS));
+        }
+        return new TrapIndex(width, trapsByNumber, trapCellsByNumber,
+                Arrays.copyOf(buttonCells, buttonCount), buttonNumbers);
+    }
+
+    /**
+     * Gets the traps with a number.
+     *
+     * @param number The trap number.
+     * @return A copy of the traps with the number, empty if there are none.
+     */
+    public Trap[] getTraps(int number) {
+        return trapsByNumber.getOrDefault(number, NO_TRAPS).clone();
+    }
+
+    /**
+     * Gets the cells of the traps with a number.
+     *
+     * @param number The trap number.
+     * @return A copy of the cell indexes, {@code y * width + x}, empty if there are none.
+     */
+    public int[] getTrapCells(int number) {
+        return trapCellsByNumber.getOrDefault(number, NO_CELLS).clone();
+    }
+
+    /**
+     * Gets the cells of the traps controlled by the button on a cell.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return A copy of the cell indexes, {@code y * width + x}, empty if there is no button on the cell.
+     */
+    public int[] getLinkedTrapCells(int x, int y) {
+        if (x < 0 || x >= width) {
+            return NO_CELLS;
+        }
+        int found = Arrays.binarySearch(buttonCells, y * width + x);
+        return found < 0 ? NO_CELLS : getTrapCells(buttonNumbers[found]);
+    }
+
+    /**
+     * Gets the number of buttons in the level.
+     *
+     * @return The number of buttons.
+     */
+    public int getButtonCount() {
+        return buttonCells.length;
+    }
+}
@@ -1,6 +1,6 @@
 package tile;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -8,20 +8,22 @@ import java.util.List;
  * A lever is linked to one or more traps and can control their state.
  * This class extends the {@code Tile} class, inheriting its basic tile characteristics.
  * It includes methods for managing the associated traps and the lever's unique identifier.
+ * The traps are held in an array, usually shared with the other buttons of the same number
+ * and handed out by the level's {@code TrapIndex}.
  *
  * @author Max Holloway, Tanvir Ahmed
- * @version 1.6
+ * @version 1.7
  */
 public class GameButton extends Tile {
 
     // Unique identifier for the gameButton.
     private int number;
-    // List of traps linked to this gameButton.
-    private List<Trap> associatedTraps;
+    // Traps linked to this gameButton; may be shared with other buttons, so it is never modified.
+    private Trap[] linkedTraps = new Trap[0];
 
     /**
      * Constructs a new GameButton instance with specified parameters.
-     * Initializes an empty list for associated traps.
+     * The button starts without associated traps.
      *
      * @param number The unique number of the gameButton.
      * @param x      The x-coordinate of the gameButton on the tile grid.
@@ -31,17 +33,16 @@ public class GameButton extends Tile {
     public GameButton(int number, int x, int y, String key) {
         super(x, y, key);
         this.number = number;
-        this.associatedTraps = new ArrayList<>();
     }
 
     /**
      * Constructs a new GameButton instance with a specified number.
-     * Initializes an empty list for associated traps and sets the key based on the number.
+     * The button starts without associated traps, and its key is based on the number.
      *
      * @param number The unique number of the gameButton.
      */
     public GameButton(int number) {
-        this.associatedTraps = new ArrayList<>();
+        this.number = number;
         this.key = "B" + number;
     }
 
@@ -51,7 +52,7 @@ public class GameButton extends Tile {
      * Activate traps that are inactive and deactivates those that are active.
      */
     public void toggleTraps() {
-        for (Trap trap : associatedTraps) {
+        for (Trap trap : linkedTraps) {
             trap.toggle();
         }
     }
@@ -59,10 +60,20 @@ public class GameButton extends Tile {
     /**
      * Returns a list of traps associated with this gameButton.
      *
-     * @return A list of associated traps.
+     * @return A fixed-size list view of the associated traps.
      */
     public List<Trap> getAssociatedTraps() {
-        return associatedTraps;
+        return Arrays.asList(linkedTraps);
+    }
+
+    /**
+     * Sets the traps associated with this gameButton, replacing any linked before.
+     * The array is kept, not copied, so it can be shared by every button with the same number.
+     *
+     * @param traps The traps to be associated with the gameButton.
+     */
+    public void setLinkedTraps(Trap[] traps) {
+        this.linkedTraps = traps;
     }
 
     /**
@@ -71,7 +82,9 @@ public class GameButton extends Tile {
      * @param trap The list of traps to be associated with the gameButton.
      */
     public void addAssociatedTrap(Trap trap) {
-        this.associatedTraps.add(trap);
+        Trap[] traps = Arrays.copyOf(linkedTraps, linkedTraps.length + 1);
+        traps[linkedTraps.length] = trap;
+        this.linkedTraps = traps;
     }
 
     /**
@@ -80,7 +93,7 @@ public class GameButton extends Tile {
      * @param associatedTraps The list of traps to be associated with the gameButton.
      */
     public void setAssociatedTraps(List<Trap> associatedTraps) {
-        this.associatedTraps = associatedTraps;
+        this.linkedTraps = associatedTraps.toArray(new Trap[0]);
     }
 
     /**
@@ -90,4 +90,14 @@ public class Ice extends Tile {
     public String[] getPassableTiles() {
         return passableTiles;
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks if this ice tile can be shared between cells.
+     *
+     * @return Always true, as ice tiles hold no per-cell state.
+     */
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package tile;
+
+import java.util.Arrays;
+
+/**
+ * The {@code PassabilityMask} class is an immutable set of tile types, stored as one bit per type id.
+ * Checking if a tile is in the set is a single bit test, instead of comparing its key
+ * against a list of strings.
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+public final class PassabilityMask {
+
+    // One bit per tile type id, set for the types in the mask.
+    private final long[] bits;
+
+    /**
+     * Constructs a mask from its bits.
+     *
+     * @param bits The bits of the mask.
+     */
+    private PassabilityMask(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Creates a mask holding the tile types with the given keys.
+     *
+     * @param keys The keys of the tile types.
+     * @return The mask.
+     */
+    public static PassabilityMask of(String... keys) {
+        long[] bits = new long[0];
+        for (String key : keys) {
+            int id = TileTypes.idOf(key);
+            int word = id >>> 6;
+            if (word >= bits.length) {
+                bits = Arrays.copyOf(bits, word + 1);
+            }
+            bits[word] |= 1L << id;
+        }
+        return new PassabilityMask(bits);
+    }
+
+    /**
+     * Checks if a tile type is in the mask.
+     *
+     * @param typeId The id of the tile type.
+     * @return true if the type is in the mask, false otherwise.
+     */
+    public boolean allows(int typeId) {
+        int word = typeId >>> 6;
+        return typeId >= 0 && word < bits.length && (bits[word] & (1L << typeId)) != 0;
+    }
+
+    /**
+     * Checks if the type of a tile is in the mask.
+     *
+     * @param tile The tile to check.
+     * @return true if the tile's type is in the mask, false if it is not or the tile is null.
+     */
+    public boolean allows(Tile tile) {
+        return tile != null && allows(tile.getTypeId());
+    }
+}
@@ -27,6 +27,13 @@ public class Path extends Tile {
         return true;
     }
 
-
+    /**
+     * Checks if this path tile can be shared between cells.
+     *
+     * @return Always true, as path tiles hold no per-cell state.
+     */
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
 }
-
@@ -1,5 +1,6 @@
 package tile;
 
+import level.Keyed;
 import level.Level;
 
 /**
@@ -9,7 +10,7 @@ import level.Level;
  * @author Max Holloway, Tanvir Ahmed, Carl Antill
  * @version 1.6
  */
-public class Tile {
+public class Tile implements Keyed {
     // X coordinate of the tile on the layer.
     protected int xPos;
     // Y coordinate of the tile on the grid.
@@ -18,6 +19,10 @@ public class Tile {
     protected String key;
     // Level to which this tile belongs.
     protected Level level;
+    // Key the type id was last looked up for.
+    private String typeKey;
+    // Type id of typeKey, see TileTypes.
+    private int typeId = TileTypes.NO_TYPE;
 
     /**
      * Constructs a tile at specific coordinates with a certain identifier.
@@ -99,6 +104,21 @@ public class Tile {
         return this.key;
     }
 
+    /**
+     * Get the small integer id of the tile's type, used for passability checks.
+     * The id is looked up again only when the key changes.
+     *
+     * @return the type id of the tile, or {@code TileTypes.NO_TYPE} if it has no key.
+     */
+    public int getTypeId() {
+        String current = this.key;
+        if (current != typeKey) {
+            typeId = TileTypes.idOf(current);
+            typeKey = current;
+        }
+        return typeId;
+    }
+
     /**
      * Set the x coordinate.
      *
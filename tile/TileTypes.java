@@ -0,0 +1,45 @@
+package tile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@code TileTypes} class gives every tile key a small integer id.
+ * Ids are handed out in the order keys are first seen and stay the same for the rest of the run,
+ * so they can be used as bit positions in a {@code PassabilityMask}.
+ *
+ * @author Max Holloway, Tanvir Ahmed
+ * @version 1.0
+ */
+public final class TileTypes {
+
+    // Id returned for tiles without a key.
+    public static final int NO_TYPE = -1;
+
+    // Id of each key seen so far.
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    /**
+     * Prevents instantiation of this registry class.
+     */
+    private TileTypes() {
+    }
+
+    /**
+     * Gets the id of a tile key, giving it the next free id if it has not been seen yet.
+     *
+     * @param key The tile key.
+     * @return The id of the key, or {@code NO_TYPE} if the key is null.
+     */
+    public static synchronized int idOf(String key) {
+        if (key == null) {
+            return NO_TYPE;
+        }
+        Integer id = IDS.get(key);
+        if (id == null) {
+            id = IDS.size();
+            IDS.put(key, id);
+        }
+        return id;
+    }
+}
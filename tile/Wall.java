@@ -27,4 +27,13 @@ public class Wall extends Tile {
         return false;
     }
 
+    /**
+     * Checks if this wall tile can be shared between cells.
+     *
+     * @return Always true, as wall tiles hold no per-cell state.
+     */
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
 }
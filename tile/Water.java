@@ -41,5 +41,13 @@ public class Water extends Tile {
         return path;
     }
 
-
+    /**
+     * Checks if this water tile can be shared between cells.
+     *
+     * @return Always true, as water tiles hold no per-cell state.
+     */
+    @Override
+    public boolean isShareable() {
+        return true;
+    }
 }